@@ -0,0 +1,167 @@
+package com.xsecret.benchmark;
+
+import com.xsecret.entity.Bet;
+import com.xsecret.entity.User;
+import com.xsecret.service.bet.BetQuote;
+import com.xsecret.service.bet.BetType;
+import com.xsecret.service.bet.BetTypeRegistry;
+import com.xsecret.service.bet.checker.CompiledLotteryResult;
+import com.xsecret.service.bet.checker.DatabaseLotteryResultProvider;
+import com.xsecret.service.bet.checker.Loto2sResultChecker;
+import com.xsecret.service.bet.checker.Loto3sResultChecker;
+import com.xsecret.service.bet.checker.Loto4sResultChecker;
+import com.xsecret.service.bet.checker.SpecialResultChecker;
+import com.xsecret.service.bet.checker.TruotResultChecker;
+import com.xsecret.service.bet.checker.XienResultChecker;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Dữ liệu cố định cho benchmark (không cần DB, không cần Spring context)
+ * - Kết quả Miền Bắc / Miền Trung Nam mẫu (giống ví dụ trong LotteryResultRequest)
+ * - Số đã chọn sinh bằng Random với seed cố định → mọi lần chạy cùng 1 dataset
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20240101L;
+    static final String RESULT_DATE = "2024-01-01";
+    static final String PROVINCE = "gialai";
+
+    static final CompiledLotteryResult MIEN_BAC_RESULT = CompiledLotteryResult.compile(1L, mienBacResult());
+    static final CompiledLotteryResult MIEN_TRUNG_NAM_RESULT = CompiledLotteryResult.compile(2L, mienTrungNamResult());
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Provider trả kết quả cố định theo miền của bet thay cho LotteryResultCache / DB
+     */
+    static DatabaseLotteryResultProvider fixedResultProvider() {
+        return new DatabaseLotteryResultProvider(null) {
+            @Override
+            public CompiledLotteryResult getResultForBet(Bet bet) {
+                return BetType.MIEN_BAC.equals(bet.getRegion()) ? MIEN_BAC_RESULT : MIEN_TRUNG_NAM_RESULT;
+            }
+        };
+    }
+
+    /**
+     * Registry với checker thật, kết quả lấy từ fixedResultProvider
+     */
+    static BetTypeRegistry registry() {
+        DatabaseLotteryResultProvider provider = fixedResultProvider();
+        return new BetTypeRegistry(
+                new Loto2sResultChecker(provider),
+                new Loto3sResultChecker(provider),
+                new Loto4sResultChecker(provider),
+                new XienResultChecker(provider),
+                new SpecialResultChecker(provider),
+                new TruotResultChecker(provider));
+    }
+
+    /**
+     * Miền dùng cho loại cược: giữ miền yêu cầu nếu loại cược cho phép, ngược lại dùng miền duy nhất của loại cược
+     */
+    static String regionFor(BetType betType, String preferredRegion) {
+        if (betType.isAllowedIn(preferredRegion)) {
+            return preferredRegion;
+        }
+        return betType.isAllowedIn(BetType.MIEN_BAC) ? BetType.MIEN_BAC : BetType.MIEN_TRUNG_NAM;
+    }
+
+    /**
+     * Sinh count selection đúng định dạng của loại cược (digits, groupSize), các số trong 1 cụm không trùng
+     */
+    static List<String> selections(BetType betType, int count, Random random) {
+        int bound = (int) Math.pow(10, betType.getDigits());
+        List<String> selections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder selection = new StringBuilder();
+            List<Integer> used = new ArrayList<>(betType.getGroupSize());
+            while (used.size() < betType.getGroupSize()) {
+                int value = random.nextInt(bound);
+                if (used.contains(value)) {
+                    continue;
+                }
+                if (!used.isEmpty()) {
+                    selection.append(',');
+                }
+                used.add(value);
+                selection.append(pad(value, betType.getDigits()));
+            }
+            selections.add(selection.toString());
+        }
+        return selections;
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .points(1_000_000L)
+                .build();
+    }
+
+    static Bet bet(long id, BetType betType, String region, List<String> selections, User user) {
+        BigDecimal betAmount = BigDecimal.TEN;
+        BigDecimal pricePerPoint = BigDecimal.valueOf(27);
+        BigDecimal odds = BigDecimal.valueOf(99);
+        BetQuote quote = BetQuote.of(betType, betAmount, pricePerPoint, odds, selections.size());
+
+        return Bet.builder()
+                .id(id)
+                .user(user)
+                .region(region)
+                .province(BetType.MIEN_BAC.equals(region) ? null : PROVINCE)
+                .betType(betType.getCode())
+                .selectedNumbers(List.copyOf(selections))
+                .betAmount(betAmount)
+                .pricePerPoint(pricePerPoint)
+                .totalAmount(quote.totalAmount())
+                .odds(odds)
+                .potentialWin(quote.potentialWin())
+                .status(Bet.BetStatus.PENDING)
+                .resultDate(RESULT_DATE)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .build();
+    }
+
+    private static String pad(int value, int digits) {
+        String number = Integer.toString(value);
+        return "0".repeat(digits - number.length()) + number;
+    }
+
+    private static Map<String, Object> mienBacResult() {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("dac-biet", "00943");
+        results.put("giai-nhat", "43213");
+        results.put("giai-nhi", List.of("66146", "15901"));
+        results.put("giai-ba", List.of("22906", "04955", "93893", "32538", "25660", "85773"));
+        results.put("giai-tu", List.of("8964", "0803", "4867", "2405"));
+        results.put("giai-nam", List.of("9122", "6281", "8813", "6672", "8101", "7293"));
+        results.put("giai-sau", List.of("803", "301", "325"));
+        results.put("giai-bay", List.of("84", "09", "69", "79"));
+        return results;
+    }
+
+    private static Map<String, Object> mienTrungNamResult() {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("dac-biet", "042293");
+        results.put("giai-nhat", "02518");
+        results.put("giai-nhi", List.of("49226"));
+        results.put("giai-ba", List.of("03856", "04216"));
+        results.put("giai-tu", List.of("00810", "02321", "00681", "51728", "24507", "58068", "96136"));
+        results.put("giai-nam", List.of("8877"));
+        results.put("giai-sau", List.of("5934", "7442", "3430"));
+        results.put("giai-bay", List.of("884"));
+        results.put("giai-tam", List.of("40"));
+        return results;
+    }
+}
@@ -0,0 +1,63 @@
+package com.xsecret.benchmark;
+
+import com.xsecret.service.bet.BetQuote;
+import com.xsecret.service.bet.BetType;
+import com.xsecret.service.bet.BetTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phần tính toán trong BetService.placeBet (không có DB):
+ * resolve loại cược → validate số đã chọn → tính tiền cược / tiền thắng (BetQuote)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BetQuoteBenchmark {
+
+    @Param({"loto2s", "loto-xien-3", "dau-duoi", "loto-truot-10"})
+    public String betTypeCode;
+
+    @Param({"1", "10"})
+    public int selectionsPerBet;
+
+    private BetTypeRegistry registry;
+    private String region;
+    private List<String> selections;
+    private final BigDecimal betPoints = BigDecimal.TEN;
+    private final BigDecimal pricePerPoint = BigDecimal.valueOf(27);
+    private final BigDecimal odds = BigDecimal.valueOf(99);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = BenchmarkData.registry();
+        BetType betType = BetType.fromCode(betTypeCode);
+        region = BenchmarkData.regionFor(betType, BetType.MIEN_BAC);
+        selections = BenchmarkData.selections(betType, selectionsPerBet, new Random(BenchmarkData.SEED));
+    }
+
+    @Benchmark
+    public BetQuote quote() {
+        BetType betType = registry.resolve(betTypeCode);
+        registry.validateSelection(betType, region, selections);
+        return BetQuote.of(betType, betPoints, pricePerPoint, odds, selections.size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.xsecret.benchmark;
+
+import com.xsecret.dto.response.BetResponse;
+import com.xsecret.entity.Bet;
+import com.xsecret.entity.User;
+import com.xsecret.service.bet.BetType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Map 1 trang bet (entity → BetResponse) như getUserBets / getAllBetsForAdmin
+ * Bet đã có kết quả (winningNumbers != null) để đo cả 2 list số
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BetResponseBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Bet[] page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        BetType[] types = {BetType.LOTO_2S, BetType.LOTO_XIEN_3, BetType.DAU_DUOI, BetType.LOTO_TRUOT_8};
+        User user = BenchmarkData.user(1);
+
+        page = new Bet[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            BetType type = types[i % types.length];
+            List<String> selections = BenchmarkData.selections(type, 5, random);
+            Bet bet = BenchmarkData.bet(i + 1, type, BetType.MIEN_BAC, selections, user);
+            bet.setStatus(Bet.BetStatus.WON);
+            bet.setIsWin(true);
+            bet.setWinningNumbers(selections.subList(0, 2));
+            page[i] = bet;
+        }
+    }
+
+    @Benchmark
+    public void fromEntity(Blackhole blackhole) {
+        for (Bet bet : page) {
+            blackhole.consume(BetResponse.fromEntity(bet));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.xsecret.benchmark;
+
+import com.xsecret.security.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtils: tạo token, parse username, validate
+ * Đường đi của JwtAuthenticationFilter cho mỗi request:
+ * - legacyAuthenticatedRequest: cách cũ - dựng lại key + parser, parse + verify 2 lần (validate rồi lấy username)
+ * - authenticatedRequest: validate + lấy username với key/parser dựng sẵn (vẫn 2 lần parse)
+ * - verifiedUsername: 1 lần parse (cache tắt) / verifiedUsernameCached: token đã xác thực → chỉ tra cache
+ * - verifiedUsernameCachedContended: tra cache từ 8 thread cùng lúc (kiểm tra không tranh chấp khóa)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    // HS256 cần secret >= 256 bit (32 byte)
+    private static final String SECRET = "benchmarkJwtSecretKey0123456789AbcDef";
+
+    private JwtUtils jwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtils = newJwtUtils(10000);
+        uncachedJwtUtils = newJwtUtils(0);
+        token = jwtUtils.generateJwtToken("benchmark-user");
+    }
+
+    private static JwtUtils newJwtUtils(int verifiedCacheSize) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", 604800000);
+        ReflectionTestUtils.setField(utils, "refreshExpirationMs", 1209600000);
+        ReflectionTestUtils.setField(utils, "verifiedCacheSize", verifiedCacheSize);
+        utils.init();
+        return utils;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateJwtToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtUtils.getUsernameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String authenticatedRequest() {
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getUsernameFromJwtToken(token) : null;
+    }
+
+    @Benchmark
+    public String legacyAuthenticatedRequest() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String verifiedUsername() {
+        return uncachedJwtUtils.getVerifiedUsername(token);
+    }
+
+    @Benchmark
+    public String verifiedUsernameCached() {
+        return jwtUtils.getVerifiedUsername(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String verifiedUsernameCachedContended() {
+        return jwtUtils.getVerifiedUsername(token);
+    }
+}
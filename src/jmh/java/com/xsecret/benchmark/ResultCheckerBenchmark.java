@@ -0,0 +1,70 @@
+package com.xsecret.benchmark;
+
+import com.xsecret.entity.Bet;
+import com.xsecret.service.bet.BetType;
+import com.xsecret.service.bet.BetTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check kết quả 1 bet qua BetTypeRegistry → checker thật (loto 2s/3s/4s, xiên 2/3/4, trượt 4/8/10,
+ * mọi method của SpecialResultChecker) với kết quả Miền Bắc / Miền Trung Nam cố định
+ * betType không khai báo giá trị → JMH chạy tất cả BetType
+ * Loại cược chỉ có ở 1 miền: 2 giá trị region cho cùng 1 kết quả (đều chạy trên miền của loại cược)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultCheckerBenchmark {
+
+    private static final int BET_COUNT = 256; // lũy thừa của 2 để xoay vòng bằng mask
+
+    @Param
+    public BetType betType;
+
+    @Param({"mienBac", "mienTrungNam"})
+    public String region;
+
+    @Param({"1", "10"})
+    public int selectionsPerBet;
+
+    private BetTypeRegistry registry;
+    private Bet[] bets;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = BenchmarkData.registry();
+        String betRegion = BenchmarkData.regionFor(betType, region);
+        Random random = new Random(BenchmarkData.SEED);
+
+        bets = new Bet[BET_COUNT];
+        for (int i = 0; i < BET_COUNT; i++) {
+            bets[i] = BenchmarkData.bet(i + 1, betType, betRegion,
+                    BenchmarkData.selections(betType, selectionsPerBet, random), BenchmarkData.user(i % 32 + 1));
+        }
+    }
+
+    @Benchmark
+    public boolean checkResult() {
+        Bet bet = bets[cursor++ & (BET_COUNT - 1)];
+        bet.setWinningNumbers(null);
+        return registry.checkResult(bet);
+    }
+}
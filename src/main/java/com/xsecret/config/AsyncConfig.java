@@ -1,5 +1,9 @@
 package com.xsecret.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -24,4 +28,48 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+    
+    /**
+     * Pool cho BetSettlementEngine: số worker = số CPU
+     * Mỗi worker xử lý 1 lane (nhóm user) nên queue không cần lớn
+     */
+    @Bean(name = "betSettlementExecutor")
+    public ThreadPoolTaskExecutor betSettlementExecutor() {
+        int workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("BetSettlement-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Metrics của 2 pool: số task đang chờ trong queue, số thread đang chạy, kích thước pool
+     * (app.executor.queued / app.executor.active / app.executor.pool.size, tag name = tên bean)
+     */
+    @Bean
+    public MeterBinder executorMetrics(@Qualifier("taskExecutor") Executor taskExecutor,
+                                       @Qualifier("betSettlementExecutor") ThreadPoolTaskExecutor betSettlementExecutor) {
+        return registry -> {
+            bindExecutor(registry, "taskExecutor", (ThreadPoolTaskExecutor) taskExecutor);
+            bindExecutor(registry, "betSettlementExecutor", betSettlementExecutor);
+        };
+    }
+
+    private static void bindExecutor(MeterRegistry registry, String name, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("app.executor.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Số task đang chờ trong queue")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("app.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Số thread đang chạy task")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("app.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .description("Số thread hiện có trong pool")
+                .tag("name", name)
+                .register(registry);
+    }
 }
@@ -0,0 +1,109 @@
+package com.xsecret.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kiểm tra các query nóng không full scan (EXPLAIN) ngay khi khởi động
+ * - Dòng EXPLAIN type = ALL → full scan, kể cả khi có index (possible_keys) mà optimizer không dùng
+ * - allow-full-scan: danh sách id query được phép full scan (VD DB dev / bảng còn rất nhỏ, optimizer
+ *   chọn quét thay vì dùng index) - mặc định rỗng, mỗi id phải ghi rõ lý do trong cấu hình
+ * - fail-on-full-scan = true → dừng khởi động, false → chỉ log cảnh báo
+ * Thêm query nóng mới: thêm vào HOT_QUERIES cùng migration tạo index (db/migration)
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaIndexCheck implements CommandLineRunner {
+
+    private record HotQuery(String id, String name, String sql, Object... args) {
+    }
+
+    private static final LocalDateTime SAMPLE_TIME = LocalDateTime.of(2000, 1, 1, 0, 0);
+    // Mốc gần hiện tại như khi đồng bộ thật (mốc cũ khớp cả bảng → optimizer chọn full scan là đúng)
+    private static final LocalDateTime RECENT_TIME = LocalDateTime.now().minusMinutes(5);
+
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("bets-settlement", "bets: dò kết quả bet PENDING theo ngày",
+                    "SELECT id FROM bets WHERE status = 'PENDING' AND result_date = ? AND id > ? ORDER BY id LIMIT 500",
+                    "2000-01-01", 0L),
+            new HotQuery("bets-count-status", "bets: đếm theo trạng thái",
+                    "SELECT COUNT(*) FROM bets WHERE status = ?",
+                    "PENDING"),
+            new HotQuery("bets-user-history", "bets: lịch sử cược của user",
+                    "SELECT id FROM bets WHERE user_id = ? ORDER BY created_at DESC, id DESC LIMIT 20",
+                    0L),
+            new HotQuery("transactions-stats", "transactions: thống kê theo loại / trạng thái / thời gian",
+                    "SELECT COUNT(*) FROM transactions WHERE type = ? AND status = ? AND created_at BETWEEN ? AND ?",
+                    "DEPOSIT", "COMPLETED", SAMPLE_TIME, SAMPLE_TIME.plusDays(1)),
+            new HotQuery("transactions-user-history", "transactions: lịch sử giao dịch của user",
+                    "SELECT id FROM transactions WHERE user_id = ? ORDER BY created_at DESC, id DESC LIMIT 20",
+                    0L),
+            new HotQuery("notifications-unread", "notifications: đếm thông báo chưa đọc",
+                    "SELECT COUNT(*) FROM notifications WHERE (target_user_id IS NULL OR target_user_id = ?) " +
+                    "AND is_read = false AND (expires_at IS NULL OR expires_at > ?)",
+                    0L, SAMPLE_TIME),
+            new HotQuery("users-search-resync", "users: đồng bộ chỉ mục tìm kiếm admin",
+                    "SELECT id FROM users WHERE updated_at >= ?",
+                    RECENT_TIME),
+            new HotQuery("transactions-search-resync", "transactions: đồng bộ chỉ mục tìm kiếm admin",
+                    "SELECT id FROM transactions WHERE updated_at >= ?",
+                    RECENT_TIME)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.schema.index-check.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.schema.index-check.fail-on-full-scan:true}")
+    private boolean failOnFullScan;
+
+    @Value("${app.schema.index-check.allow-full-scan:}")
+    private Set<String> allowFullScan;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> fullScans = new ArrayList<>();
+        for (HotQuery query : HOT_QUERIES) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + query.sql(), query.args())) {
+                if (!"ALL".equals(row.get("type"))) {
+                    continue;
+                }
+                if (allowFullScan.contains(query.id())) {
+                    log.warn("⚠️ Full table scan allowed by config: {} [{}] (bảng {}, possible_keys {})",
+                            query.name(), query.id(), row.get("table"), row.get("possible_keys"));
+                } else {
+                    fullScans.add(query.name() + " [" + query.id() + "] (bảng " + row.get("table")
+                            + ", possible_keys " + row.get("possible_keys") + ")");
+                }
+            }
+        }
+
+        if (fullScans.isEmpty()) {
+            log.info("✅ Schema index check passed for {} hot queries", HOT_QUERIES.size());
+            return;
+        }
+        fullScans.forEach(scan -> log.error("❌ Full table scan on hot query: {}", scan));
+        if (failOnFullScan) {
+            throw new IllegalStateException("Query nóng không có index (full scan): " + String.join("; ", fullScans));
+        }
+    }
+}
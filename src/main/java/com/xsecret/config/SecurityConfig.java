@@ -1,8 +1,10 @@
 package com.xsecret.config;
 
+import com.xsecret.security.AdmissionControlFilter;
 import com.xsecret.security.JwtAuthenticationFilter;
 import com.xsecret.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,6 +33,7 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final AdmissionControlFilter admissionControlFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -66,6 +69,7 @@ public class SecurityConfig {
                     .requestMatchers("/public/**").permitAll() // Public endpoints (lottery results, etc.)
                     .requestMatchers("/bets/**").hasAnyRole("USER", "ADMIN") // Betting endpoints for authenticated users
                     .requestMatchers("/test/**").permitAll() // Test endpoints
+                    .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Actuator (management port riêng)
                     // Admin endpoints
                     .requestMatchers("/admin/**").hasRole("ADMIN")
                     .requestMatchers("/kyc/admin/**").hasRole("ADMIN")
@@ -80,7 +84,9 @@ public class SecurityConfig {
                     .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Kiểm soát tải request ghi: chạy sau khi đã xác thực để giới hạn theo user
+            .addFilterAfter(admissionControlFilter, UsernamePasswordAuthenticationFilter.class);
 
         // For H2 Console
         http.headers(headers -> headers.frameOptions().deny());
@@ -88,6 +94,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * AdmissionControlFilter chỉ chạy trong security filter chain (cần user đã xác thực),
+     * không đăng ký thêm ở servlet container
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration() {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(admissionControlFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
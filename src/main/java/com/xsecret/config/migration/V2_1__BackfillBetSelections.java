@@ -0,0 +1,79 @@
+package com.xsecret.config.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xsecret.entity.converter.SelectionCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migrate số đã chọn / số trúng của bet từ cột JSON TEXT cũ (selected_numbers, winning_numbers)
+ * sang cột nhị phân (selected_numbers_packed, winning_numbers_packed - xem SelectionCodec)
+ * - Chạy trong Flyway sau V2 (thêm cột packed), trước khi JPA / web khởi động
+ *   → không request nào đọc được bet có cột packed còn trống
+ * - Duyệt theo id từng lô; sau khi chuyển, cột JSON cũ được set NULL để giảm kích thước dòng
+ * Tên class là version Flyway (V2_1 = 2.1), nạp từ spring.flyway.locations
+ */
+@Slf4j
+public class V2_1__BackfillBetSelections extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        long migrated = 0;
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, selected_numbers, winning_numbers FROM bets " +
+                    "WHERE id > ? AND selected_numbers IS NOT NULL ORDER BY id LIMIT ?",
+                    lastId, BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) row.get("id")).longValue();
+                updates.add(new Object[] {
+                        SelectionCodec.encode(parseJson((String) row.get("selected_numbers"))),
+                        SelectionCodec.encode(parseJson((String) row.get("winning_numbers"))),
+                        id
+                });
+                lastId = id;
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE bets SET selected_numbers_packed = ?, winning_numbers_packed = ?, " +
+                    "selected_numbers = NULL, winning_numbers = NULL WHERE id = ?",
+                    updates);
+            migrated += rows.size();
+        }
+
+        if (migrated > 0) {
+            log.info("✅ Migrated {} bets to packed selection columns", migrated);
+        }
+    }
+
+    private List<String> parseJson(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
+        } catch (Exception e) {
+            log.warn("Cannot parse legacy selection JSON '{}': {}", json, e.getMessage());
+            return List.of(json);
+        }
+    }
+}
@@ -55,6 +55,7 @@ public class AdminController {
     private final PaymentMethodService paymentMethodService;
     private final SystemSettingsService systemSettingsService;
     private final com.xsecret.service.BetService betService;
+    private final com.xsecret.service.bet.ExposureTracker exposureTracker;
 
     @PostMapping("/login")
     @PreAuthorize("permitAll()")
@@ -263,6 +264,7 @@ public class AdminController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String searchTerm,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
@@ -272,8 +274,39 @@ public class AdminController {
                 Transaction.TransactionStatus.valueOf(status.toUpperCase()) : null;
             
             Pageable pageable = PageRequest.of(page, size);
-            Page<TransactionResponseDto> transactions = transactionService.getTransactionsWithFilters(
-                    transactionType, transactionStatus, startDate, endDate, pageable);
+            // Có searchTerm → tìm theo mã giao dịch
+            Page<TransactionResponseDto> transactions = searchTerm != null && !searchTerm.isBlank()
+                    ? transactionService.searchTransactions(
+                            searchTerm.trim(), transactionType, transactionStatus, startDate, endDate, pageable)
+                    : transactionService.getTransactionsWithFilters(
+                            transactionType, transactionStatus, startDate, endDate, pageable);
+            return ResponseEntity.ok(ApiResponse.success(transactions));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Lấy giao dịch với filter theo cursor (infinite scroll, không đếm tổng)
+     */
+    @GetMapping("/transactions/cursor")
+    public ResponseEntity<ApiResponse<com.xsecret.dto.response.CursorPage<TransactionResponseDto>>> getTransactionsByCursor(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            Transaction.TransactionType transactionType = type != null ? 
+                Transaction.TransactionType.valueOf(type.toUpperCase()) : null;
+            Transaction.TransactionStatus transactionStatus = status != null ? 
+                Transaction.TransactionStatus.valueOf(status.toUpperCase()) : null;
+            
+            com.xsecret.dto.response.CursorPage<TransactionResponseDto> transactions =
+                    transactionService.getTransactionsWithFiltersByCursor(
+                            transactionType, transactionStatus, startDate, endDate, cursor, size);
             return ResponseEntity.ok(ApiResponse.success(transactions));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -666,6 +699,29 @@ public class AdminController {
         }
     }
     
+    /**
+     * Lấy bet với filter theo cursor (infinite scroll, không đếm tổng)
+     * Tìm kiếm theo từ khóa vẫn dùng endpoint /bets (phân trang thường)
+     */
+    @GetMapping("/bets/cursor")
+    public ResponseEntity<ApiResponse<com.xsecret.dto.response.CursorPage<com.xsecret.dto.response.BetResponse>>> getBetsByCursor(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String betType,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            com.xsecret.dto.response.CursorPage<com.xsecret.dto.response.BetResponse> bets =
+                    betService.getAllBetsForAdminByCursor(status, betType, region, userId, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(bets));
+        } catch (Exception e) {
+            log.error("Error getting bets by cursor for admin", e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     /**
      * Lấy chi tiết bet
      */
@@ -764,4 +820,27 @@ public class AdminController {
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
+    
+    /**
+     * Top N số có tổng tiền phải trả (exposure) cao nhất của 1 kỳ quay
+     * province bỏ trống với miền Bắc
+     */
+    @GetMapping("/bets/exposure/top")
+    public ResponseEntity<ApiResponse<List<com.xsecret.dto.response.NumberExposureResponse>>> getTopExposedNumbers(
+            @RequestParam String region,
+            @RequestParam(required = false) String province,
+            @RequestParam String resultDate,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            String normalizedProvince = province != null && !province.isBlank()
+                    ? com.xsecret.service.lottery.Province.normalize(province) : null;
+            List<com.xsecret.dto.response.NumberExposureResponse> top = exposureTracker.getTopExposed(
+                    region, normalizedProvince, resultDate, Math.max(1, Math.min(limit, 500)));
+            return ResponseEntity.ok(ApiResponse.success(top));
+        } catch (Exception e) {
+            log.error("Error getting exposure for {} {} {}", region, province, resultDate, e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
 }
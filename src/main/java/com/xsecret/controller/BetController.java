@@ -1,10 +1,16 @@
 package com.xsecret.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.xsecret.dto.request.BetRequest;
+import com.xsecret.dto.request.BetSlipRequest;
 import com.xsecret.dto.response.BetResponse;
 import com.xsecret.dto.response.BetStatisticsResponse;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.entity.User;
+import com.xsecret.exception.OutcomePendingException;
 import com.xsecret.service.BetService;
+import com.xsecret.service.IdempotencyService;
+import com.xsecret.service.bet.BetPlacementPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -26,6 +32,10 @@ import java.util.Map;
 public class BetController {
 
     private final BetService betService;
+    private final BetPlacementPipeline betPlacementPipeline;
+    private final IdempotencyService idempotencyService;
+
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {};
 
     /**
      * Đặt cược mới
@@ -33,23 +43,76 @@ public class BetController {
     @PostMapping("/place")
     public ResponseEntity<Map<String, Object>> placeBet(
             @Valid @RequestBody BetRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         
         try {
             Long userId = getCurrentUserId(authentication);
             log.info("User {} placing bet: {}", userId, request);
             
-            BetResponse bet = betService.placeBet(request, userId);
+            // Client gửi lại cùng Idempotency-Key → trả response cũ, không đặt cược lần 2
+            return idempotencyService.execute(IdempotencyService.SCOPE_BET_PLACE, authentication.getName(),
+                    idempotencyKey, request, RESPONSE_TYPE, () -> {
+                // Pipeline bật: ghi theo lô (group commit), ngược lại mỗi lệnh 1 transaction
+                BetResponse bet;
+                try {
+                    bet = betPlacementPipeline.isEnabled()
+                            ? betPlacementPipeline.placeBet(request, userId)
+                            : betService.placeBet(request, userId);
+                } catch (OutcomePendingException e) {
+                    // Lệnh còn trong hàng đợi: response lưu cho Idempotency-Key khi lệnh commit
+                    throw e.map(this::placedResponse);
+                }
+                return placedResponse(bet);
+            });
+            
+        } catch (Exception e) {
+            log.error("Error placing bet: {}", e.getMessage());
             
             Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Đặt cược thành công");
-            response.put("data", bet);
+            response.put("success", false);
+            response.put("message", e.getMessage());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> placedResponse(BetResponse bet) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Đặt cược thành công");
+        response.put("data", bet);
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Đặt phiếu cược: nhiều lệnh trong 1 request, trừ tổng điểm 1 lần, tất cả hoặc không lệnh nào
+     */
+    @PostMapping("/place-slip")
+    public ResponseEntity<Map<String, Object>> placeBetSlip(
+            @Valid @RequestBody BetSlipRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
+        
+        try {
+            Long userId = getCurrentUserId(authentication);
+            log.info("User {} placing bet slip: {} bets", userId, request.getBets().size());
+            
+            return idempotencyService.execute(IdempotencyService.SCOPE_BET_SLIP, authentication.getName(),
+                    idempotencyKey, request, RESPONSE_TYPE, () -> {
+                List<BetResponse> bets = betService.placeBetSlip(request.getBets(), userId);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Đặt cược thành công " + bets.size() + " lệnh");
+                response.put("data", bets);
+                
+                return ResponseEntity.ok(response);
+            });
             
         } catch (Exception e) {
-            log.error("Error placing bet: {}", e.getMessage());
+            log.error("Error placing bet slip: {}", e.getMessage());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -97,6 +160,43 @@ public class BetController {
         }
     }
 
+    /**
+     * Lấy danh sách bet của user theo cursor (infinite scroll)
+     * Trang đầu: không gửi cursor; trang sau: gửi nextCursor của trang trước
+     */
+    @GetMapping("/my-bets/cursor")
+    public ResponseEntity<Map<String, Object>> getMyBetsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        
+        try {
+            Long userId = getCurrentUserId(authentication);
+            CursorPage<BetResponse> bets = betService.getUserBetsByCursor(userId, cursor, size);
+            
+            Map<String, Object> pagination = new HashMap<>();
+            pagination.put("size", bets.getSize());
+            pagination.put("hasMore", bets.isHasMore());
+            pagination.put("nextCursor", bets.getNextCursor());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", bets.getContent());
+            response.put("pagination", pagination);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Error getting user bets by cursor: {}", e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * Lấy bet theo ID
      */
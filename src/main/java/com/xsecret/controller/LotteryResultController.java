@@ -7,9 +7,10 @@ import com.xsecret.entity.LotteryResult;
 import com.xsecret.repository.LotteryResultRepository;
 import com.xsecret.service.LotteryResultService;
 import com.xsecret.service.BetService;
+import com.xsecret.service.bet.BetSettlementEngine;
+import com.xsecret.service.bet.PendingBetReader;
 import com.xsecret.service.lottery.LotteryResultAutoImportService;
-import com.xsecret.entity.Bet;
-import com.xsecret.repository.BetRepository;
+import com.xsecret.service.lottery.Province;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -40,9 +41,10 @@ public class LotteryResultController {
 
     private final LotteryResultService lotteryResultService;
     private final LotteryResultRepository lotteryResultRepository;
-    private final BetRepository betRepository;
+    private final PendingBetReader pendingBetReader;
     private final LotteryResultAutoImportService lotteryResultAutoImportService;
     private final BetService betService;
+    private final BetSettlementEngine betSettlementEngine;
 
     // ==================== ADMIN ENDPOINTS ====================
 
@@ -122,7 +124,7 @@ public class LotteryResultController {
                 
                 // Check bet cho ngày của kết quả được publish
                 log.info("🎯 Manual trigger: Checking bets for result date: {}", response.getDrawDate());
-                betService.checkBetResultsForDate(response.getDrawDate().toString());
+                betSettlementEngine.settlePendingBetsForDate(response.getDrawDate().toString());
                 
                 log.info("✅ Auto bet check completed after admin publish");
             } catch (Exception e) {
@@ -159,7 +161,7 @@ public class LotteryResultController {
             }
             
             log.info("🔍 DEBUG: Starting manual bet check for date: {}", date);
-            betService.checkBetResultsForDate(date);
+            betSettlementEngine.settlePendingBetsForDate(date);
             log.info("✅ DEBUG: Manual bet check completed successfully");
             return ResponseEntity.ok(ApiResponse.success("Manual bet check completed for date: " + date, null));
         } catch (Exception e) {
@@ -190,7 +192,7 @@ public class LotteryResultController {
                         .body(ApiResponse.error("Chưa có kết quả xổ số cho ngày " + today + ". Vui lòng import kết quả trước khi check bet."));
             }
             
-            betService.checkBetResultsForDate(today);
+            betSettlementEngine.settlePendingBetsForDate(today);
             return ResponseEntity.ok(ApiResponse.success("Force check today completed: " + today, null));
         } catch (Exception e) {
             log.error("❌ Force check today failed: {}", e.getMessage(), e);
@@ -219,7 +221,7 @@ public class LotteryResultController {
                         .body(ApiResponse.error("Chưa có kết quả xổ số cho ngày " + date + ". Vui lòng import kết quả trước khi check bet."));
             }
             
-            betService.checkBetResultsForDate(date);
+            betSettlementEngine.settlePendingBetsForDate(date);
             return ResponseEntity.ok(ApiResponse.success("Force check 2025-10-21 completed: " + date, null));
         } catch (Exception e) {
             log.error("❌ Force check 2025-10-21 failed: {}", e.getMessage(), e);
@@ -258,7 +260,7 @@ public class LotteryResultController {
         
         try {
             log.info("🚀 Starting test bet check for date: {}", date);
-            betService.checkBetResultsForDate(date);
+            betSettlementEngine.settlePendingBetsForDate(date);
             log.info("✅ Test bet check completed for date: {}", date);
             return ResponseEntity.ok(ApiResponse.success("Test bet check completed for date: " + date, null));
         } catch (Exception e) {
@@ -287,9 +289,8 @@ public class LotteryResultController {
             
             // 2. Check bets for the date
             log.info("🔍 Step 2: Checking bets for date: {}", testDate);
-            List<Bet> bets = betRepository.findPendingBetsToCheckForDate(testDate);
-            result.put("betsFound", bets.size());
-            result.put("bets", bets.stream().map(bet -> {
+            List<Map<String, Object>> bets = new ArrayList<>();
+            pendingBetReader.forEach(testDate, bet -> {
                 Map<String, Object> betInfo = new HashMap<>();
                 betInfo.put("id", bet.getId());
                 betInfo.put("region", bet.getRegion());
@@ -297,8 +298,10 @@ public class LotteryResultController {
                 betInfo.put("betType", bet.getBetType());
                 betInfo.put("resultDate", bet.getResultDate());
                 betInfo.put("status", bet.getStatus());
-                return betInfo;
-            }).collect(java.util.stream.Collectors.toList()));
+                bets.add(betInfo);
+            });
+            result.put("betsFound", bets.size());
+            result.put("bets", bets);
             
             // 3. Check lottery results for the date
             log.info("🔍 Step 3: Checking lottery results for date: {}", testDate);
@@ -319,7 +322,7 @@ public class LotteryResultController {
             // 4. Test check bet
             if (!bets.isEmpty()) {
                 log.info("🔍 Step 4: Testing bet check for {} bets", bets.size());
-                betService.checkBetResultsForDate(testDate);
+                betSettlementEngine.settlePendingBetsForDate(testDate);
                 result.put("betCheckResult", "SUCCESS");
             } else {
                 result.put("betCheckResult", "NO_BETS_TO_CHECK");
@@ -381,14 +384,8 @@ public class LotteryResultController {
         
         try {
             // Tìm bet có resultDate = date
-            List<Bet> bets = betRepository.findPendingBetsToCheckForDate(date);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("date", date);
-            result.put("totalBets", bets.size());
-            
             List<Map<String, Object>> betDetails = new ArrayList<>();
-            for (Bet bet : bets) {
+            long totalBets = pendingBetReader.forEach(date, bet -> {
                 Map<String, Object> betInfo = new HashMap<>();
                 betInfo.put("id", bet.getId());
                 betInfo.put("status", bet.getStatus());
@@ -399,7 +396,11 @@ public class LotteryResultController {
                 betInfo.put("resultDate", bet.getResultDate());
                 betInfo.put("createdAt", bet.getCreatedAt());
                 betDetails.add(betInfo);
-            }
+            });
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("date", date);
+            result.put("totalBets", totalBets);
             result.put("bets", betDetails);
             
             return ResponseEntity.ok(ApiResponse.success("Bet details retrieved", result));
@@ -429,7 +430,7 @@ public class LotteryResultController {
                 return ResponseEntity.ok(ApiResponse.success("Chưa có kết quả xổ số cho ngày " + today + ". Fix đã hoạt động - bet sẽ được skip thay vì set LOST.", null));
             }
             
-            betService.checkBetResultsForDate(today);
+            betSettlementEngine.settlePendingBetsForDate(today);
             return ResponseEntity.ok(ApiResponse.success("Test fix hoàn thành cho ngày " + today + ". Check logs để xem chi tiết.", null));
         } catch (Exception e) {
             log.error("❌ Test fix failed: {}", e.getMessage(), e);
@@ -631,14 +632,8 @@ public class LotteryResultController {
         
         try {
             // Tìm tất cả bet của ngày
-            List<Bet> allBets = betRepository.findPendingBetsToCheck(date);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("date", date);
-            result.put("totalBets", allBets.size());
-            
             List<Map<String, Object>> betDetails = new ArrayList<>();
-            for (Bet bet : allBets) {
+            long totalBets = pendingBetReader.forEach(date, bet -> {
                 Map<String, Object> betInfo = new HashMap<>();
                 betInfo.put("id", bet.getId());
                 betInfo.put("status", bet.getStatus());
@@ -649,7 +644,11 @@ public class LotteryResultController {
                 betInfo.put("isWin", bet.getIsWin());
                 betInfo.put("winAmount", bet.getWinAmount());
                 betDetails.add(betInfo);
-            }
+            });
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("date", date);
+            result.put("totalBets", totalBets);
             result.put("bets", betDetails);
             
             return ResponseEntity.ok(ApiResponse.success("Bet status retrieved", result));
@@ -1152,84 +1151,7 @@ public class LotteryResultController {
      * Helper method to normalize province name (same logic as BetService)
      */
     private String normalizeProvinceName(String province) {
-        if (province == null) {
-            return null;
-        }
-        
-        // Remove "xổsố" prefix and normalize
-        String normalized = province.toLowerCase()
-                .replace("xổsố", "")
-                .replace("xổ số", "")
-                .replace(" ", "")
-                .replace("á", "a")
-                .replace("à", "a")
-                .replace("ả", "a")
-                .replace("ã", "a")
-                .replace("ạ", "a")
-                .replace("ă", "a")
-                .replace("ắ", "a")
-                .replace("ằ", "a")
-                .replace("ẳ", "a")
-                .replace("ẵ", "a")
-                .replace("ặ", "a")
-                .replace("â", "a")
-                .replace("ấ", "a")
-                .replace("ầ", "a")
-                .replace("ẩ", "a")
-                .replace("ẫ", "a")
-                .replace("ậ", "a")
-                .replace("é", "e")
-                .replace("è", "e")
-                .replace("ẻ", "e")
-                .replace("ẽ", "e")
-                .replace("ẹ", "e")
-                .replace("ê", "e")
-                .replace("ế", "e")
-                .replace("ề", "e")
-                .replace("ể", "e")
-                .replace("ễ", "e")
-                .replace("ệ", "e")
-                .replace("í", "i")
-                .replace("ì", "i")
-                .replace("ỉ", "i")
-                .replace("ĩ", "i")
-                .replace("ị", "i")
-                .replace("ó", "o")
-                .replace("ò", "o")
-                .replace("ỏ", "o")
-                .replace("õ", "o")
-                .replace("ọ", "o")
-                .replace("ô", "o")
-                .replace("ố", "o")
-                .replace("ồ", "o")
-                .replace("ổ", "o")
-                .replace("ỗ", "o")
-                .replace("ộ", "o")
-                .replace("ơ", "o")
-                .replace("ớ", "o")
-                .replace("ờ", "o")
-                .replace("ở", "o")
-                .replace("ỡ", "o")
-                .replace("ợ", "o")
-                .replace("ú", "u")
-                .replace("ù", "u")
-                .replace("ủ", "u")
-                .replace("ũ", "u")
-                .replace("ụ", "u")
-                .replace("ư", "u")
-                .replace("ứ", "u")
-                .replace("ừ", "u")
-                .replace("ử", "u")
-                .replace("ữ", "u")
-                .replace("ự", "u")
-                .replace("ý", "y")
-                .replace("ỳ", "y")
-                .replace("ỷ", "y")
-                .replace("ỹ", "y")
-                .replace("ỵ", "y")
-                .replace("đ", "d");
-        
-        return normalized;
+        return Province.normalize(province);
     }
 }
 
@@ -2,6 +2,7 @@ package com.xsecret.controller;
 
 import com.xsecret.dto.request.NotificationRequest;
 import com.xsecret.dto.response.ApiResponse;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.dto.response.NotificationResponse;
 import com.xsecret.security.UserPrincipal;
 import com.xsecret.service.NotificationService;
@@ -98,7 +99,7 @@ public class NotificationController {
         try {
             Pageable pageable = PageRequest.of(page, size);
             Page<NotificationResponse> notifications = notificationService.getUserNotifications(
-                    principal.getUsername(),
+                    principal.getId(),
                     pageable
             );
             return ResponseEntity.ok(ApiResponse.success(notifications));
@@ -108,6 +109,28 @@ public class NotificationController {
         }
     }
 
+    /**
+     * User: Lấy thông báo của mình theo cursor (infinite scroll, không đếm tổng)
+     */
+    @GetMapping("/my/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<NotificationResponse>>> getMyNotificationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            CursorPage<NotificationResponse> notifications = notificationService.getUserNotificationsByCursor(
+                    principal.getId(),
+                    cursor,
+                    size
+            );
+            return ResponseEntity.ok(ApiResponse.success(notifications));
+        } catch (Exception e) {
+            log.error("Error fetching user notifications by cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Lỗi khi tải thông báo: " + e.getMessage()));
+        }
+    }
+
     /**
      * User: Đếm thông báo chưa đọc
      */
@@ -115,7 +138,7 @@ public class NotificationController {
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<ApiResponse<Long>> getUnreadCount(@AuthenticationPrincipal UserPrincipal principal) {
         try {
-            long count = notificationService.countUnreadNotifications(principal.getUsername());
+            long count = notificationService.countUnreadNotifications(principal.getId());
             return ResponseEntity.ok(ApiResponse.success(count));
         } catch (Exception e) {
             log.error("Error counting unread notifications: {}", e.getMessage());
@@ -134,7 +157,7 @@ public class NotificationController {
         log.info("User {} marking notification {} as read", principal.getUsername(), id);
         
         try {
-            NotificationResponse notification = notificationService.markAsRead(id, principal.getUsername());
+            NotificationResponse notification = notificationService.markAsRead(id, principal.getId());
             return ResponseEntity.ok(ApiResponse.success("Đã đánh dấu đã đọc", notification));
         } catch (Exception e) {
             log.error("Error marking notification as read: {}", e.getMessage());
@@ -151,7 +174,7 @@ public class NotificationController {
         log.info("User {} marking all notifications as read", principal.getUsername());
         
         try {
-            notificationService.markAllAsRead(principal.getUsername());
+            notificationService.markAllAsRead(principal.getId());
             return ResponseEntity.ok(ApiResponse.success("Đã đánh dấu tất cả đã đọc", null));
         } catch (Exception e) {
             log.error("Error marking all as read: {}", e.getMessage());
@@ -168,7 +191,7 @@ public class NotificationController {
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal principal) {
         try {
-            NotificationResponse notification = notificationService.getNotificationById(id, principal.getUsername());
+            NotificationResponse notification = notificationService.getNotificationById(id, principal.getId());
             return ResponseEntity.ok(ApiResponse.success(notification));
         } catch (Exception e) {
             log.error("Error fetching notification: {}", e.getMessage());
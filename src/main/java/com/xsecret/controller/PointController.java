@@ -2,6 +2,7 @@ package com.xsecret.controller;
 
 import com.xsecret.dto.request.PointAdjustmentRequest;
 import com.xsecret.dto.response.ApiResponse;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.dto.response.PointTransactionResponse;
 import com.xsecret.dto.response.UserPointResponse;
 import com.xsecret.entity.User;
@@ -70,6 +71,29 @@ public class PointController {
         }
     }
 
+    @GetMapping("/my-history/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<PointTransactionResponse>>> getMyPointHistoryByCursor(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            CursorPage<PointTransactionResponse> response =
+                    pointService.getUserPointHistoryByCursor(user.getId(), cursor, size);
+            
+            return ResponseEntity.ok(ApiResponse.<CursorPage<PointTransactionResponse>>builder()
+                    .success(true)
+                    .message("Lấy lịch sử điểm thành công")
+                    .data(response)
+                    .build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.<CursorPage<PointTransactionResponse>>builder()
+                    .success(false)
+                    .message("Lỗi khi lấy lịch sử điểm: " + e.getMessage())
+                    .build());
+        }
+    }
+
     // Admin endpoints
     @PostMapping("/admin/adjust")
     @PreAuthorize("hasRole('ADMIN')")
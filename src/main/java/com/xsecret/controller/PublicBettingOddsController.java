@@ -2,9 +2,12 @@ package com.xsecret.controller;
 
 import com.xsecret.dto.response.ApiResponse;
 import com.xsecret.dto.response.BettingOddsResponse;
-import com.xsecret.service.BettingOddsService;
+import com.xsecret.service.BettingOddsSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +15,7 @@ import java.util.List;
 
 /**
  * Controller public cho user lấy tỷ lệ cược
+ * Đọc từ BettingOddsSnapshot (không truy cập DB), trả ETag: client gửi If-None-Match khớp → 304 không có body
  */
 @RestController
 @RequestMapping("/betting-odds")
@@ -20,16 +24,17 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class PublicBettingOddsController {
 
-    private final BettingOddsService bettingOddsService;
+    private final BettingOddsSnapshot bettingOddsSnapshot;
 
     /**
      * Lấy tất cả tỷ lệ cược đang active
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<BettingOddsResponse>>> getAllActiveBettingOdds() {
+    public ResponseEntity<ApiResponse<List<BettingOddsResponse>>> getAllActiveBettingOdds(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<BettingOddsResponse> bettingOdds = bettingOddsService.getAllBettingOdds();
-            return ResponseEntity.ok(ApiResponse.success(bettingOdds));
+            BettingOddsSnapshot.Snapshot snapshot = bettingOddsSnapshot.current();
+            return withEtag(snapshot, ifNoneMatch, snapshot.all());
         } catch (Exception e) {
             log.error("Error getting all active betting odds", e);
             return ResponseEntity.badRequest()
@@ -42,15 +47,33 @@ public class PublicBettingOddsController {
      */
     @GetMapping("/region/{region}")
     public ResponseEntity<ApiResponse<List<BettingOddsResponse>>> getActiveBettingOddsByRegion(
-            @PathVariable String region) {
+            @PathVariable String region,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<BettingOddsResponse> bettingOdds = bettingOddsService.getActiveBettingOddsByRegion(region);
-            return ResponseEntity.ok(ApiResponse.success(bettingOdds));
+            BettingOddsSnapshot.Snapshot snapshot = bettingOddsSnapshot.current();
+            return withEtag(snapshot, ifNoneMatch, snapshot.activeByRegion(region));
         } catch (Exception e) {
             log.error("Error getting active betting odds by region: {}", region, e);
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Lỗi khi lấy tỷ lệ cược: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * ETag của cả bản chụp: bất kỳ tỷ lệ nào thay đổi thì mọi danh sách đều đổi ETag
+     */
+    private ResponseEntity<ApiResponse<List<BettingOddsResponse>>> withEtag(BettingOddsSnapshot.Snapshot snapshot,
+                                                                           String ifNoneMatch,
+                                                                           List<BettingOddsResponse> bettingOdds) {
+        if (ifNoneMatch != null && (ifNoneMatch.contains(snapshot.etag()) || "*".equals(ifNoneMatch.trim()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success(bettingOdds));
+    }
+}
@@ -1,13 +1,16 @@
 package com.xsecret.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.xsecret.dto.request.DepositRequestDto;
 import com.xsecret.dto.request.WithdrawRequestDto;
 import com.xsecret.dto.request.UserWithdrawRequestDto;
 import com.xsecret.dto.response.ApiResponse;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.dto.response.PaymentMethodResponseDto;
 import com.xsecret.dto.response.TransactionResponseDto;
 import com.xsecret.entity.PaymentMethod;
 import com.xsecret.entity.Transaction;
+import com.xsecret.service.IdempotencyService;
 import com.xsecret.service.PaymentMethodService;
 import com.xsecret.service.TransactionService;
 import jakarta.validation.Valid;
@@ -28,6 +31,10 @@ public class TransactionController {
     
     private final TransactionService transactionService;
     private final PaymentMethodService paymentMethodService;
+    private final IdempotencyService idempotencyService;
+    
+    private static final TypeReference<ApiResponse<TransactionResponseDto>> TRANSACTION_RESPONSE_TYPE =
+            new TypeReference<>() {};
     
     /**
      * Lấy danh sách payment methods available
@@ -60,11 +67,15 @@ public class TransactionController {
     @PostMapping("/deposit")
     public ResponseEntity<ApiResponse<TransactionResponseDto>> createDepositRequest(
             @Valid @RequestBody DepositRequestDto request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         try {
-            TransactionResponseDto transaction = transactionService.createDepositRequest(
-                    request, authentication.getName());
-            return ResponseEntity.ok(ApiResponse.success("Deposit request created successfully", transaction));
+            return idempotencyService.execute(IdempotencyService.SCOPE_DEPOSIT, authentication.getName(),
+                    idempotencyKey, request, TRANSACTION_RESPONSE_TYPE, () -> {
+                TransactionResponseDto transaction = transactionService.createDepositRequest(
+                        request, authentication.getName());
+                return ResponseEntity.ok(ApiResponse.success("Deposit request created successfully", transaction));
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -77,11 +88,15 @@ public class TransactionController {
     @PostMapping("/user-withdraw")
     public ResponseEntity<ApiResponse<TransactionResponseDto>> createUserWithdrawRequest(
             @Valid @RequestBody UserWithdrawRequestDto request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         try {
-            TransactionResponseDto transaction = transactionService.createUserWithdrawRequest(
-                    request, authentication.getName());
-            return ResponseEntity.ok(ApiResponse.success("User withdraw request created successfully", transaction));
+            return idempotencyService.execute(IdempotencyService.SCOPE_USER_WITHDRAW, authentication.getName(),
+                    idempotencyKey, request, TRANSACTION_RESPONSE_TYPE, () -> {
+                TransactionResponseDto transaction = transactionService.createUserWithdrawRequest(
+                        request, authentication.getName());
+                return ResponseEntity.ok(ApiResponse.success("User withdraw request created successfully", transaction));
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -94,11 +109,15 @@ public class TransactionController {
     @PostMapping("/withdraw")
     public ResponseEntity<ApiResponse<TransactionResponseDto>> createWithdrawRequest(
             @Valid @RequestBody WithdrawRequestDto request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         try {
-            TransactionResponseDto transaction = transactionService.createWithdrawRequest(
-                    request, authentication.getName());
-            return ResponseEntity.ok(ApiResponse.success("Withdraw request created successfully", transaction));
+            return idempotencyService.execute(IdempotencyService.SCOPE_WITHDRAW, authentication.getName(),
+                    idempotencyKey, request, TRANSACTION_RESPONSE_TYPE, () -> {
+                TransactionResponseDto transaction = transactionService.createWithdrawRequest(
+                        request, authentication.getName());
+                return ResponseEntity.ok(ApiResponse.success("Withdraw request created successfully", transaction));
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -124,6 +143,24 @@ public class TransactionController {
         }
     }
     
+    /**
+     * Lấy lịch sử giao dịch của user theo cursor (infinite scroll, không đếm tổng)
+     */
+    @GetMapping("/history/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<TransactionResponseDto>>> getUserTransactionsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        try {
+            CursorPage<TransactionResponseDto> transactions = transactionService.getUserTransactionsByCursor(
+                    authentication.getName(), cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(transactions));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     /**
      * Lấy giao dịch theo type
      */
@@ -32,11 +32,11 @@ public class BetRequest {
     @DecimalMin(value = "1.0", message = "Số điểm cược phải lớn hơn 0")
     private BigDecimal betAmount;
     
-    @NotNull(message = "Price per point không được để trống")
+    // Đơn giá + tỷ lệ client đang hiển thị, chỉ để đối chiếu:
+    // tiền cược / tiền thắng luôn tính theo BettingOddsSnapshot phía server
     @DecimalMin(value = "0.0", message = "Đơn giá không được âm")
     private BigDecimal pricePerPoint;
     
-    @NotNull(message = "Odds không được để trống")
     @DecimalMin(value = "1.0", message = "Tỷ lệ cược phải lớn hơn 0")
     private BigDecimal odds;
 }
@@ -0,0 +1,26 @@
+package com.xsecret.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Phiếu cược: nhiều lệnh cược đặt cùng lúc (tất cả thành công hoặc không lệnh nào được ghi)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetSlipRequest {
+
+    @Valid
+    @NotNull(message = "Danh sách cược không được để trống")
+    @Size(min = 1, max = 50, message = "Phiếu cược phải có từ 1 đến 50 lệnh")
+    private List<BetRequest> bets;
+}
@@ -0,0 +1,57 @@
+package com.xsecret.dto.request;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Vị trí trong danh sách sắp xếp (createdAt DESC, id DESC) cho phân trang keyset (cursor)
+ * - Trang tiếp theo = các dòng đứng sau (createdAt, id) của dòng cuối trang trước → query đi thẳng tới vị trí
+ *   qua index (..., created_at, id), không OFFSET, không COUNT
+ * - Gửi cho client dạng chuỗi base64url (client không cần / không nên đọc nội dung)
+ */
+public record PageCursor(LocalDateTime createdAt, Long id) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    // Trang đầu: đứng sau mọi dòng có thật
+    private static final PageCursor FIRST = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * Đọc cursor client gửi lên, không có → trang đầu
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('_');
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RuntimeException("Cursor phân trang không hợp lệ");
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giới hạn số dòng cần đọc: size (đã chặn trong 1..MAX_SIZE) + 1 dòng để biết còn trang sau hay không
+     */
+    public static Pageable limit(int size) {
+        return PageRequest.ofSize(clamp(size) + 1);
+    }
+
+    public static int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
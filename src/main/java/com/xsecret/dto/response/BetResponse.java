@@ -1,6 +1,7 @@
 package com.xsecret.dto.response;
 
 import com.xsecret.entity.Bet;
+import com.xsecret.repository.BetView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -45,7 +46,7 @@ public class BetResponse {
                 .region(bet.getRegion())
                 .province(bet.getProvince())
                 .betType(bet.getBetType())
-                .selectedNumbers(parseJsonArray(bet.getSelectedNumbers()))
+                .selectedNumbers(bet.getSelectedNumbers() != null ? bet.getSelectedNumbers() : List.of())
                 .betAmount(bet.getBetAmount())
                 .pricePerPoint(bet.getPricePerPoint())
                 .totalAmount(bet.getTotalAmount())
@@ -54,7 +55,7 @@ public class BetResponse {
                 .status(bet.getStatus())
                 .isWin(bet.getIsWin())
                 .winAmount(bet.getWinAmount())
-                .winningNumbers(parseJsonArray(bet.getWinningNumbers()))
+                .winningNumbers(bet.getWinningNumbers() != null ? bet.getWinningNumbers() : List.of())
                 .resultDate(bet.getResultDate())
                 .createdAt(bet.getCreatedAt())
                 .updatedAt(bet.getUpdatedAt())
@@ -64,28 +65,31 @@ public class BetResponse {
                 .build();
     }
     
-    private static List<String> parseJsonArray(String jsonArray) {
-        if (jsonArray == null || jsonArray.trim().isEmpty()) {
-            return List.of();
-        }
-        
-        try {
-            // Simple JSON array parsing for strings
-            String clean = jsonArray.trim();
-            if (clean.startsWith("[") && clean.endsWith("]")) {
-                clean = clean.substring(1, clean.length() - 1);
-                if (clean.trim().isEmpty()) {
-                    return List.of();
-                }
-                
-                return List.of(clean.split(","))
-                        .stream()
-                        .map(s -> s.trim().replaceAll("^\"|\"$", ""))
-                        .toList();
-            }
-            return List.of(clean);
-        } catch (Exception e) {
-            return List.of(jsonArray);
-        }
+    /**
+     * Từ projection của các query danh sách (đã có sẵn userId + username, không chạm tới entity)
+     */
+    public static BetResponse fromView(BetView bet) {
+        return BetResponse.builder()
+                .id(bet.getId())
+                .region(bet.getRegion())
+                .province(bet.getProvince())
+                .betType(bet.getBetType())
+                .selectedNumbers(bet.getSelectedNumbers() != null ? bet.getSelectedNumbers() : List.of())
+                .betAmount(bet.getBetAmount())
+                .pricePerPoint(bet.getPricePerPoint())
+                .totalAmount(bet.getTotalAmount())
+                .odds(bet.getOdds())
+                .potentialWin(bet.getPotentialWin())
+                .status(bet.getStatus())
+                .isWin(bet.getIsWin())
+                .winAmount(bet.getWinAmount())
+                .winningNumbers(bet.getWinningNumbers() != null ? bet.getWinningNumbers() : List.of())
+                .resultDate(bet.getResultDate())
+                .createdAt(bet.getCreatedAt())
+                .updatedAt(bet.getUpdatedAt())
+                .resultCheckedAt(bet.getResultCheckedAt())
+                .userId(bet.getUserId())
+                .username(bet.getUsername())
+                .build();
     }
 }
@@ -0,0 +1,51 @@
+package com.xsecret.dto.response;
+
+import com.xsecret.dto.request.PageCursor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 1 trang phân trang theo cursor (infinite scroll): không có tổng số dòng / tổng số trang
+ * nextCursor = null khi đã hết dữ liệu
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+
+    /**
+     * Dựng trang từ kết quả query đã đọc dư 1 dòng (PageCursor.limit)
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                          Function<E, LocalDateTime> createdAt, Function<E, Long> id,
+                                          Function<E, T> mapper) {
+        int pageSize = PageCursor.clamp(size);
+        boolean hasMore = rows.size() > pageSize;
+        List<E> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            E last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(createdAt.apply(last), id.apply(last)).encode();
+        }
+
+        return CursorPage.<T>builder()
+                .content(page.stream().map(mapper).toList())
+                .size(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
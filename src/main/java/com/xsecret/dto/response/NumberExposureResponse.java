@@ -0,0 +1,19 @@
+package com.xsecret.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NumberExposureResponse {
+
+    private String betType;   // Mã loại cược chuẩn (VD loto2s)
+    private String number;    // Số hoặc bộ số (xiên: "12,34")
+    private long exposure;    // Tổng tiền phải trả nếu số về 1 lần
+    private long maxPayout;   // Hạn mức trả thưởng mỗi số, 0 = không giới hạn
+    private Long remaining;   // Còn lại trước khi chạm hạn mức, null nếu không giới hạn
+}
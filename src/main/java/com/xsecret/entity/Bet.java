@@ -1,5 +1,6 @@
 package com.xsecret.entity;
 
+import com.xsecret.entity.converter.SelectionListConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,17 +9,30 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
-@Table(name = "bets")
+@Table(name = "bets", indexes = {
+        // Phân trang keyset (createdAt DESC, id DESC): lịch sử cược của user / danh sách admin
+        @Index(name = "idx_bets_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_bets_created_id", columnList = "created_at, id"),
+        // Dò kết quả: bet PENDING theo ngày kết quả; đếm theo trạng thái (migration V8)
+        @Index(name = "idx_bets_status_result_date", columnList = "status, result_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Bet {
+
+    public static final int ID_ALLOCATION_SIZE = 50;
     
+    // ID cấp theo block (pooled): MySQL không có sequence → Hibernate dùng bảng bet_id_seq,
+    // mỗi lần đọc bảng lấy 50 ID, không cần INSERT để biết ID → Hibernate gộp được INSERT theo JDBC batch
+    // Giá trị khởi tạo của bảng vượt qua MAX(id) của bets cũ (migration V3__bet_id_sequence)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bet_id_seq")
+    @SequenceGenerator(name = "bet_id_seq", sequenceName = "bet_id_seq", allocationSize = Bet.ID_ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -34,8 +48,9 @@ public class Bet {
     @Column(name = "bet_type", nullable = false, length = 50)
     private String betType; // loto2s, loto-xien-2, etc.
     
-    @Column(name = "selected_numbers", nullable = false, columnDefinition = "TEXT")
-    private String selectedNumbers; // JSON array of numbers
+    @Convert(converter = SelectionListConverter.class)
+    @Column(name = "selected_numbers_packed", columnDefinition = "BLOB")
+    private List<String> selectedNumbers; // Mã hóa nhị phân (SelectionCodec), cột JSON cũ selected_numbers đã migrate
     
     @Column(name = "bet_amount", nullable = false)
     private BigDecimal betAmount; // Số điểm cược
@@ -62,8 +77,9 @@ public class Bet {
     @Column(name = "win_amount")
     private BigDecimal winAmount;
     
-    @Column(name = "winning_numbers", columnDefinition = "TEXT")
-    private String winningNumbers; // JSON array of winning numbers
+    @Convert(converter = SelectionListConverter.class)
+    @Column(name = "winning_numbers_packed", columnDefinition = "BLOB")
+    private List<String> winningNumbers; // Mã hóa nhị phân (SelectionCodec), cột JSON cũ winning_numbers đã migrate
     
     @Column(name = "result_date")
     private String resultDate; // Ngày có kết quả (YYYY-MM-DD)
@@ -0,0 +1,32 @@
+package com.xsecret.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot định kỳ của các bộ đếm dashboard admin (1 dòng / bộ đếm) - xem DashboardCounters
+ * Tên bộ đếm dạng "bets.status.PENDING", "users.USER.ACTIVE", "users.registered.2024-01-31"...
+ */
+@Entity
+@Table(name = "dashboard_counters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCounter {
+
+    @Id
+    @Column(name = "counter_name", length = 100)
+    private String name;
+
+    @Column(name = "counter_value", nullable = false)
+    private long value;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -11,7 +11,13 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+        indexes = {
+                // Phân trang keyset thông báo của user (createdAt DESC, id DESC)
+                @Index(name = "idx_notifications_target_created_id", columnList = "target_user_id, created_at, id"),
+                // Đếm thông báo chưa đọc (migration V8)
+                @Index(name = "idx_notifications_target_read_expires", columnList = "target_user_id, is_read, expires_at")
+        })
 @Data
 @Builder
 @NoArgsConstructor
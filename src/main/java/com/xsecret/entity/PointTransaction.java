@@ -12,7 +12,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "point_transactions")
+@Table(name = "point_transactions",
+        // Phân trang keyset lịch sử điểm của user (createdAt DESC, id DESC)
+        indexes = @Index(name = "idx_point_transactions_user_created_id", columnList = "user_id, created_at, id"))
 @Data
 @Builder
 @NoArgsConstructor
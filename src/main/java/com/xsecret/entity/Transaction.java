@@ -1,5 +1,6 @@
 package com.xsecret.entity;
 
+import com.xsecret.service.search.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,11 +13,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Phân trang keyset (createdAt DESC, id DESC): lịch sử giao dịch của user / danh sách admin
+        @Index(name = "idx_transactions_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_transactions_created_id", columnList = "created_at, id"),
+        // Thống kê theo loại / trạng thái / khoảng thời gian (migration V8)
+        @Index(name = "idx_transactions_type_status_created", columnList = "type, status, created_at"),
+        // Đồng bộ tăng dần chỉ mục tìm kiếm admin (migration V9)
+        @Index(name = "idx_transactions_updated_at", columnList = "updated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(SearchIndexListener.class)
 public class Transaction {
     
     @Id
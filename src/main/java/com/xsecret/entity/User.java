@@ -1,5 +1,6 @@
 package com.xsecret.entity;
 
+import com.xsecret.service.search.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,12 +13,15 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Đồng bộ tăng dần chỉ mục tìm kiếm admin (migration V9)
+        @Index(name = "idx_users_updated_at", columnList = "updated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SearchIndexListener.class})
 public class User {
 
     @Id
@@ -49,7 +53,9 @@ public class User {
     @Builder.Default
     private UserStatus status = UserStatus.ACTIVE;
 
-    @Column(name = "points")
+    // Không ghi qua entity: mọi thay đổi điểm đi qua UPDATE atomic (PointService.tryDeductBalance / creditBalance)
+    // để 2 request đồng thời không ghi đè số dư của nhau
+    @Column(name = "points", updatable = false)
     @Builder.Default
     private Long points = 0L;
 
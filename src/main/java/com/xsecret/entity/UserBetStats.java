@@ -0,0 +1,44 @@
+package com.xsecret.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Thống kê cược cộng dồn của từng user (1 dòng / user), cập nhật trong cùng transaction với
+ * đặt cược / settlement / admin xóa bet - xem UserBetStatsRollup
+ * User chưa có dòng = chưa đặt cược lần nào
+ */
+@Entity
+@Table(name = "user_bet_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBetStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Tổng số bet (kể cả bet đã hủy, giống countByUserId)
+    @Column(name = "total_bets", nullable = false)
+    private long totalBets;
+
+    @Column(name = "won_bets", nullable = false)
+    private long wonBets;
+
+    @Column(name = "total_bet_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalBetAmount;
+
+    @Column(name = "total_win_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalWinAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,177 @@
+package com.xsecret.entity.converter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mã hóa nhị phân gọn cho danh sách số đã chọn / số trúng của bet
+ *
+ * FORMAT_PACKED (mọi selection cùng số chữ số và cùng số lượng số / selection):
+ *   [1 byte format][1 byte digits][1 byte groupSize][2 byte count][count × groupSize × 2 byte giá trị]
+ *   VD loto2s ["05","27"] → 9 byte; xiên 2 ["12,23","34,56"] → 13 byte
+ *   Giữ nguyên thứ tự và số trùng (số trúng nhiều lần ở loto)
+ *
+ * FORMAT_STRINGS (dữ liệu không đúng định dạng số chính tắc, giữ nguyên từng chuỗi):
+ *   [1 byte format][2 byte count][mỗi chuỗi: 2 byte độ dài + UTF-8]
+ */
+public final class SelectionCodec {
+
+    private static final byte FORMAT_PACKED = 1;
+    private static final byte FORMAT_STRINGS = 2;
+
+    private static final int MAX_DIGITS = 4;
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private SelectionCodec() {
+    }
+
+    public static byte[] encode(List<String> selections) {
+        if (selections == null) {
+            return null;
+        }
+        byte[] packed = encodePacked(selections);
+        return packed != null ? packed : encodeStrings(selections);
+    }
+
+    public static List<String> decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            return Collections.emptyList();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte format = buffer.get();
+        if (format == FORMAT_PACKED) {
+            return decodePacked(buffer);
+        } else if (format == FORMAT_STRINGS) {
+            return decodeStrings(buffer);
+        }
+        throw new IllegalArgumentException("Unknown selection format: " + format);
+    }
+
+    private static byte[] encodePacked(List<String> selections) {
+        int count = selections.size();
+        if (count > MAX_COUNT) {
+            return null;
+        }
+
+        int digits = 0;
+        int groupSize = 0;
+        short[] values = null;
+        int position = 0;
+
+        for (String selection : selections) {
+            if (selection == null) {
+                return null;
+            }
+            String[] numbers = selection.split(",", -1);
+            if (groupSize == 0) {
+                groupSize = numbers.length;
+                values = new short[count * groupSize];
+            } else if (numbers.length != groupSize) {
+                return null;
+            }
+
+            // Không trim / chuẩn hóa: chuỗi không đúng dạng chính tắc (VD "12, 23") → FORMAT_STRINGS, giữ nguyên
+            for (String number : numbers) {
+                if (digits == 0) {
+                    digits = number.length();
+                    if (digits == 0 || digits > MAX_DIGITS) {
+                        return null;
+                    }
+                } else if (number.length() != digits) {
+                    return null;
+                }
+
+                int value = 0;
+                for (int i = 0; i < digits; i++) {
+                    char c = number.charAt(i);
+                    if (c < '0' || c > '9') {
+                        return null;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                values[position++] = (short) value;
+            }
+        }
+
+        if (groupSize > Byte.MAX_VALUE) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(5 + position * 2);
+        buffer.put(FORMAT_PACKED);
+        buffer.put((byte) digits);
+        buffer.put((byte) groupSize);
+        buffer.putShort((short) count);
+        for (int i = 0; i < position; i++) {
+            buffer.putShort(values[i]);
+        }
+        return buffer.array();
+    }
+
+    private static List<String> decodePacked(ByteBuffer buffer) {
+        int digits = buffer.get();
+        int groupSize = buffer.get();
+        int count = Short.toUnsignedInt(buffer.getShort());
+
+        List<String> selections = new ArrayList<>(count);
+        char[] chars = new char[Math.max(0, groupSize * (digits + 1) - 1)];
+        for (int i = 0; i < count; i++) {
+            int length = 0;
+            for (int g = 0; g < groupSize; g++) {
+                if (g > 0) {
+                    chars[length++] = ',';
+                }
+                int value = Short.toUnsignedInt(buffer.getShort());
+                for (int d = digits - 1; d >= 0; d--) {
+                    chars[length + d] = (char) ('0' + value % 10);
+                    value /= 10;
+                }
+                length += digits;
+            }
+            selections.add(new String(chars, 0, length));
+        }
+        return Collections.unmodifiableList(selections);
+    }
+
+    private static byte[] encodeStrings(List<String> selections) {
+        List<byte[]> encoded = new ArrayList<>(selections.size());
+        int size = 3;
+        for (String selection : selections) {
+            byte[] bytes = (selection != null ? selection : "").getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_COUNT) {
+                throw new IllegalArgumentException("Selection too long: " + bytes.length + " bytes");
+            }
+            encoded.add(bytes);
+            size += 2 + bytes.length;
+        }
+        if (encoded.size() > MAX_COUNT) {
+            throw new IllegalArgumentException("Too many selections: " + encoded.size());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(FORMAT_STRINGS);
+        buffer.putShort((short) encoded.size());
+        for (byte[] bytes : encoded) {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+        return buffer.array();
+    }
+
+    private static List<String> decodeStrings(ByteBuffer buffer) {
+        int count = Short.toUnsignedInt(buffer.getShort());
+        List<String> selections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(bytes);
+            selections.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return Collections.unmodifiableList(selections);
+    }
+}
@@ -0,0 +1,24 @@
+package com.xsecret.entity.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/**
+ * Lưu List<String> số đã chọn / số trúng của bet dưới dạng nhị phân (SelectionCodec)
+ * thay cho chuỗi JSON trong cột TEXT
+ */
+@Converter
+public class SelectionListConverter implements AttributeConverter<List<String>, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<String> selections) {
+        return SelectionCodec.encode(selections);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(byte[] data) {
+        return SelectionCodec.decode(data);
+    }
+}
@@ -0,0 +1,32 @@
+package com.xsecret.exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Chưa biết kết quả của thao tác khi trả lời request (VD lệnh cược vẫn trong hàng đợi của pipeline khi hết thời gian chờ)
+ * - Thao tác vẫn có thể thành công sau đó → không được coi là thất bại (IdempotencyService giữ key IN_PROGRESS)
+ * - outcome hoàn thành khi thao tác có kết quả thật (commit hoặc lỗi)
+ */
+public class OutcomePendingException extends RuntimeException {
+
+    private final CompletableFuture<?> outcome;
+
+    public OutcomePendingException(String message, CompletableFuture<?> outcome) {
+        super(message);
+        this.outcome = outcome;
+    }
+
+    public CompletableFuture<?> getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Cùng thông báo, kết quả được chuyển đổi (VD BetResponse → response body của controller)
+     */
+    public <T> OutcomePendingException map(Function<T, ?> mapper) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> typed = (CompletableFuture<T>) outcome;
+        return new OutcomePendingException(getMessage(), typed.thenApply(mapper));
+    }
+}
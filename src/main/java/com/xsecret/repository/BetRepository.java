@@ -9,17 +9,36 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BetRepository extends JpaRepository<Bet, Long> {
     
+    /**
+     * SELECT cho projection BetView: các cột hiển thị + username, JOIN users 1 lần trong query
+     */
+    String BET_VIEW_SELECT = "SELECT b.id AS id, b.region AS region, b.province AS province, b.betType AS betType, " +
+            "b.selectedNumbers AS selectedNumbers, b.betAmount AS betAmount, b.pricePerPoint AS pricePerPoint, " +
+            "b.totalAmount AS totalAmount, b.odds AS odds, b.potentialWin AS potentialWin, b.status AS status, " +
+            "b.isWin AS isWin, b.winAmount AS winAmount, b.winningNumbers AS winningNumbers, " +
+            "b.resultDate AS resultDate, b.createdAt AS createdAt, b.updatedAt AS updatedAt, " +
+            "b.resultCheckedAt AS resultCheckedAt, u.id AS userId, u.username AS username " +
+            "FROM Bet b JOIN b.user u ";
+    
     /**
      * Tìm tất cả bet của user
      */
     Page<Bet> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
+    /**
+     * Lịch sử bet của user dạng projection (1 query / trang + 1 COUNT)
+     */
+    @Query(value = BET_VIEW_SELECT + "WHERE b.user.id = :userId ORDER BY b.createdAt DESC",
+           countQuery = "SELECT COUNT(b) FROM Bet b WHERE b.user.id = :userId")
+    Page<BetView> findUserBetViews(@Param("userId") Long userId, Pageable pageable);
+    
     /**
      * Tìm bet theo user và status
      */
@@ -41,20 +60,25 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     List<Bet> findByStatusAndResultDate(Bet.BetStatus status, String resultDate);
     
     /**
-     * Tìm bet chưa được kiểm tra kết quả
-     * CHỈ LẤY BET CỦA HÔM NAY (resultDate = currentDate), không check các ngày trước
+     * Keyset scan bet PENDING của 1 ngày kết quả: lấy 1 trang bet có id > afterId, sắp xếp theo id
+     * Dùng qua PendingBetReader, không load cả ngày vào bộ nhớ
      * JOIN FETCH user để tránh LazyInitializationException
      */
-    @Query("SELECT b FROM Bet b JOIN FETCH b.user WHERE b.status = 'PENDING' AND b.resultDate = :currentDate ORDER BY b.createdAt ASC")
-    List<Bet> findPendingBetsToCheck(@Param("currentDate") String currentDate);
+    @Query("SELECT b FROM Bet b JOIN FETCH b.user WHERE b.status = 'PENDING' AND b.resultDate = :resultDate AND b.id > :afterId ORDER BY b.id ASC")
+    List<Bet> findPendingBetsAfterId(@Param("resultDate") String resultDate, @Param("afterId") Long afterId, Pageable pageable);
     
     /**
-     * Tìm bet chưa được kiểm tra kết quả cho ngày cụ thể
-     * Dùng khi admin publish kết quả cho ngày cụ thể
-     * JOIN FETCH user để tránh LazyInitializationException
+     * Keyset: trang bet PENDING tiếp theo của mọi ngày kết quả (id > afterId), dùng khi dựng lại exposure
+     * Không fetch user (chỉ cần thông tin cược)
      */
-    @Query("SELECT b FROM Bet b JOIN FETCH b.user WHERE b.status = 'PENDING' AND b.resultDate = :targetDate ORDER BY b.createdAt ASC")
-    List<Bet> findPendingBetsToCheckForDate(@Param("targetDate") String targetDate);
+    @Query("SELECT b FROM Bet b WHERE b.status = 'PENDING' AND b.id > :afterId ORDER BY b.id ASC")
+    List<Bet> findAllPendingBetsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Số bet PENDING theo kỳ quay, mỗi dòng: [region, province, resultDate, count]
+     */
+    @Query("SELECT b.region, b.province, b.resultDate, COUNT(b) FROM Bet b WHERE b.status = 'PENDING' GROUP BY b.region, b.province, b.resultDate")
+    List<Object[]> countPendingBetsByDraw();
     
     /**
      * Tìm bet theo ID và eager fetch user
@@ -94,11 +118,22 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
                                       @Param("endDate") LocalDateTime endDate, 
                                       Pageable pageable);
     
+    /**
+     * Bet của user đứng sau cursor (createdAt, id), mới nhất trước - xem PageCursor
+     */
+    @Query(BET_VIEW_SELECT + "WHERE b.user.id = :userId AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BetView> findUserBetsBefore(@Param("userId") Long userId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+    
     /**
      * Tìm bet gần đây của user
      */
-    @Query("SELECT b FROM Bet b WHERE b.user.id = :userId ORDER BY b.createdAt DESC")
-    List<Bet> findRecentBetsByUserId(@Param("userId") Long userId, Pageable pageable);
+    @Query(BET_VIEW_SELECT + "WHERE b.user.id = :userId ORDER BY b.createdAt DESC")
+    List<BetView> findRecentBetsByUserId(@Param("userId") Long userId, Pageable pageable);
     
     /**
      * Thống kê bet theo ngày
@@ -113,27 +148,65 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     /**
      * Lấy tất cả bet với filter (for admin)
      */
-    @Query("SELECT b FROM Bet b WHERE " +
+    @Query(value = BET_VIEW_SELECT + "WHERE " +
            "(:status IS NULL OR b.status = :status) AND " +
            "(:betType IS NULL OR b.betType = :betType) AND " +
            "(:region IS NULL OR b.region = :region) AND " +
            "(:userId IS NULL OR b.user.id = :userId) " +
-           "ORDER BY b.createdAt DESC")
-    Page<Bet> findAllBetsWithFilters(
+           "ORDER BY b.createdAt DESC",
+           countQuery = "SELECT COUNT(b) FROM Bet b WHERE " +
+           "(:status IS NULL OR b.status = :status) AND " +
+           "(:betType IS NULL OR b.betType = :betType) AND " +
+           "(:region IS NULL OR b.region = :region) AND " +
+           "(:userId IS NULL OR b.user.id = :userId)")
+    Page<BetView> findAllBetsWithFilters(
         @Param("status") Bet.BetStatus status,
         @Param("betType") String betType,
         @Param("region") String region,
         @Param("userId") Long userId,
         Pageable pageable);
     
+    /**
+     * Admin: bet với filter, phân trang keyset theo (createdAt, id) - xem PageCursor
+     */
+    @Query(BET_VIEW_SELECT + "WHERE " +
+           "(:status IS NULL OR b.status = :status) AND " +
+           "(:betType IS NULL OR b.betType = :betType) AND " +
+           "(:region IS NULL OR b.region = :region) AND " +
+           "(:userId IS NULL OR b.user.id = :userId) AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BetView> findAllBetsWithFiltersBefore(
+        @Param("status") Bet.BetStatus status,
+        @Param("betType") String betType,
+        @Param("region") String region,
+        @Param("userId") Long userId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable);
+    
     /**
      * Tìm kiếm bet theo username hoặc betId
      */
-    @Query("SELECT b FROM Bet b WHERE " +
-           "LOWER(b.user.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+    @Query(value = BET_VIEW_SELECT + "WHERE " +
+           "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "CAST(b.id AS string) LIKE CONCAT('%', :searchTerm, '%') " +
-           "ORDER BY b.createdAt DESC")
-    Page<Bet> searchBets(@Param("searchTerm") String searchTerm, Pageable pageable);
+           "ORDER BY b.createdAt DESC",
+           countQuery = "SELECT COUNT(b) FROM Bet b JOIN b.user u WHERE " +
+           "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "CAST(b.id AS string) LIKE CONCAT('%', :searchTerm, '%')")
+    Page<BetView> searchBets(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    /**
+     * Tìm kiếm bet theo betId hoặc tập user id đã tìm từ AdminSearchIndex (index bets.user_id, không LIKE)
+     * userIds không được rỗng (truyền [-1] khi không có user nào khớp)
+     */
+    @Query(value = BET_VIEW_SELECT + "WHERE b.id = :betId OR u.id IN :userIds " +
+           "ORDER BY b.createdAt DESC",
+           countQuery = "SELECT COUNT(b) FROM Bet b WHERE b.id = :betId OR b.user.id IN :userIds")
+    Page<BetView> searchBetsByIdOrUsers(@Param("betId") Long betId,
+                                        @Param("userIds") Collection<Long> userIds,
+                                        Pageable pageable);
     
     /**
      * Đếm tổng số bet trong hệ thống
@@ -0,0 +1,56 @@
+package com.xsecret.repository;
+
+import com.xsecret.entity.Bet;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Projection đọc-chỉ của 1 bet cho các danh sách (lịch sử cược, admin)
+ * - Chỉ SELECT các cột hiển thị + username (JOIN users trong cùng câu query) → 1 query / trang,
+ *   không lazy-load user từng dòng, không đưa entity vào persistence context
+ * - Alias trong query phải trùng tên getter (b.selectedNumbers AS selectedNumbers...)
+ */
+public interface BetView {
+
+    Long getId();
+
+    String getRegion();
+
+    String getProvince();
+
+    String getBetType();
+
+    List<String> getSelectedNumbers();
+
+    BigDecimal getBetAmount();
+
+    BigDecimal getPricePerPoint();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getOdds();
+
+    BigDecimal getPotentialWin();
+
+    Bet.BetStatus getStatus();
+
+    Boolean getIsWin();
+
+    BigDecimal getWinAmount();
+
+    List<String> getWinningNumbers();
+
+    String getResultDate();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getResultCheckedAt();
+
+    Long getUserId();
+
+    String getUsername();
+}
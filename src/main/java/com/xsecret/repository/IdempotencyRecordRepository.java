@@ -0,0 +1,38 @@
+package com.xsecret.repository;
+
+import com.xsecret.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndOwnerAndIdempotencyKey(String scope, String owner, String idempotencyKey);
+
+    /**
+     * Lưu kết quả của request đầu tiên (chỉ khi vẫn đang IN_PROGRESS)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.xsecret.entity.IdempotencyRecord.Status.COMPLETED, " +
+           "r.httpStatus = :httpStatus, r.responseBody = :responseBody " +
+           "WHERE r.id = :id AND r.status = com.xsecret.entity.IdempotencyRecord.Status.IN_PROGRESS")
+    int markCompleted(@Param("id") Long id, @Param("httpStatus") int httpStatus, @Param("responseBody") String responseBody);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id")
+    int deleteRecord(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
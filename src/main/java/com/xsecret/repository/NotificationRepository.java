@@ -25,6 +25,19 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
             @Param("now") LocalDateTime now,
             Pageable pageable);
 
+    // Thông báo của user đứng sau cursor (createdAt, id), không COUNT - xem PageCursor
+    @Query("SELECT n FROM Notification n WHERE " +
+           "(n.targetUser IS NULL OR n.targetUser = :user) " +
+           "AND (n.expiresAt IS NULL OR n.expiresAt > :now) " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUserNotificationsBefore(
+            @Param("user") User user,
+            @Param("now") LocalDateTime now,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
     // Đếm thông báo chưa đọc của user
     @Query("SELECT COUNT(n) FROM Notification n WHERE " +
            "(n.targetUser IS NULL OR n.targetUser = :user) " +
@@ -19,6 +19,15 @@ public interface PointTransactionRepository extends JpaRepository<PointTransacti
     
     Page<PointTransaction> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
+    // Phân trang keyset theo (createdAt, id) - xem PageCursor
+    @Query("SELECT pt FROM PointTransaction pt WHERE pt.user.id = :userId AND " +
+           "(pt.createdAt < :createdAt OR (pt.createdAt = :createdAt AND pt.id < :id)) " +
+           "ORDER BY pt.createdAt DESC, pt.id DESC")
+    List<PointTransaction> findUserPointTransactionsBefore(@Param("userId") Long userId,
+                                                           @Param("createdAt") LocalDateTime createdAt,
+                                                           @Param("id") Long id,
+                                                           Pageable pageable);
+    
     @Query("SELECT pt FROM PointTransaction pt WHERE pt.user.id = :userId AND pt.createdAt BETWEEN :startDate AND :endDate ORDER BY pt.createdAt DESC")
     Page<PointTransaction> findByUserIdAndDateRange(@Param("userId") Long userId, 
                                                    @Param("startDate") LocalDateTime startDate, 
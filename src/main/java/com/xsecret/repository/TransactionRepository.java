@@ -5,12 +5,14 @@ import com.xsecret.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,6 +62,59 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                                  @Param("startDate") LocalDateTime startDate,
                                                  @Param("endDate") LocalDateTime endDate,
                                                  Pageable pageable);
+
+    // Tìm theo mã giao dịch (LIKE, dùng khi AdminSearchIndex chưa sẵn sàng)
+    @Query("SELECT t FROM Transaction t WHERE " +
+           "LOWER(t.transactionCode) LIKE LOWER(CONCAT('%', :searchTerm, '%')) AND " +
+           "(:type IS NULL OR t.type = :type) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdAt <= :endDate) " +
+           "ORDER BY t.createdAt DESC")
+    Page<Transaction> findBySearchTermWithFilters(@Param("searchTerm") String searchTerm,
+                                                  @Param("type") Transaction.TransactionType type,
+                                                  @Param("status") Transaction.TransactionStatus status,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate,
+                                                  Pageable pageable);
+
+    // Tìm theo mã giao dịch: tập id lấy từ AdminSearchIndex
+    @Query("SELECT t FROM Transaction t WHERE t.id IN :ids AND " +
+           "(:type IS NULL OR t.type = :type) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdAt <= :endDate) " +
+           "ORDER BY t.createdAt DESC")
+    Page<Transaction> findByIdInWithFilters(@Param("ids") Collection<Long> ids,
+                                            @Param("type") Transaction.TransactionType type,
+                                            @Param("status") Transaction.TransactionStatus status,
+                                            @Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate,
+                                            Pageable pageable);
+    
+    // Phân trang keyset theo (createdAt, id) - xem PageCursor
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND " +
+           "(t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findUserTransactionsBefore(@Param("userId") Long userId,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE " +
+           "(:type IS NULL OR t.type = :type) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdAt <= :endDate) AND " +
+           "(t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findTransactionsWithFiltersBefore(@Param("type") Transaction.TransactionType type,
+                                                        @Param("status") Transaction.TransactionStatus status,
+                                                        @Param("startDate") LocalDateTime startDate,
+                                                        @Param("endDate") LocalDateTime endDate,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
     
     // Statistics queries
     long countByTypeAndStatus(Transaction.TransactionType type, Transaction.TransactionStatus status);
@@ -76,4 +131,9 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                                           @Param("status") Transaction.TransactionStatus status,
                                                           @Param("startDate") LocalDateTime startDate,
                                                           @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Chuyển trạng thái PENDING → APPROVED/REJECTED có điều kiện: chỉ 1 admin xử lý được 1 transaction
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :status WHERE t.id = :id AND t.status = com.xsecret.entity.Transaction.TransactionStatus.PENDING")
+    int markProcessedIfPending(@Param("id") Long id, @Param("status") Transaction.TransactionStatus status);
+}
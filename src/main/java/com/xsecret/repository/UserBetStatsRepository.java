@@ -0,0 +1,9 @@
+package com.xsecret.repository;
+
+import com.xsecret.entity.UserBetStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserBetStatsRepository extends JpaRepository<UserBetStats, Long> {
+}
@@ -3,10 +3,12 @@ package com.xsecret.repository;
 import com.xsecret.entity.UserPoint;
 import com.xsecret.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +20,12 @@ public interface UserPointRepository extends JpaRepository<UserPoint, Long> {
     
     @Query("SELECT up FROM UserPoint up WHERE up.user.id = :userId")
     Optional<UserPoint> findByUserIdWithQuery(@Param("userId") Long userId);
+    
+    // Đồng bộ số dư + cộng dồn lifetime bằng 1 câu UPDATE (0 = user chưa có bản ghi user_points)
+    @Modifying
+    @Query("UPDATE UserPoint up SET up.totalPoints = :totalPoints, " +
+           "up.lifetimeEarned = up.lifetimeEarned + :earned, up.lifetimeSpent = up.lifetimeSpent + :spent, " +
+           "up.updatedAt = CURRENT_TIMESTAMP WHERE up.user.id = :userId")
+    int applyBalanceChange(@Param("userId") Long userId, @Param("totalPoints") BigDecimal totalPoints,
+                           @Param("earned") BigDecimal earned, @Param("spent") BigDecimal spent);
 }
\ No newline at end of file
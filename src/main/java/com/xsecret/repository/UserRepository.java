@@ -4,11 +4,13 @@ import com.xsecret.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,6 +62,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
                                          @Param("status") User.UserStatus status,
                                          Pageable pageable);
 
+    /**
+     * Lọc trong tập id đã tìm từ AdminSearchIndex (theo khóa chính, không LIKE)
+     */
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND " +
+           "(:role IS NULL OR u.role = :role) AND " +
+           "(:status IS NULL OR u.status = :status)")
+    Page<User> findByIdInWithFilters(@Param("ids") Collection<Long> ids,
+                                     @Param("role") User.Role role,
+                                     @Param("status") User.UserStatus status,
+                                     Pageable pageable);
+
     // Statistics methods
     long countByStatus(User.UserStatus status);
 
@@ -82,6 +95,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findUsersWithTransactionsBetween(@Param("startDate") LocalDateTime startDate,
                                                @Param("endDate") LocalDateTime endDate);
 
+    // ================ ATOMIC BALANCE UPDATES ================
+    // users.points chỉ được thay đổi qua các câu UPDATE này (cột không updatable trong entity)
+
+    // Trừ điểm có điều kiện: chỉ trừ khi đủ điểm, trả về số dòng cập nhật (0 = không đủ điểm / không có user)
+    @Modifying
+    @Query("UPDATE User u SET u.points = u.points - :amount WHERE u.id = :userId AND u.points >= :amount")
+    int deductPointsIfSufficient(@Param("userId") Long userId, @Param("amount") long amount);
+
+    // Cộng điểm, trả về số dòng cập nhật (0 = không có user)
+    @Modifying
+    @Query("UPDATE User u SET u.points = COALESCE(u.points, 0) + :amount WHERE u.id = :userId")
+    int addPoints(@Param("userId") Long userId, @Param("amount") long amount);
+
+    // Số dư hiện tại (đọc sau UPDATE trong cùng transaction = số dư mới)
+    @Query("SELECT u.points FROM User u WHERE u.id = :userId")
+    Optional<Long> findPointsById(@Param("userId") Long userId);
+
     // Users by points range
     @Query("SELECT u FROM User u WHERE u.points BETWEEN :minPoints AND :maxPoints")
     List<User> findByPointsBetween(@Param("minPoints") Long minPoints, @Param("maxPoints") Long maxPoints);
@@ -0,0 +1,239 @@
+package com.xsecret.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xsecret.dto.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kiểm soát tải cho các request ghi (POST/PUT/PATCH/DELETE), chạy sau JwtAuthenticationFilter
+ * - Token bucket theo user + nhóm endpoint (bet / transaction / write), cấu hình riêng từng nhóm
+ * - Giới hạn số request ghi đang xử lý đồng thời (toàn hệ thống) → không vắt cạn Hikari pool lúc cao điểm trước 18:10
+ *   Hết slot: chờ tối đa queue-timeout-ms, quá hạn → 429
+ * Fast path không khóa: token bucket là 1 AtomicLong (CAS), slot đồng thời là Semaphore.tryAcquire
+ * Bị từ chối → 429 + Retry-After (giây)
+ */
+@Component
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final Semaphore concurrency;
+    private final long queueTimeoutNanos;
+    private final ObjectMapper objectMapper;
+    private final Rule betRule;
+    private final Rule transactionRule;
+    private final Rule writeRule;
+
+    // "nhóm:user" → bucket; bucket rảnh (đã đầy token) được dọn định kỳ
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public AdmissionControlFilter(MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.admission.enabled:true}") boolean enabled,
+                                  @Value("${app.admission.max-concurrent:40}") int maxConcurrent,
+                                  @Value("${app.admission.queue-timeout-ms:200}") long queueTimeoutMs,
+                                  @Value("${app.admission.bet.permits-per-second:5}") double betRate,
+                                  @Value("${app.admission.bet.burst:10}") int betBurst,
+                                  @Value("${app.admission.transaction.permits-per-second:1}") double transactionRate,
+                                  @Value("${app.admission.transaction.burst:3}") int transactionBurst,
+                                  @Value("${app.admission.write.permits-per-second:10}") double writeRate,
+                                  @Value("${app.admission.write.burst:20}") int writeBurst) {
+        this.enabled = enabled;
+        this.concurrency = new Semaphore(Math.max(1, maxConcurrent));
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMs));
+        this.objectMapper = objectMapper;
+        this.betRule = new Rule("bet", betRate, betBurst, meterRegistry);
+        this.transactionRule = new Rule("transaction", transactionRate, transactionBurst, meterRegistry);
+        this.writeRule = new Rule("write", writeRate, writeBurst, meterRegistry);
+
+        int permits = Math.max(1, maxConcurrent);
+        Gauge.builder("admission.in_flight", concurrency, semaphore -> permits - semaphore.availablePermits())
+                .description("Số request ghi đang xử lý")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String method = request.getMethod();
+        return !("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = ruleFor(request.getServletPath());
+
+        // 1. Token bucket theo user
+        long waitNanos = buckets.computeIfAbsent(rule.name + ':' + clientKey(request), key -> rule.newBucket())
+                .tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            rule.rejectedRate.increment();
+            reject(response, waitNanos);
+            return;
+        }
+
+        // 2. Slot đồng thời toàn hệ thống: còn slot → vào ngay, hết → chờ ngắn rồi từ chối
+        boolean queued = false;
+        if (!concurrency.tryAcquire()) {
+            queued = true;
+            boolean acquired;
+            try {
+                acquired = queueTimeoutNanos > 0 && concurrency.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rule.rejectedConcurrency.increment();
+                reject(response, TimeUnit.SECONDS.toNanos(1));
+                return;
+            }
+        }
+
+        (queued ? rule.queued : rule.admitted).increment();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrency.release();
+        }
+    }
+
+    /**
+     * Dọn bucket không dùng nữa (đã hồi đầy token)
+     */
+    @Scheduled(fixedDelayString = "${app.admission.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private Rule ruleFor(String path) {
+        if (path.startsWith("/bets/")) {
+            return betRule;
+        }
+        if (path.startsWith("/transactions/")) {
+            return transactionRule;
+        }
+        return writeRule;
+    }
+
+    /**
+     * User đã xác thực → username, chưa xác thực (đăng nhập, đăng ký) → IP
+     */
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getUsername();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(),
+                ApiResponse.error("Quá nhiều yêu cầu, vui lòng thử lại sau " + retryAfterSeconds + " giây"));
+    }
+
+    /**
+     * Cấu hình + metrics của 1 nhóm endpoint
+     */
+    private static final class Rule {
+
+        private final String name;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Counter admitted;
+        private final Counter queued;
+        private final Counter rejectedRate;
+        private final Counter rejectedConcurrency;
+
+        private Rule(String name, double permitsPerSecond, int burst, MeterRegistry registry) {
+            this.name = name;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(0.001, permitsPerSecond));
+            this.burstNanos = intervalNanos * Math.max(1, burst);
+            this.admitted = counter(registry, "admitted", "none");
+            this.queued = counter(registry, "queued", "none");
+            this.rejectedRate = counter(registry, "rejected", "user_rate");
+            this.rejectedConcurrency = counter(registry, "rejected", "concurrency");
+        }
+
+        private Counter counter(MeterRegistry registry, String outcome, String reason) {
+            return Counter.builder("admission.requests")
+                    .description("Số request ghi qua kiểm soát tải")
+                    .tags("endpoint", name, "outcome", outcome, "reason", reason)
+                    .register(registry);
+        }
+
+        private TokenBucket newBucket() {
+            return new TokenBucket(intervalNanos, burstNanos);
+        }
+    }
+
+    /**
+     * Token bucket dạng GCRA: chỉ lưu "thời điểm lý thuyết bucket hồi đầy" (tat) trong 1 AtomicLong
+     * - Mỗi request đẩy tat thêm 1 interval; tat vượt quá now + burst → hết token
+     */
+    private static final class TokenBucket {
+
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final AtomicLong tat;
+
+        private TokenBucket(long intervalNanos, long burstNanos) {
+            this.intervalNanos = intervalNanos;
+            this.burstNanos = burstNanos;
+            this.tat = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * @return 0 nếu lấy được token, ngược lại số nano giây phải chờ
+         */
+        private long tryAcquire(long now) {
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private boolean isIdle(long now) {
+            return tat.get() - now <= 0;
+        }
+    }
+}
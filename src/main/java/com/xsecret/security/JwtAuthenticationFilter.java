@@ -1,5 +1,7 @@
 package com.xsecret.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -27,30 +28,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
+        // Đo thời gian xác thực JWT (không tính thời gian xử lý request phía sau)
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "anonymous";
         try {
             String jwt = parseJwt(request);
             log.debug("Processing request to: {} with JWT: {}", request.getRequestURI(), jwt != null ? "present" : "missing");
             
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+            // Xác thực chữ ký + lấy username trong 1 lần parse (token đã xác thực gần đây → cache)
+            String username = jwt != null ? jwtUtils.getVerifiedUsername(jwt) : null;
+            if (username != null) {
                 log.debug("Valid JWT token for user: {}", username);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Principal lấy từ cache (TTL ngắn, UserService xóa khi đổi trạng thái / mật khẩu...), hết hạn mới query DB
+                UserPrincipal userDetails = principalCache.get(username,
+                        name -> (UserPrincipal) userDetailsService.loadUserByUsername(name));
                 UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                outcome = "authenticated";
                 log.debug("Set authentication for user: {} with authorities: {}", username, userDetails.getAuthorities());
             } else {
+                if (jwt != null) {
+                    outcome = "invalid";
+                }
                 log.debug("No valid JWT token found for request to: {}", request.getRequestURI());
             }
         } catch (Exception e) {
+            outcome = "error";
             log.error("Cannot set user authentication: {}", e.getMessage());
         }
+        sample.stop(meterRegistry.timer("security.jwt.filter", "outcome", outcome));
 
         filterChain.doFilter(request, response);
     }
@@ -2,6 +2,7 @@ package com.xsecret.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -9,6 +10,8 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
@@ -23,8 +26,31 @@ public class JwtUtils {
     @Value("${app.jwt.refresh-expiration}")
     private int refreshExpirationMs;
 
+    // Số token đã xác thực giữ lại tối đa, 0 = tắt
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    // Key HMAC + parser dựng 1 lần (thread-safe), không tạo lại mỗi request
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // token → subject + hạn token, token đã xác thực chữ ký thì lần sau bỏ qua HMAC + parse JSON
+    // Key là chính chuỗi token (tra bằng hash + equals của String, không băm SHA-256 mỗi request),
+    // ConcurrentHashMap: đọc không khóa, các request không phải chờ nhau
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private int maxVerifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        maxVerifiedTokens = Math.max(0, verifiedCacheSize);
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -54,31 +80,55 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * Xác thực token và lấy username trong 1 lần parse (dùng cho mỗi request của JwtAuthenticationFilter)
+     * Token vừa xác thực gần đây (cùng phiên) → lấy từ cache tới khi token hết hạn
+     * @return username, null nếu token không hợp lệ / hết hạn
+     */
+    public String getVerifiedUsername(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                return cached.username();
+            }
+            verifiedTokens.remove(token, cached);
+            log.error("JWT token is expired");
+            return null;
+        }
+
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        if (claims.getExpiration() != null && claims.getSubject() != null && hasRoom(now)) {
+            verifiedTokens.put(token, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+        }
+        return claims.getSubject();
+    }
+
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public Date getExpirationFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getExpiration();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    /**
+     * Parse + kiểm tra chữ ký / hạn của token, null nếu không hợp lệ
+     */
+    private Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -87,8 +137,27 @@ public class JwtUtils {
             log.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("JWT token is invalid: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Cache đầy: bỏ token hết hạn, vẫn đầy thì xóa hết (mỗi token chỉ phải xác thực lại 1 lần)
+     */
+    private boolean hasRoom(long now) {
+        if (maxVerifiedTokens == 0) {
+            return false;
+        }
+        if (verifiedTokens.size() < maxVerifiedTokens) {
+            return true;
+        }
+        verifiedTokens.values().removeIf(verified -> now >= verified.expiresAtMillis());
+        if (verifiedTokens.size() >= maxVerifiedTokens) {
+            verifiedTokens.clear();
+        }
+        return true;
     }
 
     public long getJwtExpirationMs() {
@@ -98,4 +167,7 @@ public class JwtUtils {
     public long getRefreshExpirationMs() {
         return refreshExpirationMs;
     }
+
+    private record VerifiedToken(String username, long expiresAtMillis) {
+    }
 }
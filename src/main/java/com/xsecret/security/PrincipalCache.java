@@ -0,0 +1,100 @@
+package com.xsecret.security;
+
+import com.xsecret.service.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache UserPrincipal đã xác thực theo username (subject của JWT), TTL ngắn + giới hạn số phần tử
+ * - JwtAuthenticationFilter đọc từ đây thay vì query users mỗi request
+ * - UserService xóa khỏi cache khi đổi trạng thái / vai trò / mật khẩu / khóa rút tiền (ngay + sau khi commit)
+ * - Cache đầy: bỏ phần tử hết hạn, vẫn đầy thì không cache thêm (chỉ query như cũ)
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<String, Entry> byUsername = new ConcurrentHashMap<>();
+    private final Map<Long, String> usernameById = new ConcurrentHashMap<>();
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+        this.maxSize = Math.max(0, maxSize);
+        this.hits = meterRegistry.counter("security.principal.cache", "result", "hit");
+        this.misses = meterRegistry.counter("security.principal.cache", "result", "miss");
+        Gauge.builder("security.principal.cache.size", byUsername, Map::size)
+                .description("Số UserPrincipal đang cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lấy principal trong cache, hết hạn / chưa có → loader (query DB) rồi cache lại
+     */
+    public UserPrincipal get(String username, Function<String, UserPrincipal> loader) {
+        long now = System.nanoTime();
+        Entry entry = byUsername.get(username);
+        if (entry != null && entry.expiresAtNanos - now > 0) {
+            hits.increment();
+            return entry.principal;
+        }
+
+        misses.increment();
+        UserPrincipal principal = loader.apply(username);
+        if (ttlNanos > 0 && hasRoom()) {
+            byUsername.put(username, new Entry(principal, now + ttlNanos));
+            usernameById.put(principal.getId(), username);
+        }
+        return principal;
+    }
+
+    /**
+     * Xóa principal của user ngay và 1 lần nữa sau khi transaction hiện tại commit
+     * (request đọc DB trước khi commit có thể đã cache lại dữ liệu cũ)
+     */
+    public void evictAfterCommit(Long userId) {
+        evict(userId);
+        AfterCommit.run(() -> evict(userId));
+    }
+
+    public void evict(Long userId) {
+        String username = usernameById.remove(userId);
+        if (username != null) {
+            byUsername.remove(username);
+            log.debug("🧹 Evicted cached principal of user {} ({})", userId, username);
+        }
+    }
+
+    private boolean hasRoom() {
+        if (byUsername.size() < maxSize) {
+            return true;
+        }
+        long now = System.nanoTime();
+        byUsername.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAtNanos - now <= 0;
+            if (expired) {
+                usernameById.remove(e.getValue().principal.getId(), e.getKey());
+            }
+            return expired;
+        });
+        return byUsername.size() < maxSize;
+    }
+
+    private record Entry(UserPrincipal principal, long expiresAtNanos) {
+    }
+}
@@ -36,6 +36,7 @@ public class AuthService {
     private final JwtUtils jwtUtils;
     private final RefreshTokenService refreshTokenService;
     private final UserMapper userMapper;
+    private final DashboardCounters dashboardCounters;
 
     public JwtResponse login(LoginRequest loginRequest) {
         // Authenticate user
@@ -101,6 +102,7 @@ public class AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        dashboardCounters.userCreated(savedUser.getRole(), savedUser.getStatus());
         log.info("Đăng ký thành công cho user: {}", savedUser.getUsername());
 
         // Auto login after registration
@@ -1,6 +1,7 @@
 package com.xsecret.service;
 
 import com.xsecret.event.LotteryResultPublishedEvent;
+import com.xsecret.service.bet.BetSettlementEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -16,7 +17,7 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class AutoBetCheckService {
     
-    private final BetService betService;
+    private final BetSettlementEngine betSettlementEngine;
     
     /**
      * Event listener để tự động check bet khi admin publish kết quả mới
@@ -41,7 +42,7 @@ public class AutoBetCheckService {
             
             // Check bet cho ngày của kết quả được publish
             log.info("🎯 Checking bets for result date: {}", event.getDrawDate());
-            betService.checkBetResultsForDate(event.getDrawDate());
+            betSettlementEngine.settlePendingBetsForDate(event.getDrawDate());
             
             log.info("✅ Auto bet check completed successfully for date: {}", event.getDrawDate());
             
@@ -67,7 +68,7 @@ public class AutoBetCheckService {
             log.info("Starting auto bet check for date: {}", drawDateStr);
             
             // Check bet cho ngày cụ thể
-            betService.checkBetResultsForDate(drawDateStr);
+            betSettlementEngine.settlePendingBetsForDate(drawDateStr);
             
             log.info("Auto bet check for date {} completed successfully", drawDateStr);
             
@@ -1,15 +1,25 @@
 package com.xsecret.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xsecret.dto.request.BetRequest;
+import com.xsecret.dto.request.PageCursor;
 import com.xsecret.dto.response.BetResponse;
 import com.xsecret.dto.response.BetStatisticsResponse;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.entity.Bet;
 import com.xsecret.entity.User;
 import com.xsecret.repository.BetRepository;
+import com.xsecret.repository.BetView;
 import com.xsecret.repository.UserRepository;
-import com.xsecret.service.bet.checker.*;
+import com.xsecret.service.bet.BetMetrics;
+import com.xsecret.service.bet.BetQuote;
+import com.xsecret.service.bet.BetType;
+import com.xsecret.service.bet.BetTypeRegistry;
+import com.xsecret.service.bet.ExposureTracker;
+import com.xsecret.service.bet.PendingBetReader;
+import com.xsecret.service.bet.SettledBet;
+import com.xsecret.service.bet.UserBetStatsRollup;
+import com.xsecret.service.lottery.Province;
+import com.xsecret.service.search.AdminSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,13 +28,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,127 +45,215 @@ public class BetService {
     private final BetRepository betRepository;
     private final UserRepository userRepository;
     private final PointService pointService;
-    private final ObjectMapper objectMapper;
+    private final PendingBetReader pendingBetReader;
     
-    // Inject checker classes - GIỮ NGUYÊN 100% logic
-    private final Loto2sResultChecker loto2sChecker;
-    private final Loto3sResultChecker loto3sChecker;
-    private final Loto4sResultChecker loto4sChecker;
-    private final XienResultChecker xienChecker;
-    private final SpecialResultChecker specialChecker;
-    private final TruotResultChecker truotChecker;
+    // Registry loại cược: descriptor + checker cho từng loại
+    private final BetTypeRegistry betTypeRegistry;
+    
+    // Exposure theo số của từng kỳ quay (hạn mức trả thưởng)
+    private final ExposureTracker exposureTracker;
+    
+    private final BetMetrics betMetrics;
+    
+    // Tỷ lệ + đơn giá lấy từ bản chụp trong bộ nhớ, không tin giá trị client gửi lên
+    private final BettingOddsSnapshot bettingOddsSnapshot;
+    
+    // Thống kê cược cộng dồn theo user (user_bet_stats)
+    private final UserBetStatsRollup userBetStatsRollup;
+    private final DashboardCounters dashboardCounters;
+    private final AdminSearchIndex adminSearchIndex;
 
     /**
      * Đặt cược mới
      */
     @Transactional
     public BetResponse placeBet(BetRequest request, Long userId) {
+        BetMetrics.Placement placement = betMetrics.startPlacement(request.getBetType());
+        try {
+            BetResponse response = placeBet(request, userId, placement);
+            placement.accepted();
+            return response;
+        } catch (RuntimeException e) {
+            placement.rejected();
+            throw e;
+        }
+    }
+
+    private BetResponse placeBet(BetRequest request, Long userId, BetMetrics.Placement placement) {
         log.info("User {} placing bet: region={}, province={}, betType={}, numbers={}, amount={}", 
                 userId, request.getRegion(), request.getProvince(), request.getBetType(), request.getSelectedNumbers(), request.getBetAmount());
 
-        // Kiểm tra thời gian khóa cược theo vùng miền
-        checkBettingTimeLimit(request.getRegion(), request.getProvince());
-
-        // Kiểm tra loại cược được hỗ trợ
-        if (!isSupportedBetType(request.getBetType())) {
-            throw new RuntimeException("Loại cược '" + request.getBetType() + "' chưa được hỗ trợ. " +
-                "Hiện tại hỗ trợ: loto2s/loto-2-so, loto3s/loto-3s, loto4s/loto-4s, loto-xien-2 (cả 2 miền), loto-xien-3 (cả 2 miền), loto-xien-4 (cả 2 miền), 3s-dac-biet (cả 2 miền), 4s-dac-biet (cả 2 miền), " +
-                "giai-nhat (chỉ Miền Bắc), 3s-giai-nhat (chỉ Miền Bắc), 3s-giai-6 (chỉ Miền Bắc), de-giai-7 (chỉ Miền Bắc), dau-duoi (chỉ Miền Bắc), 3s-dau-duoi (chỉ Miền Bắc), dac-biet (cả 2 miền), dau-dac-biet (cả 2 miền), de-giai-8 (chỉ Miền Trung Nam), dau-duoi-mien-trung-nam (chỉ Miền Trung Nam), 3s-dau-duoi-mien-trung-nam (chỉ Miền Trung Nam), 3s-giai-7 (chỉ Miền Trung Nam), loto-truot-4/8/10 (cả 2 miền)");
-        }
+        Bet bet = prepareBet(request, placement);
 
         // Lấy thông tin user
+        placement.stage(BetMetrics.STAGE_BALANCE);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User không tồn tại"));
 
-        // Tính toán - sử dụng điểm để đặt cược
-        BigDecimal betPoints = request.getBetAmount(); // Tổng số điểm cược (chia đều cho các số)
-        List<String> selectedNumbers = parseSelectedNumbers(convertToJsonString(request.getSelectedNumbers()));
-        int selectedCount = selectedNumbers.size();
+        // Kiểm tra số điểm và trừ điểm trong 1 câu UPDATE có điều kiện (points >= cần trừ)
+        // → 2 lệnh cược đồng thời không thể cùng trừ vượt số dư
+        long pointsToDeductLong = pointsToDeduct(bet);
+        long pointsAfter = pointService.tryDeductBalance(user, pointsToDeductLong)
+                .orElseThrow(() -> insufficientPoints(pointsToDeductLong, user.getPoints()));
+        long pointsBefore = pointsAfter + pointsToDeductLong;
         
-        // ĐẶC BIỆT: multiplier cho các loại đặc biệt
-        int multiplier = 1;
-        if ("de-giai-7".equals(request.getBetType())) {
-            multiplier = 4; // Giải 7 có 4 số
-        } else if ("3s-giai-6".equals(request.getBetType())) {
-            multiplier = 3; // Giải 6 có 3 số
-        } else if ("dau-duoi".equals(request.getBetType())) {
-            multiplier = 5; // Giải đặc biệt (1) + Giải 7 (4) = 5 số
-        } else if ("3s-dau-duoi".equals(request.getBetType())) {
-            multiplier = 4; // Giải đặc biệt (1) + Giải 6 (3) = 4 số
-        } else if ("dau-duoi-mien-trung-nam".equals(request.getBetType())) {
-            multiplier = 2; // Giải đặc biệt (1) + Giải 8 (1) = 2 số
-        } else if ("3s-dau-duoi-mien-trung-nam".equals(request.getBetType())) {
-            multiplier = 2; // Giải đặc biệt (1) + Giải 7 (1) = 2 số
-        }
+        // Tạo transaction record để lưu lịch sử (không cần gọi PointService vì đã trừ điểm trực tiếp)
+        // pointService.subtractPoints(user, betAmount, 
+        //     com.xsecret.entity.PointTransaction.PointTransactionType.BET_PLACED,
+        //     "Đặt cược: " + betAmount + " điểm", "BET", null, null);
         
-        // Tiền đặt cược = số điểm × đơn giá × số lượng số × multiplier
-        // Ví dụ: 10 điểm × 27 × 3 số = 810 (thường)
-        // Ví dụ de-giai-7: 10 điểm × 1,000 × 1 số × 4 = 40,000
-        // Ví dụ 3s-giai-6: 10 điểm × 1,000 × 1 số × 3 = 30,000
-        // Ví dụ dau-duoi: 10 điểm × 1,000 × 1 số × 5 = 50,000
-        // Ví dụ 3s-dau-duoi: 10 điểm × 1,000 × 1 số × 4 = 40,000
-        // Ví dụ dau-duoi-mien-trung-nam: 10 điểm × 1,000 × 1 số × 2 = 20,000
-        BigDecimal totalBetAmount = betPoints.multiply(request.getPricePerPoint())
-                                            .multiply(BigDecimal.valueOf(selectedCount))
-                                            .multiply(BigDecimal.valueOf(multiplier));
+        log.info("Deducted {} points from user {}. Before: {}, After: {}", pointsToDeductLong, userId, pointsBefore, pointsAfter);
+
+        placement.stage(BetMetrics.STAGE_PERSIST);
+        bet.setUser(user);
+        Bet savedBet = betRepository.save(bet);
+        userBetStatsRollup.recordPlaced(userId, 1, savedBet.getTotalAmount());
+        dashboardCounters.betsPlaced(1, savedBet.getTotalAmount());
         
-        // Tiền thắng nếu tất cả trúng = số điểm × tỷ lệ × số lượng số (KHÔNG × multiplier)
-        // Ví dụ: 10 điểm × 99 × 3 số = 2,970 (thường)
-        // Ví dụ de-giai-7: 10 điểm × 23 × 1 số = 230 (KHÔNG × 4)
-        // Ví dụ 3s-giai-6: 10 điểm × 600 × 1 số = 6,000 (KHÔNG × 3)
-        // Ví dụ dau-duoi: 10 điểm × 12 × 1 số = 120 (KHÔNG × 5)
-        // Ví dụ 3s-dau-duoi: 10 điểm × 150 × 1 số = 1,500 (KHÔNG × 4)
-        // Ví dụ dau-duoi-mien-trung-nam: 10 điểm × 50 × 1 số = 500 (KHÔNG × 2)
-        BigDecimal potentialWin = betPoints.multiply(request.getOdds()).multiply(BigDecimal.valueOf(selectedCount));
-        BigDecimal potentialProfit = potentialWin.subtract(totalBetAmount); // Chỉ tính tiền lãi
+        // Cộng exposure + kiểm tra hạn mức trả thưởng theo số (trong bộ nhớ, vượt hạn mức → rollback)
+        placement.stage(BetMetrics.STAGE_EXPOSURE);
+        exposureTracker.reserve(savedBet);
+        log.info("Bet placed successfully with ID: {}", savedBet.getId());
 
-        // Log bet calculation
-        log.info("Bet calculation - betPoints: {}, selectedCount: {}, totalBetAmount: {}, userPoints: {}, pricePerPoint: {}, potentialWin: {}", 
-                betPoints, selectedCount, totalBetAmount, user.getPoints(), request.getPricePerPoint(), potentialWin);
+        return BetResponse.fromEntity(savedBet);
+    }
 
-        // Kiểm tra số điểm có đủ không (trừ tổng tiền đặt cược)
-        long pointsToDeductLong = totalBetAmount.longValue();
-        if (user.getPoints() < pointsToDeductLong) {
-            throw new RuntimeException("Số điểm không đủ để đặt cược. Cần: " + pointsToDeductLong + " điểm, hiện có: " + user.getPoints() + " điểm");
+    /**
+     * Đặt phiếu cược (nhiều lệnh) trong 1 transaction, tất cả hoặc không lệnh nào
+     * - Kiểm tra + tính tiền toàn bộ lệnh trước (prepareBet, không truy cập DB)
+     * - Trừ tổng điểm 1 lần (1 câu UPDATE có điều kiện), INSERT các bet theo JDBC batch khi commit
+     * - 1 lệnh lỗi (khóa giờ, loại cược, hạn mức, không đủ điểm) → rollback cả phiếu
+     */
+    @Transactional
+    public List<BetResponse> placeBetSlip(List<BetRequest> requests, Long userId) {
+        List<BetMetrics.Placement> placements = new ArrayList<>(requests.size());
+        try {
+            List<BetResponse> responses = placeBetSlip(requests, userId, placements);
+            placements.forEach(BetMetrics.Placement::accepted);
+            return responses;
+        } catch (RuntimeException e) {
+            placements.forEach(BetMetrics.Placement::rejected);
+            throw e;
         }
+    }
 
-        // Trừ điểm từ tài khoản user
-        long pointsBefore = user.getPoints();
-        long pointsAfter = pointsBefore - pointsToDeductLong;
-        user.setPoints(pointsAfter);
-        userRepository.save(user);
-        
-        // Tạo transaction record để lưu lịch sử (không cần gọi PointService vì đã trừ điểm trực tiếp)
-        // pointService.subtractPoints(user, betAmount, 
-        //     com.xsecret.entity.PointTransaction.PointTransactionType.BET_PLACED,
-        //     "Đặt cược: " + betAmount + " điểm", "BET", null, null);
+    private List<BetResponse> placeBetSlip(List<BetRequest> requests, Long userId,
+                                           List<BetMetrics.Placement> placements) {
+        log.info("User {} placing bet slip with {} bets", userId, requests.size());
+
+        List<Bet> bets = new ArrayList<>(requests.size());
+        long totalPoints = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            BetRequest request = requests.get(i);
+            BetMetrics.Placement placement = betMetrics.startPlacement(request.getBetType());
+            placements.add(placement);
+            try {
+                Bet bet = prepareBet(request, placement);
+                bets.add(bet);
+                totalPoints += pointsToDeduct(bet);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Lệnh cược thứ " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+
+        // Trừ tổng điểm của cả phiếu 1 lần
+        placements.forEach(placement -> placement.stage(BetMetrics.STAGE_BALANCE));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User không tồn tại"));
+        long pointsToDeductLong = totalPoints;
+        long pointsAfter = pointService.tryDeductBalance(user, pointsToDeductLong)
+                .orElseThrow(() -> insufficientPoints(pointsToDeductLong, user.getPoints()));
+        log.info("Deducted {} points from user {} for bet slip. Before: {}, After: {}",
+                pointsToDeductLong, userId, pointsAfter + pointsToDeductLong, pointsAfter);
+
+        placements.forEach(placement -> placement.stage(BetMetrics.STAGE_PERSIST));
+        bets.forEach(bet -> bet.setUser(user));
+        List<Bet> savedBets = betRepository.saveAll(bets);
+        BigDecimal slipAmount = savedBets.stream().map(Bet::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        userBetStatsRollup.recordPlaced(userId, savedBets.size(), slipAmount);
+        dashboardCounters.betsPlaced(savedBets.size(), slipAmount);
+
+        // Cộng exposure theo thứ tự trong phiếu (các lệnh cùng số cộng dồn), vượt hạn mức → rollback cả phiếu
+        List<BetResponse> responses = new ArrayList<>(savedBets.size());
+        for (int i = 0; i < savedBets.size(); i++) {
+            placements.get(i).stage(BetMetrics.STAGE_EXPOSURE);
+            try {
+                exposureTracker.reserve(savedBets.get(i));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Lệnh cược thứ " + (i + 1) + ": " + e.getMessage(), e);
+            }
+            responses.add(BetResponse.fromEntity(savedBets.get(i)));
+        }
+        log.info("Bet slip placed successfully: {} bets, {} points", savedBets.size(), pointsToDeductLong);
+
+        return responses;
+    }
+
+    /**
+     * Kiểm tra + tính tiền 1 lệnh cược, không truy cập DB và chưa gắn user
+     * Dùng chung cho đặt cược trực tiếp và BetPlacementPipeline
+     */
+    public Bet prepareBet(BetRequest request, BetMetrics.Placement placement) {
+        // Kiểm tra thời gian khóa cược theo vùng miền
+        placement.stage(BetMetrics.STAGE_TIME_LIMIT);
+        checkBettingTimeLimit(request.getRegion(), request.getProvince());
+
+        // Kiểm tra loại cược được hỗ trợ, đúng miền và đúng định dạng số
+        placement.stage(BetMetrics.STAGE_VALIDATION);
+        BetType betType = betTypeRegistry.resolve(request.getBetType());
+        betTypeRegistry.validateSelection(betType, request.getRegion(), request.getSelectedNumbers());
+
+        // Tỷ lệ + đơn giá đang active của loại cược (bản chụp trong bộ nhớ, 0 query)
+        BettingOddsSnapshot.OddsQuote odds = bettingOddsSnapshot.findActive(request.getRegion(), betType)
+                .orElseThrow(() -> new RuntimeException("Loại cược " + request.getBetType() + " hiện chưa mở hoặc chưa có tỷ lệ cược"));
+        if (request.getOdds() != null && request.getOdds().compareTo(odds.odds()) != 0
+                || request.getPricePerPoint() != null && request.getPricePerPoint().compareTo(odds.pricePerPoint()) != 0) {
+            log.warn("Client odds/price {}/{} differ from server {}/{} for betType {} - using server values",
+                    request.getOdds(), request.getPricePerPoint(), odds.odds(), odds.pricePerPoint(), request.getBetType());
+        }
+
+        // Tính toán - sử dụng điểm để đặt cược
+        BigDecimal betPoints = request.getBetAmount(); // Tổng số điểm cược (chia đều cho các số)
+        int selectedCount = request.getSelectedNumbers().size();
         
-        log.info("Deducted {} points from user {}. Before: {}, After: {}", pointsToDeductLong, userId, pointsBefore, pointsAfter);
+        // Tiền cược (× multiplier của loại cược) và tiền thắng nếu tất cả trúng - xem BetQuote
+        BetQuote quote = BetQuote.of(betType, betPoints, odds.pricePerPoint(), odds.odds(), selectedCount);
+        BigDecimal totalBetAmount = quote.totalAmount();
+        BigDecimal potentialWin = quote.potentialWin();
+
+        // Log bet calculation
+        log.info("Bet calculation - betPoints: {}, selectedCount: {}, totalBetAmount: {}, pricePerPoint: {}, potentialWin: {}", 
+                betPoints, selectedCount, totalBetAmount, odds.pricePerPoint(), potentialWin);
 
         // Normalize province name để đồng bộ với format kết quả
         String normalizedProvince = normalizeProvinceName(request.getProvince());
         log.info("🔧 Normalizing province: {} -> {}", request.getProvince(), normalizedProvince);
         
         // Tạo bet record
-        Bet bet = Bet.builder()
-                .user(user)
+        return Bet.builder()
                 .region(request.getRegion())
                 .province(normalizedProvince) // Sử dụng province đã normalize
                 .betType(request.getBetType())
-                .selectedNumbers(convertToJsonString(request.getSelectedNumbers()))
+                .selectedNumbers(List.copyOf(request.getSelectedNumbers()))
                 .betAmount(betPoints) // Tổng số điểm cược (chia đều cho các số)
-                .pricePerPoint(request.getPricePerPoint()) // Đơn giá 1 điểm
+                .pricePerPoint(odds.pricePerPoint()) // Đơn giá 1 điểm
                 .totalAmount(totalBetAmount) // Tổng tiền cược (điểm)
-                .odds(request.getOdds())
+                .odds(odds.odds())
                 .potentialWin(potentialWin) // Tổng tiền có thể nhận (gốc + lãi)
                 .status(Bet.BetStatus.PENDING)
                 .resultDate(getBetResultDate(request.getRegion(), normalizedProvince)) // Sử dụng normalized province
                 .build();
+    }
 
-        Bet savedBet = betRepository.save(bet);
-        log.info("Bet placed successfully with ID: {}", savedBet.getId());
+    /**
+     * Số điểm cần trừ khi đặt bet (user.points lưu dạng long) - xem BetQuote.pointsToDeduct
+     */
+    public static long pointsToDeduct(Bet bet) {
+        return bet.getTotalAmount().longValue();
+    }
 
-        return BetResponse.fromEntity(savedBet);
+    public static RuntimeException insufficientPoints(long required, Long available) {
+        return new RuntimeException("Số điểm không đủ để đặt cược. Cần: " + required + " điểm, hiện có: " + available + " điểm");
     }
 
     /**
@@ -164,8 +261,19 @@ public class BetService {
      */
     @Transactional(readOnly = true)
     public Page<BetResponse> getUserBets(Long userId, Pageable pageable) {
-        return betRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(BetResponse::fromEntity);
+        return betRepository.findUserBetViews(userId, pageable)
+                .map(BetResponse::fromView);
+    }
+
+    /**
+     * Lấy danh sách bet của user theo cursor (infinite scroll, không COUNT)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BetResponse> getUserBetsByCursor(Long userId, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<BetView> bets = betRepository.findUserBetsBefore(
+                userId, position.createdAt(), position.id(), PageCursor.limit(size));
+        return CursorPage.of(bets, size, BetView::getCreatedAt, BetView::getId, BetResponse::fromView);
     }
 
     /**
@@ -191,128 +299,10 @@ public class BetService {
     public List<BetResponse> getRecentBets(Long userId, int limit) {
         return betRepository.findRecentBetsByUserId(userId, Pageable.ofSize(limit))
                 .stream()
-                .map(BetResponse::fromEntity)
+                .map(BetResponse::fromView)
                 .toList();
     }
 
-    /**
-     * Kiểm tra kết quả bet - tự động check mỗi 10 giây
-     * KHÔNG CẦN @Transactional vì:
-     * 1. Query đã JOIN FETCH user, không cần lazy loading
-     * 2. Mỗi bet có transaction riêng (REQUIRES_NEW)
-     * 3. Tránh conflict với nested transactions
-     * CHỈ CHECK BET CỦA HÔM NAY, nếu chưa có kết quả thì bỏ qua
-     */
-    public void checkBetResults() {
-        String currentDate = getCurrentDateString();
-        log.info("========================================");
-        log.info("🔍 AUTO CHECK STARTING - Current date: {}", currentDate);
-        log.info("========================================");
-        
-        List<Bet> pendingBets = betRepository.findPendingBetsToCheck(currentDate);
-
-        log.info("📊 Found {} PENDING bets for date: {}", pendingBets.size(), currentDate);
-        
-        if (pendingBets.isEmpty()) {
-            log.info("✅ No pending bets to check for today");
-            return;
-        }
-
-        int successCount = 0;
-        int errorCount = 0;
-        int skippedCount = 0;
-        
-        for (Bet bet : pendingBets) {
-            try {
-                log.info("⚡ Processing bet ID: {}, betType: {}, userId: {}, region: {}, province: {}", 
-                        bet.getId(), bet.getBetType(), bet.getUser().getId(), bet.getRegion(), bet.getProvince());
-                checkBetResult(bet);
-                successCount++;
-                log.info("✅ Successfully checked bet ID: {}", bet.getId());
-            } catch (RuntimeException e) {
-                // Nếu lỗi do chưa có kết quả xổ số thì skip (không đếm là lỗi)
-                if (e.getMessage() != null && e.getMessage().contains("Chưa có kết quả xổ số")) {
-                    skippedCount++;
-                    log.warn("⏭️ Skipped bet ID {} - Chưa có kết quả xổ số: {}", bet.getId(), e.getMessage());
-                } else {
-                    errorCount++;
-                    log.error("❌ Error checking result for bet ID {}: {}", bet.getId(), e.getMessage(), e);
-                }
-            } catch (Exception e) {
-                errorCount++;
-                log.error("❌ Unexpected error checking bet ID {}: {}", bet.getId(), e.getMessage(), e);
-            }
-        }
-        
-        log.info("========================================");
-        log.info("📈 Bet check COMPLETED: ✅ {} successful, ⏭️ {} skipped (no result), ❌ {} errors out of {} total", 
-                successCount, skippedCount, errorCount, pendingBets.size());
-        log.info("========================================");
-    }
-
-    /**
-     * Kiểm tra kết quả bet cho ngày cụ thể (dùng khi admin publish kết quả)
-     * KHÔNG CẦN @Transactional vì:
-     * 1. Query đã JOIN FETCH user, không cần lazy loading
-     * 2. Mỗi bet có transaction riêng (REQUIRES_NEW)
-     * 3. Tránh conflict với nested transactions
-     * CHỈ CHECK BET CỦA NGÀY ĐƯỢC CHỈ ĐỊNH
-     */
-    public void checkBetResultsForDate(String targetDate) {
-        log.info("========================================");
-        log.info("🎯 ADMIN TRIGGERED CHECK - Target date: {}", targetDate);
-        log.info("========================================");
-        
-        List<Bet> pendingBets = betRepository.findPendingBetsToCheckForDate(targetDate);
-
-        log.info("📊 Found {} PENDING bets for specific date: {}", pendingBets.size(), targetDate);
-        
-        // Debug: Log chi tiết từng bet
-        for (Bet bet : pendingBets) {
-            log.info("🔍 DEBUG Bet ID: {}, region: {}, province: {}, betType: {}, resultDate: {}, status: {}", 
-                    bet.getId(), bet.getRegion(), bet.getProvince(), bet.getBetType(), bet.getResultDate(), bet.getStatus());
-        }
-        
-        // Debug: Log target date format
-        log.info("🔍 DEBUG Target date format: '{}', length: {}", targetDate, targetDate.length());
-        
-        if (pendingBets.isEmpty()) {
-            log.info("✅ No pending bets to check for date: {}", targetDate);
-            return;
-        }
-
-        int successCount = 0;
-        int errorCount = 0;
-        int skippedCount = 0;
-        
-        for (Bet bet : pendingBets) {
-            try {
-                log.info("⚡ Processing bet ID: {}, betType: {}, userId: {}, region: {}, province: {}", 
-                        bet.getId(), bet.getBetType(), bet.getUser().getId(), bet.getRegion(), bet.getProvince());
-                checkBetResult(bet);
-                successCount++;
-                log.info("✅ Successfully checked bet ID: {}", bet.getId());
-            } catch (RuntimeException e) {
-                // Nếu lỗi do chưa có kết quả xổ số thì skip (không đếm là lỗi)
-                if (e.getMessage() != null && e.getMessage().contains("Chưa có kết quả xổ số")) {
-                    skippedCount++;
-                    log.warn("⏭️ Skipped bet ID {} - Chưa có kết quả xổ số: {}", bet.getId(), e.getMessage());
-                } else {
-                    errorCount++;
-                    log.error("❌ Error checking result for bet ID {}: {}", bet.getId(), e.getMessage(), e);
-                }
-            } catch (Exception e) {
-                errorCount++;
-                log.error("❌ Unexpected error checking bet ID {}: {}", bet.getId(), e.getMessage(), e);
-            }
-        }
-        
-        log.info("========================================");
-        log.info("📈 Bet check for date {} COMPLETED: ✅ {} successful, ⏭️ {} skipped (no result), ❌ {} errors out of {} total", 
-                targetDate, successCount, skippedCount, errorCount, pendingBets.size());
-        log.info("========================================");
-    }
-
     /**
      * DEBUG: Kiểm tra logic xác định result date cho miền trung nam
      */
@@ -321,15 +311,15 @@ public class BetService {
         
         try {
             LocalDate date = LocalDate.parse(testDate);
-            boolean isTodayDrawDay = isProvinceDrawDay(province, date);
-            log.info("📅 [DEBUG] Is {} draw day for {}: {}", testDate, province, isTodayDrawDay);
-            
-            if (!isTodayDrawDay) {
-                LocalDate nextDrawDate = getNextProvinceDrawDate(province, date);
-                log.info("📅 [DEBUG] {} không quay {}. Next draw date: {}", province, testDate, nextDrawDate);
-            } else {
-                log.info("📅 [DEBUG] {} quay vào {}", province, testDate);
+            Province resolved = Province.resolve(province);
+            if (resolved == null) {
+                log.warn("⚠️ [DEBUG] Province {} không có trong danh sách tỉnh", province);
+                return;
             }
+            log.info("📅 [DEBUG] {} draws on {} ({}), lock {} - {}", resolved.getId(), resolved.getDrawDays(),
+                    resolved.getArea().getDisplayName(), resolved.getArea().getLockStart(), resolved.getArea().getLockEnd());
+            log.info("📅 [DEBUG] Is {} draw day for {}: {}, next draw date: {}", testDate, province,
+                    resolved.isDrawDay(date), resolved.nextDrawDateAfter(date));
             
             // Test với giờ khác nhau
             LocalTime[] testTimes = {
@@ -340,16 +330,9 @@ public class BetService {
             };
             
             for (LocalTime testTime : testTimes) {
-                log.info("🕐 [DEBUG] Testing with time: {}", testTime);
-                
-                if (isTodayDrawDay) {
-                    if (testTime.isBefore(LocalTime.of(18, 45))) {
-                        log.info("📅 [DEBUG] Before 18:45 → Result date = {}", date);
-                    } else {
-                        LocalDate nextDrawDate = getNextProvinceDrawDate(province, date);
-                        log.info("📅 [DEBUG] After 18:45 → Result date = {}", nextDrawDate);
-                    }
-                }
+                LocalDateTime at = date.atTime(testTime);
+                log.info("🕐 [DEBUG] {} → locked: {}, result date: {}", testTime,
+                        resolved.isBettingLocked(at), resolved.resultDate(at));
             }
             
         } catch (Exception e) {
@@ -364,9 +347,10 @@ public class BetService {
      * 2. Thắng cược: Cộng CHỈ tiền lãi của số trúng (thua mất luôn, không hoàn vốn)
      * 
      * REQUIRES_NEW: Mỗi bet chạy trong transaction riêng để tránh ảnh hưởng lẫn nhau
+     * @return trạng thái sau khi check (WON / LOST), null nếu bet đã được check trước đó
      */
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
-    public void checkBetResult(Bet betParam) {
+    public Bet.BetStatus checkBetResult(Bet betParam) {
         // Fetch fresh bet from DB WITH user to avoid LazyInitializationException
         Bet bet = betRepository.findByIdWithUser(betParam.getId())
                 .orElseThrow(() -> new RuntimeException("Bet không tồn tại: " + betParam.getId()));
@@ -374,7 +358,7 @@ public class BetService {
         // Kiểm tra xem bet đã được check chưa (tránh check lại)
         if (bet.getStatus() != Bet.BetStatus.PENDING) {
             log.info("Bet {} already checked with status {}, skipping", bet.getId(), bet.getStatus());
-            return;
+            return null;
         }
         
         log.info("Checking result for bet {}: {} - {}", bet.getId(), bet.getBetType(), bet.getSelectedNumbers());
@@ -389,72 +373,10 @@ public class BetService {
             bet.setStatus(Bet.BetStatus.WON);
             
             // Tính tiền thắng: cộng TOÀN BỘ tiền thắng (bao gồm cả vốn)
-            BigDecimal winAmount;
-            if ("loto2s".equals(bet.getBetType()) || "loto-2-so".equals(bet.getBetType()) 
-                || "loto3s".equals(bet.getBetType()) || "loto-3s".equals(bet.getBetType())
-                || "loto4s".equals(bet.getBetType()) || "loto-4s".equals(bet.getBetType())
-                || "loto-xien-2".equals(bet.getBetType())
-                || "loto-xien-3".equals(bet.getBetType())
-                || "loto-xien-4".equals(bet.getBetType())
-                || "3s-dac-biet".equals(bet.getBetType())
-                || "4s-dac-biet".equals(bet.getBetType())
-                || "giai-nhat".equals(bet.getBetType())
-                || "3s-giai-nhat".equals(bet.getBetType())
-                || "dac-biet".equals(bet.getBetType())
-                || "dau-dac-biet".equals(bet.getBetType())
-                || "3s-giai-6".equals(bet.getBetType())
-                || "de-giai-7".equals(bet.getBetType())
-                || "dau-duoi".equals(bet.getBetType())
-                || "3s-dau-duoi".equals(bet.getBetType())
-                || "de-giai-8".equals(bet.getBetType())
-                || "dau-duoi-mien-trung-nam".equals(bet.getBetType())
-                || "3s-giai-7".equals(bet.getBetType())
-                || "3s-dau-duoi-mien-trung-nam".equals(bet.getBetType())
-                || "loto-truot-4".equals(bet.getBetType())
-                || "loto-truot-8".equals(bet.getBetType())
-                || "loto-truot-10".equals(bet.getBetType())) {
-                // Cho loto2s: tính tiền thắng dựa trên số lượng số trúng
-                List<String> winningNumbers = parseSelectedNumbers(bet.getWinningNumbers());
-                int winningCount = winningNumbers.size();
-                
-                // Logic mới: số điểm × tỷ lệ × số trúng + bonus cho trúng nhiều lần
-                // Ví dụ: 10 điểm × 99 × 2 số trúng = 1,980
-                BigDecimal totalBetPoints = bet.getBetAmount(); // Số điểm cược (10)
-                List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-                
-                // Đếm số lần mỗi số được chọn trúng trong kết quả
-                BigDecimal totalWinAmount = BigDecimal.ZERO;
-                
-                for (String selectedNumber : selectedNumbers) {
-                    // Đếm số lần số này xuất hiện trong winningNumbers
-                    long winCount = winningNumbers.stream().filter(wn -> wn.equals(selectedNumber)).count();
-                    
-                    if (winCount > 0) {
-                        // Lần đầu: tiền thắng đầy đủ (đã bao gồm trừ gốc logic)
-                        BigDecimal baseWin = totalBetPoints.multiply(bet.getOdds());
-                        totalWinAmount = totalWinAmount.add(baseWin);
-                        
-                        // Từ lần thứ 2 trở đi: chỉ cộng thêm lãi (không trừ gốc)
-                        if (winCount > 1) {
-                            BigDecimal bonusWin = totalBetPoints.multiply(bet.getOdds()).multiply(BigDecimal.valueOf(winCount - 1));
-                            totalWinAmount = totalWinAmount.add(bonusWin);
-                            
-                            log.info("Bonus win for number {} (won {} times): base={}, bonus={}", 
-                                    selectedNumber, winCount, baseWin, bonusWin);
-                        }
-                    }
-                }
-                
-                winAmount = totalWinAmount;
-                
-                log.info("Loto (2s/3s/4s/xien-2/xien-3/xien-4/3s-dac-biet/4s-dac-biet/giai-nhat/3s-giai-nhat/3s-giai-6/dac-biet/dau-dac-biet/dau-duoi/3s-dau-duoi/de-giai-7/de-giai-8/dau-duoi-mien-trung-nam/3s-giai-7/truot-4/truot-8/truot-10) win calculation with bonus: betType={}, total selected numbers: {}, total win amount: {} points", 
-                        bet.getBetType(), selectedNumbers.size(), totalWinAmount);
-            } else {
-                // Các loại khác: chỉ cộng tiền lãi (trừ vốn vì đã bị trừ khi đặt cược)
-                winAmount = bet.getPotentialWin().subtract(bet.getTotalAmount()); // Chỉ lãi, không bao gồm vốn
-            }
-            
+            BigDecimal winAmount = calculateSettledWinAmount(bet);
             bet.setWinAmount(winAmount);
+            userBetStatsRollup.recordWon(bet.getUser().getId(), 1, winAmount);
+            dashboardCounters.betsSettled(1, 0, winAmount);
             
             // Cộng tiền LÃI vào tài khoản (thua là mất luôn, không hoàn vốn)
             User user = bet.getUser();
@@ -476,137 +398,94 @@ public class BetService {
         } else {
             bet.setStatus(Bet.BetStatus.LOST);
             bet.setWinAmount(BigDecimal.ZERO);
+            dashboardCounters.betsSettled(0, 1, BigDecimal.ZERO);
             log.info("Bet {} LOST", bet.getId());
         }
 
         // Lưu và flush ngay để đảm bảo data được persist
         bet = betRepository.save(bet);
+        exposureTracker.release(bet);
         log.info("Bet {} saved with status: {}, isWin: {}, winAmount: {}", 
                 bet.getId(), bet.getStatus(), bet.getIsWin(), bet.getWinAmount());
+        return bet.getStatus();
     }
 
     /**
-     * Logic kiểm tra kết quả - REFACTORED: sử dụng checker classes
-     * GIỮ NGUYÊN 100% logic, chỉ gọi checker thay vì method cũ
+     * Tính kết quả bet trong bộ nhớ, KHÔNG ghi DB, KHÔNG cộng điểm
+     * Dùng cho batch settlement: BetSettlementBatchWriter ghi kết quả theo chunk
+     * Bet truyền vào phải được fetch kèm user (PendingBetReader)
      */
-    private boolean simulateBetResult(Bet bet) {
-        // Loto 2 số: check 2 số cuối tất cả giải
-        if ("loto2s".equals(bet.getBetType()) || "loto-2-so".equals(bet.getBetType())) {
-            return loto2sChecker.checkResult(bet);
-        }
-        
-        // Loto 3 số: check 3 số cuối tất cả giải
-        if ("loto3s".equals(bet.getBetType()) || "loto-3s".equals(bet.getBetType())) {
-            return loto3sChecker.checkResult(bet);
-        }
-        
-        // Loto 4 số: check 4 số cuối tất cả giải
-        if ("loto4s".equals(bet.getBetType()) || "loto-4s".equals(bet.getBetType())) {
-            return loto4sChecker.checkResult(bet);
-        }
-        
-        // Loto xiên 2: check cặp số, cả 2 phải trúng
-        if ("loto-xien-2".equals(bet.getBetType())) {
-            return xienChecker.checkXien2Result(bet);
-        }
-        
-        // Loto xiên 3: check cụm 3 số, cả 3 phải trúng
-        if ("loto-xien-3".equals(bet.getBetType())) {
-            return xienChecker.checkXien3Result(bet);
-        }
-        
-        // Loto xiên 4: check cụm 4 số, cả 4 phải trúng
-        if ("loto-xien-4".equals(bet.getBetType())) {
-            return xienChecker.checkXien4Result(bet);
-        }
-        
-        // 3s đặc biệt: CHỈ check 3 số cuối của giải đặc biệt
-        if ("3s-dac-biet".equals(bet.getBetType())) {
-            return specialChecker.check3sDacBietResult(bet);
-        }
-        
-        // 4s đặc biệt: CHỈ check 4 số cuối của giải đặc biệt
-        if ("4s-dac-biet".equals(bet.getBetType())) {
-            return specialChecker.check4sDacBietResult(bet);
-        }
-        
-        // Giải nhất: CHỈ check 2 số cuối giải nhất
-        if ("giai-nhat".equals(bet.getBetType())) {
-            return specialChecker.checkGiaiNhatResult(bet);
-        }
-        
-        // 3D Giải nhất: CHỈ check 3 số cuối giải nhất
-        if ("3s-giai-nhat".equals(bet.getBetType())) {
-            return specialChecker.check3sGiaiNhatResult(bet);
-        }
-        
-        // 3s giải 6: CHỈ check 3 số cuối của TẤT CẢ 3 số giải 6 (chỉ Miền Bắc)
-        if ("3s-giai-6".equals(bet.getBetType())) {
-            return specialChecker.check3sGiai6Result(bet);
-        }
-        
-        // Đặc biệt: CHỈ check 2 số cuối giải đặc biệt
-        if ("dac-biet".equals(bet.getBetType())) {
-            return specialChecker.checkDacBietResult(bet);
-        }
-        
-        // Đầu đặc biệt: CHỈ check 2 số ĐẦU giải đặc biệt
-        if ("dau-dac-biet".equals(bet.getBetType())) {
-            return specialChecker.checkDauDacBietResult(bet);
-        }
-        
-        // Đầu/đuôi: CHỈ check 2 số cuối giải đặc biệt + TẤT CẢ 4 số giải 7 (chỉ Miền Bắc)
-        if ("dau-duoi".equals(bet.getBetType())) {
-            return specialChecker.checkDauDuoiResult(bet);
-        }
-        
-        // 3s đầu đuôi: CHỈ check 3 số cuối giải đặc biệt + TẤT CẢ 3 số giải 6 (chỉ Miền Bắc)
-        if ("3s-dau-duoi".equals(bet.getBetType())) {
-            return specialChecker.check3sDauDuoiResult(bet);
-        }
-        
-        // 3s đầu đuôi Miền Trung Nam: CHỈ check 3 số cuối giải đặc biệt + 1 số giải 7 (chỉ Miền Trung Nam)
-        if ("3s-dau-duoi-mien-trung-nam".equals(bet.getBetType())) {
-            return specialChecker.check3sDauDuoiMienTrungNamResult(bet);
-        }
-        
-        // Đầu/đuôi Miền Trung Nam: CHỈ check 2 số cuối giải đặc biệt + giải 8 (chỉ Miền Trung Nam)
-        if ("dau-duoi-mien-trung-nam".equals(bet.getBetType())) {
-            return specialChecker.checkDauDuoiMienTrungNamResult(bet);
-        }
-        
-        // Đề giải 8: CHỈ check 2 số cuối giải 8 (chỉ Miền Trung Nam)
-        if ("de-giai-8".equals(bet.getBetType())) {
-            return specialChecker.checkDeGiai8Result(bet);
-        }
+    public SettledBet evaluateBetResult(Bet bet) {
+        boolean isWin = simulateBetResult(bet);
+        BigDecimal winAmount = isWin ? calculateSettledWinAmount(bet) : BigDecimal.ZERO;
+
+        return SettledBet.builder()
+                .betId(bet.getId())
+                .userId(bet.getUser().getId())
+                .region(bet.getRegion())
+                .province(bet.getProvince())
+                .win(isWin)
+                .winAmount(winAmount)
+                .winningNumbers(bet.getWinningNumbers())
+                .build();
+    }
+
+    /**
+     * Tính tiền thắng của bet đã trúng (chỉ tính, KHÔNG ghi DB)
+     * Yêu cầu bet.winningNumbers đã được checker set
+     */
+    private BigDecimal calculateSettledWinAmount(Bet bet) {
+        // Mọi loại cược (BetType): tính tiền thắng dựa trên số lượng số trúng
+        List<String> winningNumbers = bet.getWinningNumbers() != null ? bet.getWinningNumbers() : List.of();
         
-        // Đề giải 7: CHỈ check 2 số cuối của TẤT CẢ 4 số giải 7 (chỉ Miền Bắc)
-        if ("de-giai-7".equals(bet.getBetType())) {
-            return specialChecker.checkDeGiai7Result(bet);
-        }
+        // Logic mới: số điểm × tỷ lệ × số trúng + bonus cho trúng nhiều lần
+        // Ví dụ: 10 điểm × 99 × 2 số trúng = 1,980
+        BigDecimal totalBetPoints = bet.getBetAmount(); // Số điểm cược (10)
+        List<String> selectedNumbers = bet.getSelectedNumbers();
         
-        // 3s giải 7: CHỈ check 3 số cuối giải 7 (chỉ Miền Trung Nam)
-        if ("3s-giai-7".equals(bet.getBetType())) {
-            return specialChecker.check3sGiai7Result(bet);
+        // Đếm số lần mỗi số xuất hiện trong winningNumbers (1 lần duyệt)
+        Map<String, Integer> winCounts = new HashMap<>();
+        for (String winningNumber : winningNumbers) {
+            winCounts.merge(winningNumber, 1, Integer::sum);
         }
         
-        // Loto trượt 4: CẢ 4 số đều KHÔNG trúng → THẮNG
-        if ("loto-truot-4".equals(bet.getBetType())) {
-            return truotChecker.checkTruot4Result(bet);
-        }
+        // Đếm số lần mỗi số được chọn trúng trong kết quả
+        BigDecimal totalWinAmount = BigDecimal.ZERO;
         
-        // Loto trượt 8: CẢ 8 số đều KHÔNG trúng → THẮNG
-        if ("loto-truot-8".equals(bet.getBetType())) {
-            return truotChecker.checkTruot8Result(bet);
+        for (String selectedNumber : selectedNumbers) {
+            long winCount = winCounts.getOrDefault(selectedNumber, 0);
+            
+            if (winCount > 0) {
+                // Lần đầu: tiền thắng đầy đủ (đã bao gồm trừ gốc logic)
+                BigDecimal baseWin = totalBetPoints.multiply(bet.getOdds());
+                totalWinAmount = totalWinAmount.add(baseWin);
+                
+                // Từ lần thứ 2 trở đi: chỉ cộng thêm lãi (không trừ gốc)
+                if (winCount > 1) {
+                    BigDecimal bonusWin = totalBetPoints.multiply(bet.getOdds()).multiply(BigDecimal.valueOf(winCount - 1));
+                    totalWinAmount = totalWinAmount.add(bonusWin);
+                    
+                    log.info("Bonus win for number {} (won {} times): base={}, bonus={}", 
+                            selectedNumber, winCount, baseWin, bonusWin);
+                }
+            }
         }
         
-        // Loto trượt 10: CẢ 10 số đều KHÔNG trúng → THẮNG
-        if ("loto-truot-10".equals(bet.getBetType())) {
-            return truotChecker.checkTruot10Result(bet);
+        log.info("Win calculation with bonus: betType={}, total selected numbers: {}, total win amount: {} points", 
+                bet.getBetType(), selectedNumbers.size(), totalWinAmount);
+        return totalWinAmount;
+    }
+
+    /**
+     * Logic kiểm tra kết quả - dispatch qua BetTypeRegistry (1 lần hash lookup)
+     * Loại cược không hỗ trợ → throw, KHÔNG random kết quả
+     */
+    private boolean simulateBetResult(Bet bet) {
+        if (bet.getSelectedNumbers() == null || bet.getSelectedNumbers().isEmpty()) {
+            // Bet chưa migrate sang cột nhị phân hoặc dữ liệu lỗi: không được tính là thua
+            throw new RuntimeException("Bet " + bet.getId() + " không có số đã chọn, bỏ qua check kết quả");
         }
-        
-        // Mock: 10% cơ hội thắng cho các loại khác
-        return Math.random() < 0.1;
+        return betTypeRegistry.checkResult(bet);
     }
     
     // ==========================================
@@ -614,38 +493,13 @@ public class BetService {
     // Code đã được refactor, xem: com.xsecret.service.bet.checker.*
     // ==========================================
     
-    /**
-     * Parse selected numbers từ JSON string
-     */
-    private List<String> parseSelectedNumbers(String selectedNumbersJson) {
-        try {
-            return objectMapper.readValue(selectedNumbersJson, 
-                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-        } catch (Exception e) {
-            log.error("Error parsing selected numbers: {}", e.getMessage());
-            return List.of();
-        }
-    }
-
     /**
      * Lấy thống kê bet của user
      */
     @Transactional(readOnly = true)
     public BetStatisticsResponse getUserBetStatistics(Long userId) {
-        long totalBetsCount = betRepository.countByUserId(userId);
-        long wonBetsCount = betRepository.countByUserIdAndIsWinTrue(userId);
-        double totalBetAmountSum = betRepository.getTotalBetAmountByUserId(userId);
-        double totalWinAmountSum = betRepository.getTotalWinAmountByUserId(userId);
-
-        return BetStatisticsResponse.builder()
-                .totalBets(totalBetsCount)
-                .wonBets(wonBetsCount)
-                .lostBets(totalBetsCount - wonBetsCount)
-                .winRate(totalBetsCount > 0 ? (double) wonBetsCount / totalBetsCount * 100 : 0)
-                .totalBetAmount(totalBetAmountSum)
-                .totalWinAmount(totalWinAmountSum)
-                .netProfit(totalWinAmountSum - totalBetAmountSum)
-                .build();
+        // 1 lần đọc user_bet_stats theo khóa chính, không quét lịch sử bet
+        return userBetStatsRollup.getStatistics(userId);
     }
 
     /**
@@ -692,6 +546,8 @@ public class BetService {
         bet.setStatus(Bet.BetStatus.CANCELLED);
         bet.setResultCheckedAt(LocalDateTime.now());
         betRepository.save(bet);
+        exposureTracker.release(bet);
+        dashboardCounters.betsCancelled(1);
         
         log.info("✅ Bet {} cancelled successfully. Refunded {} points to user {}", 
                 betId, refundAmount, user.getUsername());
@@ -710,19 +566,9 @@ public class BetService {
         log.info("🚫 AUTO CANCEL EXPIRED BETS - Date: {}", currentDate);
         log.info("========================================");
         
-        // Tìm tất cả bets PENDING của hôm nay
-        List<Bet> pendingBets = betRepository.findPendingBetsToCheck(currentDate);
-        
-        if (pendingBets.isEmpty()) {
-            log.info("✅ No expired bets to cancel for date: {}", currentDate);
-            return 0;
-        }
-        
-        log.info("📊 Found {} PENDING bets to cancel for date: {}", pendingBets.size(), currentDate);
-        
-        int cancelledCount = 0;
-        
-        for (Bet bet : pendingBets) {
+        // Duyệt bets PENDING của hôm nay theo từng trang (không load cả ngày vào bộ nhớ)
+        int[] cancelledCount = {0};
+        long totalPending = pendingBetReader.forEach(currentDate, bet -> {
             try {
                 // Hoàn tiền
                 User user = bet.getUser();
@@ -741,31 +587,30 @@ public class BetService {
                 bet.setStatus(Bet.BetStatus.CANCELLED);
                 bet.setResultCheckedAt(LocalDateTime.now());
                 betRepository.save(bet);
+                exposureTracker.release(bet);
                 
-                cancelledCount++;
+                cancelledCount[0]++;
                 log.info("✅ Bet {} auto cancelled. Refunded {} points to user {}", 
                         bet.getId(), refundAmount, user.getUsername());
                 
             } catch (Exception e) {
                 log.error("❌ Error auto cancelling bet {}: {}", bet.getId(), e.getMessage(), e);
             }
+        });
+        
+        if (totalPending == 0) {
+            log.info("✅ No expired bets to cancel for date: {}", currentDate);
+            return 0;
         }
         
+        dashboardCounters.betsCancelled(cancelledCount[0]);
+        
         log.info("========================================");
         log.info("📈 Auto cancel COMPLETED: {} bets cancelled out of {} total", 
-                cancelledCount, pendingBets.size());
+                cancelledCount[0], totalPending);
         log.info("========================================");
         
-        return cancelledCount;
-    }
-
-    private String convertToJsonString(List<String> list) {
-        try {
-            return objectMapper.writeValueAsString(list);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting list to JSON: {}", e.getMessage());
-            return "[]";
-        }
+        return cancelledCount[0];
     }
 
     private String getCurrentDateString() {
@@ -775,50 +620,30 @@ public class BetService {
     /**
      * Xác định ngày kết quả cho bet dựa trên thời gian đặt cược và lịch quay
      * - Miền Bắc: Sau 18:30 → ngày mai (quay hàng ngày)
-     * - Miền Trung/Nam: Tính động dựa trên lịch quay của tỉnh
+     * - Miền Trung/Nam: theo lịch quay của tỉnh (Province, tính sẵn theo thứ trong tuần)
      */
     private String getBetResultDate(String region, String province) {
-        LocalTime now = LocalTime.now();
-        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
         
         if ("mienBac".equals(region)) {
-            // Miền Bắc: Logic cũ (quay hàng ngày)
-            boolean shouldUseNextDay = now.isAfter(LocalTime.of(18, 30));
+            // Miền Bắc: quay hàng ngày
+            boolean shouldUseNextDay = now.toLocalTime().isAfter(Province.Area.MIEN_BAC_RESULT_CUTOFF);
             LocalDate resultDate = shouldUseNextDay ? today.plusDays(1) : today;
             log.info("📅 Miền Bắc bet result date: {}", resultDate);
             return resultDate.toString();
         }
         
-        // Miền Trung Nam: Logic ĐỘNG dựa trên lịch tỉnh
         if ("mienTrungNam".equals(region) && province != null) {
-            log.info("🔍 [DEBUG] Calculating result date for province: {}", province);
-            
-            // 1. Check hôm nay có phải ngày quay của tỉnh không?
-            boolean isTodayDrawDay = isProvinceDrawDay(province, today);
-            log.info("📅 [DEBUG] Is today draw day for {}: {}", province, isTodayDrawDay);
-            
-            if (!isTodayDrawDay) {
-                // Hôm nay không quay → resultDate = ngày quay tiếp theo
-                LocalDate nextDrawDate = getNextProvinceDrawDate(province, today);
-                log.info("📅 [DEBUG] {} không quay hôm nay. Result date = {} (ngày quay tiếp theo)", 
-                        province, nextDrawDate);
-                return nextDrawDate.toString();
-            }
-            
-            // 2. Hôm nay có quay → Check giờ
-            LocalTime lockEnd = LocalTime.of(18, 45);
-            
-            if (now.isBefore(lockEnd)) {
-                // Trước 18:45 → Đánh cho hôm nay
-                log.info("📅 [DEBUG] {} quay hôm nay và chưa qua 18:45. Result date = {}", province, today);
-                return today.toString();
-            } else {
-                // Sau 18:45 → Đánh cho kỳ tiếp theo
-                LocalDate nextDrawDate = getNextProvinceDrawDate(province, today);
-                log.info("📅 [DEBUG] {} đã qua 18:45. Result date = {} (kỳ tiếp theo)", 
-                        province, nextDrawDate);
-                return nextDrawDate.toString();
+            Province resolved = Province.resolve(province);
+            if (resolved == null) {
+                // Không có lịch quay → mặc định ngày mai
+                log.warn("⚠️ Không tìm thấy lịch quay cho province: {}", province);
+                return today.plusDays(1).toString();
             }
+            LocalDate resultDate = resolved.resultDate(now);
+            log.info("📅 {} bet result date: {}", resolved.getId(), resultDate);
+            return resultDate.toString();
         }
         
         // Fallback
@@ -826,51 +651,6 @@ public class BetService {
         return today.toString();
     }
 
-    /**
-     * Kiểm tra loại cược được hỗ trợ
-     * Hỗ trợ:
-     * - Loto 2 số: loto2s (Miền Bắc), loto-2-so (Miền Trung Nam)
-     * - Loto 3 số: loto3s (Miền Bắc), loto-3s (Miền Trung Nam)
-     * - Loto 4 số: loto4s (Miền Bắc), loto-4s (Miền Trung Nam)
-     * - Loto xiên 2: loto-xien-2 (CẢ 2 miền) - chọn cặp số, cả 2 phải trúng
-     * - Loto xiên 3: loto-xien-3 (CẢ 2 miền) - chọn cụm 3 số, cả 3 phải trúng
-     * - Loto xiên 4: loto-xien-4 (CẢ 2 miền) - chọn cụm 4 số, cả 4 phải trúng
-     * - 3s đặc biệt: 3s-dac-biet (CẢ 2 miền) - chọn 3 số, chỉ so với 3 số cuối giải đặc biệt
-     * - 4s đặc biệt: 4s-dac-biet (CẢ 2 miền) - chọn 4 số, chỉ so với 4 số cuối giải đặc biệt
-     * - Giải nhất: giai-nhat (CHỈ Miền Bắc) - 2 số cuối giải nhất
-     * - 3D Giải nhất: 3s-giai-nhat (CHỈ Miền Bắc) - 3 số cuối giải nhất
-     * - Đặc biệt: dac-biet (CẢ 2 miền)
-     * - Đầu đặc biệt: dau-dac-biet (CẢ 2 miền)
-     * - Đề giải 8: de-giai-8 (CHỈ Miền Trung Nam) - 2 số cuối giải 8
-     * - 3s đầu đuôi: 3s-dau-duoi-mien-trung-nam (CHỈ Miền Trung Nam) - 3 số cuối giải đặc biệt + 1 số giải 7
-     * - 3s giải 7: 3s-giai-7 (CHỈ Miền Trung Nam) - 3 số cuối giải 7
-     * - Loto trượt 4-10: loto-truot-4 đến loto-truot-10 (CẢ 2 miền) - cả N số đều không trúng
-     */
-    private boolean isSupportedBetType(String betType) {
-        return "loto2s".equals(betType) || "loto-2-so".equals(betType) 
-            || "loto3s".equals(betType) || "loto-3s".equals(betType)
-            || "loto4s".equals(betType) || "loto-4s".equals(betType)
-            || "loto-xien-2".equals(betType)
-            || "loto-xien-3".equals(betType)
-            || "loto-xien-4".equals(betType)
-            || "3s-dac-biet".equals(betType)
-            || "4s-dac-biet".equals(betType)
-            || "giai-nhat".equals(betType)
-            || "3s-giai-nhat".equals(betType)
-            || "3s-giai-6".equals(betType)
-            || "de-giai-7".equals(betType)
-            || "dau-duoi".equals(betType)
-            || "3s-dau-duoi".equals(betType)
-            || "dac-biet".equals(betType)
-            || "dau-dac-biet".equals(betType)
-            || "de-giai-8".equals(betType)
-            || "dau-duoi-mien-trung-nam".equals(betType)
-            || "3s-dau-duoi-mien-trung-nam".equals(betType)
-            || "3s-giai-7".equals(betType)
-            || "loto-truot-4".equals(betType)
-            || "loto-truot-8".equals(betType)
-            || "loto-truot-10".equals(betType);
-    }
 
     /**
      * Kiểm tra kết quả cho 1 bet cụ thể (public method để frontend gọi)
@@ -936,44 +716,25 @@ public class BetService {
      * - Miền Trung/Nam: CHỈ khóa giờ nếu HÔM NAY là ngày quay của tỉnh đó
      *   + Miền Trung: 17:00 - 18:45
      *   + Miền Nam: 16:00 - 18:45
+     * Giờ khóa + lịch quay lấy từ Province (tính sẵn, không cấp phát gì mỗi request)
      */
     private void checkBettingTimeLimit(String region, String province) {
-        LocalTime now = LocalTime.now();
+        LocalDateTime now = LocalDateTime.now();
         
         if ("mienBac".equals(region)) {
-            // Miền Bắc: Khóa cố định từ 18:10 đến 18:45 (quay hàng ngày)
-            if (isInLockTimeRange(now, 18, 10, 18, 45)) {
-                throw new RuntimeException("Miền Bắc đang khóa cược từ 18:10 đến 18:45. Vui lòng đợi đến 18:45.");
+            Province.Area area = Province.Area.MIEN_BAC;
+            if (area.isInLockWindow(now.toLocalTime())) {
+                throw new RuntimeException(String.format("Miền Bắc đang khóa cược từ %s đến %s. Vui lòng đợi đến %s.",
+                        area.getLockStart(), area.getLockEnd(), area.getLockEnd()));
             }
         } else if ("mienTrungNam".equals(region) && province != null) {
-            // Miền Trung Nam: Kiểm tra ĐỘNG theo lịch tỉnh
-            
-            // 1. Check hôm nay có phải ngày quay của tỉnh này không?
-            boolean isTodayDrawDay = isProvinceDrawDay(province, LocalDate.now());
-            log.info("🔍 [DEBUG] Checking betting time lock for province: {}", province);
-            log.info("📅 [DEBUG] Is today draw day for {}: {}", province, isTodayDrawDay);
-            
-            if (!isTodayDrawDay) {
-                // Hôm nay không quay → KHÔNG khóa giờ
-                log.info("✅ [DEBUG] Province {} không quay hôm nay, cho phép đặt cược mọi giờ", province);
-                return;
-            }
-            
-            // 2. Hôm nay là ngày quay → Áp dụng khóa giờ
-            boolean isMienTrungProvince = isMienTrung(province);
-            LocalTime lockStart = isMienTrungProvince ? LocalTime.of(17, 0) : LocalTime.of(16, 0);
-            LocalTime lockEnd = LocalTime.of(18, 45);
-            
-            log.info("⏰ [DEBUG] Province {} is draw day today. Lock time: {} - {} (isMienTrung: {})", 
-                province, lockStart, lockEnd, isMienTrungProvince);
-            log.info("🕐 [DEBUG] Current time: {}, isInLockRange: {}", now, 
-                isInLockTimeRange(now, lockStart.getHour(), lockStart.getMinute(), lockEnd.getHour(), lockEnd.getMinute()));
-            
-            if (isInLockTimeRange(now, lockStart.getHour(), lockStart.getMinute(), lockEnd.getHour(), lockEnd.getMinute())) {
-                String regionName = isMienTrungProvince ? "Miền Trung" : "Miền Nam";
+            // Tỉnh không có lịch quay → không khóa giờ
+            Province resolved = Province.resolve(province);
+            if (resolved != null && resolved.isBettingLocked(now)) {
+                Province.Area area = resolved.getArea();
                 throw new RuntimeException(String.format(
-                    "%s (%s) đang khóa cược từ %s đến 18:45 (hôm nay là ngày quay). Vui lòng đợi đến 18:45.",
-                    regionName, province, lockStart
+                    "%s (%s) đang khóa cược từ %s đến %s (hôm nay là ngày quay). Vui lòng đợi đến %s.",
+                    area.getDisplayName(), province, area.getLockStart(), area.getLockEnd(), area.getLockEnd()
                 ));
             }
         }
@@ -984,173 +745,24 @@ public class BetService {
      * SAU GIỜ QUY ĐỊNH thì KHÔNG CHO HỦY các lệnh đã đặt trước đó
      * - Miền Bắc: Không cho hủy từ 18:10 trở đi
      * - Miền Trung: Không cho hủy từ 17:00 trở đi
-     * - Miền Nam: Không cho hủy từ 16:00 trở đi
+     * - Miền Nam: Không cho hủy từ 16:00 trở đi (kể cả tỉnh không có trong danh sách)
      */
     private void checkCancelTimeLimit(String region, String province) {
-        LocalTime now = LocalTime.now();
-        
+        Province.Area area;
         if ("mienBac".equals(region)) {
-            // Miền Bắc: Không cho hủy từ 18:10 trở đi (bao gồm cả 18:10)
-            if (!now.isBefore(LocalTime.of(18, 10))) {
-                throw new RuntimeException("Đã quá giờ cho phép hủy cược Miền Bắc (18:10). Vui lòng liên hệ admin nếu cần hỗ trợ.");
-            }
+            area = Province.Area.MIEN_BAC;
         } else if ("mienTrungNam".equals(region)) {
-            // Kiểm tra tỉnh để xác định Miền Trung hay Miền Nam
-            if (isMienTrung(province)) {
-                // Miền Trung: Không cho hủy từ 17:00 trở đi (bao gồm cả 17:00)
-                if (!now.isBefore(LocalTime.of(17, 0))) {
-                    throw new RuntimeException("Đã quá giờ cho phép hủy cược Miền Trung (17:00). Vui lòng liên hệ admin nếu cần hỗ trợ.");
-                }
-            } else {
-                // Miền Nam: Không cho hủy từ 16:00 trở đi (bao gồm cả 16:00)
-                if (!now.isBefore(LocalTime.of(16, 0))) {
-                    throw new RuntimeException("Đã quá giờ cho phép hủy cược Miền Nam (16:00). Vui lòng liên hệ admin nếu cần hỗ trợ.");
-                }
-            }
+            Province resolved = Province.resolve(province);
+            area = resolved != null ? resolved.getArea() : Province.Area.MIEN_NAM;
+        } else {
+            return;
         }
-    }
-    
-    /**
-     * Kiểm tra xem thời gian hiện tại có nằm trong khoảng khóa cược không
-     */
-    private boolean isInLockTimeRange(LocalTime now, int startHour, int startMinute, int endHour, int endMinute) {
-        LocalTime startTime = LocalTime.of(startHour, startMinute);
-        LocalTime endTime = LocalTime.of(endHour, endMinute);
         
-        // Nếu khoảng thời gian không vượt qua nửa đêm (VD: 18:10 - 18:45)
-        if (startTime.isBefore(endTime)) {
-            // Khóa từ startTime đến endTime (bao gồm cả startTime, không bao gồm endTime)
-            return !now.isBefore(startTime) && now.isBefore(endTime);
-        } 
-        // Nếu khoảng thời gian vượt qua nửa đêm (VD: 23:30 - 00:30) - trường hợp này không áp dụng
-        else {
-            return !now.isBefore(startTime) || !now.isAfter(endTime);
-        }
-    }
-    
-    /**
-     * Kiểm tra xem tỉnh có thuộc Miền Trung không
-     * Dựa trên danh sách đầy đủ 31 tỉnh
-     */
-    private boolean isMienTrung(String province) {
-        if (province == null) {
-            return false;
+        if (area.isCancelClosed(LocalTime.now())) {
+            throw new RuntimeException(String.format(
+                "Đã quá giờ cho phép hủy cược %s (%s). Vui lòng liên hệ admin nếu cần hỗ trợ.",
+                area.getDisplayName(), area.getCancelCutoff()));
         }
-        
-        List<String> mienTrungProvinces = Arrays.asList(
-            "phuyen", "thuathienhue", "daklak", "quangnam", "danang",
-            "khanhhoa", "binhdinh", "quangbinh", "quangtri",
-            "gialai", "ninhthuan", "daknong", "quangngai", "kontum"
-        );
-        
-        return mienTrungProvinces.contains(province.toLowerCase());
-    }
-    
-    /**
-     * Kiểm tra ngày cụ thể có phải ngày quay của tỉnh không
-     * @param province Tên tỉnh (backend format: lowercase)
-     * @param date Ngày cần check
-     * @return true nếu ngày đó tỉnh có quay
-     */
-    private boolean isProvinceDrawDay(String province, LocalDate date) {
-        if (province == null) {
-            return false;
-        }
-        
-        java.time.DayOfWeek dayOfWeek = date.getDayOfWeek();
-        List<String> provincesThatDay = getProvincesForDayOfWeek(dayOfWeek);
-        
-        return provincesThatDay.contains(province.toLowerCase());
-    }
-    
-    /**
-     * Tìm ngày quay TIẾP THEO của tỉnh (từ ngày chỉ định)
-     * @param province Tên tỉnh
-     * @param fromDate Ngày bắt đầu tìm
-     * @return Ngày quay tiếp theo
-     */
-    private LocalDate getNextProvinceDrawDate(String province, LocalDate fromDate) {
-        if (province == null) {
-            return fromDate.plusDays(1);
-        }
-        
-        log.info("🔍 [DEBUG] Finding next draw date for province: {} from date: {}", province, fromDate);
-        
-        // Tìm tất cả các ngày trong tuần mà tỉnh này quay
-        List<java.time.DayOfWeek> drawDays = new ArrayList<>();
-        for (java.time.DayOfWeek day : java.time.DayOfWeek.values()) {
-            List<String> provinces = getProvincesForDayOfWeek(day);
-            if (provinces.contains(province.toLowerCase())) {
-                drawDays.add(day);
-                log.info("📅 [DEBUG] Province {} draws on: {}", province, day);
-            }
-        }
-        
-        if (drawDays.isEmpty()) {
-            // Nếu không tìm thấy lịch, mặc định là ngày mai
-            log.warn("⚠️ Không tìm thấy lịch quay cho province: {}", province);
-            return fromDate.plusDays(1);
-        }
-        
-        // Tìm ngày quay gần nhất trong tương lai (từ ngày mai trở đi)
-        LocalDate currentDate = fromDate.plusDays(1);
-        for (int i = 0; i < 7; i++) {
-            log.info("🔍 [DEBUG] Checking date: {} (day: {})", currentDate, currentDate.getDayOfWeek());
-            if (drawDays.contains(currentDate.getDayOfWeek())) {
-                log.info("✅ [DEBUG] Found next draw date for {}: {}", province, currentDate);
-                return currentDate;
-            }
-            currentDate = currentDate.plusDays(1);
-        }
-        
-        // Fallback: nếu không tìm được trong 7 ngày thì trả về 7 ngày sau
-        log.warn("⚠️ Không tìm được ngày quay trong 7 ngày tới cho province: {}", province);
-        return fromDate.plusDays(7);
-    }
-    
-    /**
-     * Lấy danh sách tỉnh quay theo ngày trong tuần
-     * GIỐNG HỆT LotteryResultAutoImportService để đồng bộ
-     */
-    private List<String> getProvincesForDayOfWeek(java.time.DayOfWeek dayOfWeek) {
-        Map<DayOfWeek, List<String>> schedule = new java.util.HashMap<>();
-        
-        // Thứ 2
-        schedule.put(java.time.DayOfWeek.MONDAY, Arrays.asList(
-            "phuyen", "thuathienhue", "camau", "dongthap", "hcm"
-        ));
-        
-        // Thứ 3
-        schedule.put(java.time.DayOfWeek.TUESDAY, Arrays.asList(
-            "daklak", "quangnam", "baclieu", "bentre", "vungtau"
-        ));
-        
-        // Thứ 4
-        schedule.put(java.time.DayOfWeek.WEDNESDAY, Arrays.asList(
-            "danang", "khanhhoa", "cantho", "dongnai", "soctrang"
-        ));
-        
-        // Thứ 5
-        schedule.put(java.time.DayOfWeek.THURSDAY, Arrays.asList(
-            "binhdinh", "quangbinh", "quangtri", "angiang", "binhthuan", "tayninh"
-        ));
-        
-        // Thứ 6
-        schedule.put(java.time.DayOfWeek.FRIDAY, Arrays.asList(
-            "gialai", "ninhthuan", "binhduong", "travinh", "vinhlong"
-        ));
-        
-        // Thứ 7
-        schedule.put(java.time.DayOfWeek.SATURDAY, Arrays.asList(
-            "danang", "daknong", "quangngai", "binhphuoc", "haugiang", "hcm", "longan"
-        ));
-        
-        // Chủ Nhật
-        schedule.put(java.time.DayOfWeek.SUNDAY, Arrays.asList(
-            "khanhhoa", "kontum", "thuathienhue", "dalat", "kiengiang", "tiengiang"
-        ));
-        
-        return schedule.getOrDefault(dayOfWeek, new ArrayList<>());
     }
     
     // ======================== ADMIN METHODS ========================
@@ -1165,50 +777,65 @@ public class BetService {
         
         if (searchTerm != null && !searchTerm.trim().isEmpty()) {
             // Tìm kiếm theo username hoặc betId
-            return betRepository.searchBets(searchTerm.trim(), pageable)
-                    .map(BetResponse::fromEntity);
-        }
-        
-        Bet.BetStatus betStatus = null;
-        if (status != null && !status.trim().isEmpty()) {
-            try {
-                betStatus = Bet.BetStatus.valueOf(status.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid status: {}", status);
+            String term = searchTerm.trim();
+            if (!adminSearchIndex.isReady()) {
+                return betRepository.searchBets(term, pageable)
+                        .map(BetResponse::fromView);
+            }
+
+            // username chứa term → tập user id từ chỉ mục; betId khớp chính xác
+            List<Long> userIds = adminSearchIndex.searchUsernames(term);
+            Long betId = term.matches("\\d{1,18}") ? Long.valueOf(term) : null;
+            if (userIds.isEmpty() && betId == null) {
+                return Page.empty(pageable);
             }
+            return betRepository.searchBetsByIdOrUsers(
+                    betId, userIds.isEmpty() ? List.of(-1L) : userIds, pageable)
+                    .map(BetResponse::fromView);
         }
         
+        Bet.BetStatus betStatus = parseBetStatus(status);
+        
         return betRepository.findAllBetsWithFilters(
                 betStatus, 
                 betType, 
                 region, 
                 userId, 
                 pageable)
-                .map(BetResponse::fromEntity);
+                .map(BetResponse::fromView);
+    }
+
+    /**
+     * Admin: Lấy bet với filter theo cursor (infinite scroll, không COUNT)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BetResponse> getAllBetsForAdminByCursor(
+            String status, String betType, String region, Long userId, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<BetView> bets = betRepository.findAllBetsWithFiltersBefore(
+                parseBetStatus(status), betType, region, userId,
+                position.createdAt(), position.id(), PageCursor.limit(size));
+        return CursorPage.of(bets, size, BetView::getCreatedAt, BetView::getId, BetResponse::fromView);
+    }
+
+    private Bet.BetStatus parseBetStatus(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Bet.BetStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid status: {}", status);
+            return null;
+        }
     }
     
     /**
      * Admin: Lấy thống kê bet
      */
-    @Transactional(readOnly = true)
     public java.util.Map<String, Object> getBetStatisticsForAdmin() {
-        long totalBets = betRepository.countAllBets();
-        long pendingBets = betRepository.countByStatus(Bet.BetStatus.PENDING);
-        long wonBets = betRepository.countByStatus(Bet.BetStatus.WON);
-        long lostBets = betRepository.countByStatus(Bet.BetStatus.LOST);
-        double totalBetAmount = betRepository.getTotalBetAmount();
-        double totalWinAmount = betRepository.getTotalWinAmount();
-        
-        java.util.Map<String, Object> stats = new java.util.HashMap<>();
-        stats.put("totalBets", totalBets);
-        stats.put("pendingBets", pendingBets);
-        stats.put("wonBets", wonBets);
-        stats.put("lostBets", lostBets);
-        stats.put("totalBetAmount", totalBetAmount);
-        stats.put("totalWinAmount", totalWinAmount);
-        stats.put("netProfit", totalBetAmount - totalWinAmount); // Lợi nhuận của hệ thống
-        
-        return stats;
+        // Đọc từ bộ đếm trong bộ nhớ (DashboardCounters), không COUNT / SUM bảng bets
+        return dashboardCounters.getBetStatistics();
     }
     
     
@@ -1216,7 +843,6 @@ public class BetService {
      * Tính tiền thắng cho bet
      */
     private BigDecimal calculateWinAmount(Bet bet, List<String> winningNumbers) {
-        List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
         BigDecimal totalBetPoints = bet.getBetAmount();
         
         if (winningNumbers == null || winningNumbers.isEmpty()) {
@@ -1247,13 +873,16 @@ public class BetService {
         if (newSelectedNumbers == null || newSelectedNumbers.isEmpty()) {
             throw new RuntimeException("Danh sách số đã chọn không được trống");
         }
+        betTypeRegistry.validateSelection(betTypeRegistry.resolve(bet.getBetType()), bet.getRegion(), newSelectedNumbers);
         
-        // Cập nhật số đã chọn
-        String oldSelectedNumbers = bet.getSelectedNumbers();
-        bet.setSelectedNumbers(convertToJsonString(newSelectedNumbers));
+        // Cập nhật số đã chọn (exposure: trừ số cũ, cộng số mới)
+        List<String> oldSelectedNumbers = bet.getSelectedNumbers();
+        exposureTracker.release(bet);
+        bet.setSelectedNumbers(List.copyOf(newSelectedNumbers));
+        exposureTracker.add(bet);
         
         log.info("Admin updating bet {} selected numbers from {} to {}", 
-                betId, oldSelectedNumbers, convertToJsonString(newSelectedNumbers));
+                betId, oldSelectedNumbers, newSelectedNumbers);
         
         // Lưu bet
         bet = betRepository.save(bet);
@@ -1288,6 +917,9 @@ public class BetService {
         
         // Xóa bet
         betRepository.delete(bet);
+        userBetStatsRollup.recordRemoved(user.getId(), bet.getTotalAmount(), Boolean.TRUE.equals(bet.getIsWin()), bet.getWinAmount());
+        dashboardCounters.pendingBetDeleted(bet.getTotalAmount());
+        exposureTracker.release(bet);
         log.info("Bet {} deleted and refunded {} points to user {}", betId, refundAmount, user.getId());
     }
     
@@ -1303,88 +935,10 @@ public class BetService {
     
     /**
      * Normalize province name để đồng bộ với format kết quả
-     * Chuyển từ "xổsốninhthuận" thành "ninhthuan"
-     * Đảm bảo tất cả tỉnh miền Trung Nam được chuẩn hóa đúng
+     * Chuyển từ "xổsốninhthuận" thành "ninhthuan" - xem Province.normalize
      */
-    private String normalizeProvinceName(String province) {
-        if (province == null) {
-            return null;
-        }
-        
-        // Remove "xổsố" prefix and normalize
-        String normalized = province.toLowerCase()
-                .replace("xổsố", "")
-                .replace("xổ số", "")
-                .replace(" ", "")
-                .replace("á", "a")
-                .replace("à", "a")
-                .replace("ả", "a")
-                .replace("ã", "a")
-                .replace("ạ", "a")
-                .replace("ă", "a")
-                .replace("ắ", "a")
-                .replace("ằ", "a")
-                .replace("ẳ", "a")
-                .replace("ẵ", "a")
-                .replace("ặ", "a")
-                .replace("â", "a")
-                .replace("ấ", "a")
-                .replace("ầ", "a")
-                .replace("ẩ", "a")
-                .replace("ẫ", "a")
-                .replace("ậ", "a")
-                .replace("é", "e")
-                .replace("è", "e")
-                .replace("ẻ", "e")
-                .replace("ẽ", "e")
-                .replace("ẹ", "e")
-                .replace("ê", "e")
-                .replace("ế", "e")
-                .replace("ề", "e")
-                .replace("ể", "e")
-                .replace("ễ", "e")
-                .replace("ệ", "e")
-                .replace("í", "i")
-                .replace("ì", "i")
-                .replace("ỉ", "i")
-                .replace("ĩ", "i")
-                .replace("ị", "i")
-                .replace("ó", "o")
-                .replace("ò", "o")
-                .replace("ỏ", "o")
-                .replace("õ", "o")
-                .replace("ọ", "o")
-                .replace("ô", "o")
-                .replace("ố", "o")
-                .replace("ồ", "o")
-                .replace("ổ", "o")
-                .replace("ỗ", "o")
-                .replace("ộ", "o")
-                .replace("ơ", "o")
-                .replace("ớ", "o")
-                .replace("ờ", "o")
-                .replace("ở", "o")
-                .replace("ỡ", "o")
-                .replace("ợ", "o")
-                .replace("ú", "u")
-                .replace("ù", "u")
-                .replace("ủ", "u")
-                .replace("ũ", "u")
-                .replace("ụ", "u")
-                .replace("ư", "u")
-                .replace("ứ", "u")
-                .replace("ừ", "u")
-                .replace("ử", "u")
-                .replace("ữ", "u")
-                .replace("ự", "u")
-                .replace("ý", "y")
-                .replace("ỳ", "y")
-                .replace("ỷ", "y")
-                .replace("ỹ", "y")
-                .replace("ỵ", "y")
-                .replace("đ", "d");
-        
-        return normalized;
+    public String normalizeProvinceName(String province) {
+        return Province.normalize(province);
     }
 }
 
@@ -18,6 +18,7 @@ import java.util.stream.Collectors;
 public class BettingOddsService {
 
     private final BettingOddsRepository bettingOddsRepository;
+    private final BettingOddsSnapshot bettingOddsSnapshot;
 
     /**
      * Lấy tất cả tỷ lệ cược
@@ -87,6 +88,7 @@ public class BettingOddsService {
 
         BettingOdds savedBettingOdds = bettingOddsRepository.save(bettingOdds);
         log.info("Successfully created betting odds with ID: {}", savedBettingOdds.getId());
+        bettingOddsSnapshot.reloadAfterCommit();
         
         return BettingOddsResponse.fromEntity(savedBettingOdds);
     }
@@ -113,6 +115,7 @@ public class BettingOddsService {
 
         BettingOdds updatedBettingOdds = bettingOddsRepository.save(bettingOdds);
         log.info("Successfully updated betting odds with ID: {}", id);
+        bettingOddsSnapshot.reloadAfterCommit();
         
         return BettingOddsResponse.fromEntity(updatedBettingOdds);
     }
@@ -147,6 +150,7 @@ public class BettingOddsService {
 
         List<BettingOdds> savedOdds = bettingOddsRepository.saveAll(updatedOdds);
         log.info("Successfully batch updated {} betting odds", savedOdds.size());
+        bettingOddsSnapshot.reloadAfterCommit();
         
         return savedOdds.stream()
                 .map(BettingOddsResponse::fromEntity)
@@ -165,6 +169,7 @@ public class BettingOddsService {
         
         bettingOddsRepository.delete(bettingOdds);
         log.info("Successfully deleted betting odds with ID: {}", id);
+        bettingOddsSnapshot.reloadAfterCommit();
     }
 
     /**
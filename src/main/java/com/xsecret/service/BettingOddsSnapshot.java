@@ -0,0 +1,165 @@
+package com.xsecret.service;
+
+import com.xsecret.dto.response.BettingOddsResponse;
+import com.xsecret.entity.BettingOdds;
+import com.xsecret.repository.BettingOddsRepository;
+import com.xsecret.service.bet.BetType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bản chụp (snapshot) bảng tỷ lệ cược trong bộ nhớ, không truy cập DB khi đọc
+ * - Đặt cược lấy tỷ lệ + đơn giá theo (miền, loại cược chuẩn BetType) từ đây thay vì tin giá trị client gửi lên
+ * - PublicBettingOddsController trả danh sách từ đây kèm ETag (hash nội dung, giống nhau giữa các instance)
+ * - Nạp khi khởi động; BettingOddsService thay bản chụp mới (1 phép gán) sau khi create/update/delete commit
+ * - Nạp lại định kỳ (app.odds.refresh-interval-ms): instance khác sửa tỷ lệ → instance này cập nhật chậm nhất
+ *   sau 1 chu kỳ (bảng chỉ vài chục dòng)
+ */
+@Component
+@Slf4j
+public class BettingOddsSnapshot {
+
+    private final BettingOddsRepository bettingOddsRepository;
+
+    private volatile Snapshot current;
+
+    public BettingOddsSnapshot(BettingOddsRepository bettingOddsRepository) {
+        this.bettingOddsRepository = bettingOddsRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Nạp lại định kỳ, nhận thay đổi tỷ lệ từ instance khác
+     */
+    @Scheduled(fixedDelayString = "${app.odds.refresh-interval-ms:30000}",
+            initialDelayString = "${app.odds.refresh-interval-ms:30000}")
+    public void refresh() {
+        reload();
+    }
+
+    /**
+     * Bản chụp hiện tại (nạp ngay nếu request tới trước khi khởi động xong)
+     */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Tỷ lệ + đơn giá đang active cho miền của bet (mienBac / mienTrungNam) và loại cược
+     */
+    public Optional<OddsQuote> findActive(String betRegion, BetType betType) {
+        return Optional.ofNullable(current().active().get(new OddsKey(toOddsRegion(betRegion), betType)));
+    }
+
+    /**
+     * Nạp lại sau khi transaction hiện tại commit (không có transaction → nạp ngay)
+     */
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    /**
+     * Đọc lại toàn bộ bảng betting_odds và thay bản chụp
+     * synchronized: lần nạp bắt đầu sau luôn đọc dữ liệu mới hơn và ghi đè sau cùng
+     */
+    public synchronized Snapshot reload() {
+        List<BettingOdds> rows = new ArrayList<>(bettingOddsRepository.findAll());
+        rows.sort(Comparator.comparing(BettingOdds::getId));
+
+        List<BettingOddsResponse> all = new ArrayList<>(rows.size());
+        Map<String, List<BettingOddsResponse>> activeByRegion = new HashMap<>();
+        Map<OddsKey, OddsQuote> active = new HashMap<>();
+        StringBuilder content = new StringBuilder();
+
+        for (BettingOdds row : rows) {
+            BettingOddsResponse response = BettingOddsResponse.fromEntity(row);
+            all.add(response);
+            content.append(response).append('\n');
+
+            if (!Boolean.TRUE.equals(row.getIsActive())) {
+                continue;
+            }
+            activeByRegion.computeIfAbsent(row.getRegion(), region -> new ArrayList<>()).add(response);
+
+            BetType betType = BetType.fromCode(row.getBetType());
+            if (betType != null && row.getOdds() != null && row.getPricePerPoint() != null) {
+                active.put(new OddsKey(row.getRegion(), betType),
+                        new OddsQuote(BigDecimal.valueOf(row.getOdds()), BigDecimal.valueOf(row.getPricePerPoint())));
+            }
+        }
+
+        activeByRegion.replaceAll((region, list) -> List.copyOf(list));
+        Snapshot snapshot = new Snapshot(List.copyOf(all), Map.copyOf(activeByRegion), Map.copyOf(active),
+                etagOf(content.toString()));
+        Snapshot previous = current;
+        current = snapshot;
+        if (previous != null && previous.etag().equals(snapshot.etag())) {
+            return snapshot;
+        }
+        log.info("🎲 Betting odds snapshot loaded: {} rows, {} active quotes, etag {}",
+                all.size(), active.size(), snapshot.etag());
+        return snapshot;
+    }
+
+    /**
+     * Miền của bet (mienBac / mienTrungNam) → miền trong bảng betting_odds (MIEN_BAC / MIEN_TRUNG_NAM)
+     */
+    private static String toOddsRegion(String betRegion) {
+        if (BetType.MIEN_BAC.equals(betRegion)) {
+            return BettingOdds.REGION_MIEN_BAC;
+        }
+        if (BetType.MIEN_TRUNG_NAM.equals(betRegion)) {
+            return BettingOdds.REGION_MIEN_TRUNG_NAM;
+        }
+        return betRegion;
+    }
+
+    private static String etagOf(String content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Bản chụp bất biến
+     * all: toàn bộ tỷ lệ (theo id), activeByRegion: tỷ lệ active theo miền của bảng, active: tra cứu khi đặt cược
+     */
+    public record Snapshot(List<BettingOddsResponse> all,
+                           Map<String, List<BettingOddsResponse>> activeByRegion,
+                           Map<OddsKey, OddsQuote> active,
+                           String etag) {
+
+        public List<BettingOddsResponse> activeByRegion(String region) {
+            return activeByRegion.getOrDefault(region, List.of());
+        }
+    }
+
+    public record OddsKey(String region, BetType betType) {
+    }
+
+    public record OddsQuote(BigDecimal odds, BigDecimal pricePerPoint) {
+    }
+}
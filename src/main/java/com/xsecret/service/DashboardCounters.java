@@ -0,0 +1,428 @@
+package com.xsecret.service;
+
+import com.xsecret.entity.Bet;
+import com.xsecret.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bộ đếm cho dashboard admin, giữ trong bộ nhớ → đọc O(1), không COUNT / SUM toàn bảng mỗi lần mở dashboard
+ * - Bet: tổng số, số theo status, tổng tiền cược, tổng tiền thắng (tiền lưu theo đơn vị 1/100 điểm)
+ * - User: số theo (role, status), số đăng ký theo ngày (30 ngày gần nhất), tổng điểm
+ * - Cộng / trừ sau khi transaction đặt cược / settlement / hủy / đăng ký / đổi trạng thái commit (rollback → không đổi)
+ * - Tổng điểm thay đổi ở quá nhiều nơi → tính lại mỗi lần snapshot (1 câu SUM), không cộng dồn
+ * - Snapshot vào bảng dashboard_counters định kỳ và khi tắt ứng dụng; khởi động lại sau khi tắt bình thường
+ *   thì nạp snapshot, ngược lại (crash, lần đầu) đếm lại từ DB
+ * - recount(): đếm lại từ bảng bets / users hằng đêm, tự sửa lệch
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounters {
+
+    private static final String BETS_TOTAL = "bets.total";
+    private static final String BETS_STATUS = "bets.status.";
+    private static final String BETS_AMOUNT = "bets.amount";
+    private static final String BETS_WIN_AMOUNT = "bets.win_amount";
+    private static final String USERS = "users.";
+    private static final String USERS_REGISTERED = "users.registered.";
+    private static final String USERS_POINTS = "users.points";
+    private static final String SNAPSHOT_CLEAN = "snapshot.clean";
+
+    private static final int REGISTRATION_DAYS = 30;
+
+    // Cùng định nghĩa với các query countAllBets / countByStatus / getTotalBetAmount / getTotalWinAmount cũ
+    private static final String BET_AGGREGATE_SQL =
+            "SELECT status, COUNT(*) AS bets, COALESCE(SUM(total_amount), 0) AS bet_amount, " +
+            "COALESCE(SUM(CASE WHEN is_win = TRUE THEN win_amount ELSE 0 END), 0) AS win_amount " +
+            "FROM bets GROUP BY status";
+
+    private static final String USER_AGGREGATE_SQL =
+            "SELECT role, status, COUNT(*) AS users FROM users GROUP BY role, status";
+
+    private static final String REGISTRATION_SQL =
+            "SELECT DATE(created_at) AS day, COUNT(*) AS users FROM users WHERE created_at >= ? GROUP BY DATE(created_at)";
+
+    private static final String POINTS_SQL = "SELECT COALESCE(SUM(points), 0) FROM users";
+
+    private static final String UPSERT_SNAPSHOT_SQL =
+            "INSERT INTO dashboard_counters (counter_name, counter_value, updated_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE counter_value = VALUES(counter_value), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // Đang đếm lại: thay đổi commit trong lúc query chạy được ghi thêm vào deltasDuringRecount
+    // rồi cộng vào kết quả đếm lại (read lock khi cộng, write lock khi bắt đầu / thay kết quả)
+    private final ReentrantReadWriteLock recountLock = new ReentrantReadWriteLock();
+    private Map<String, LongAdder> deltasDuringRecount;
+
+    // ================ GHI NHẬN THAY ĐỔI ================
+
+    /**
+     * Bet mới đặt (PENDING)
+     */
+    public void betsPlaced(int count, BigDecimal totalAmount) {
+        if (count == 0) {
+            return;
+        }
+        long amount = toHundredths(totalAmount);
+        AfterCommit.run(() -> {
+            add(BETS_TOTAL, count);
+            add(BETS_STATUS + Bet.BetStatus.PENDING, count);
+            add(BETS_AMOUNT, amount);
+        });
+    }
+
+    /**
+     * Bet PENDING có kết quả
+     */
+    public void betsSettled(int won, int lost, BigDecimal winAmount) {
+        if (won + lost == 0) {
+            return;
+        }
+        long amount = toHundredths(winAmount);
+        AfterCommit.run(() -> {
+            add(BETS_STATUS + Bet.BetStatus.PENDING, -(won + lost));
+            add(BETS_STATUS + Bet.BetStatus.WON, won);
+            add(BETS_STATUS + Bet.BetStatus.LOST, lost);
+            add(BETS_WIN_AMOUNT, amount);
+        });
+    }
+
+    /**
+     * Bet PENDING bị hủy (user hủy / hết hạn)
+     */
+    public void betsCancelled(int count) {
+        if (count == 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            add(BETS_STATUS + Bet.BetStatus.PENDING, -count);
+            add(BETS_STATUS + Bet.BetStatus.CANCELLED, count);
+        });
+    }
+
+    /**
+     * Admin xóa bet PENDING
+     */
+    public void pendingBetDeleted(BigDecimal totalAmount) {
+        long amount = toHundredths(totalAmount);
+        AfterCommit.run(() -> {
+            add(BETS_TOTAL, -1);
+            add(BETS_STATUS + Bet.BetStatus.PENDING, -1);
+            add(BETS_AMOUNT, -amount);
+        });
+    }
+
+    /**
+     * User mới (đăng ký / admin tạo)
+     */
+    public void userCreated(User.Role role, User.UserStatus status) {
+        LocalDate today = LocalDate.now();
+        AfterCommit.run(() -> {
+            add(userKey(role, status), 1);
+            add(USERS_REGISTERED + today, 1);
+        });
+    }
+
+    /**
+     * User đổi vai trò / trạng thái
+     */
+    public void userChanged(User.Role oldRole, User.UserStatus oldStatus, User.Role newRole, User.UserStatus newStatus) {
+        if (oldRole == newRole && oldStatus == newStatus) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            add(userKey(oldRole, oldStatus), -1);
+            add(userKey(newRole, newStatus), 1);
+        });
+    }
+
+    // ================ ĐỌC ================
+
+    /**
+     * Thống kê bet cho admin (cùng các key với getBetStatisticsForAdmin cũ)
+     */
+    public Map<String, Object> getBetStatistics() {
+        double totalBetAmount = get(BETS_AMOUNT) / 100.0;
+        double totalWinAmount = get(BETS_WIN_AMOUNT) / 100.0;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalBets", get(BETS_TOTAL));
+        stats.put("pendingBets", get(BETS_STATUS + Bet.BetStatus.PENDING));
+        stats.put("wonBets", get(BETS_STATUS + Bet.BetStatus.WON));
+        stats.put("lostBets", get(BETS_STATUS + Bet.BetStatus.LOST));
+        stats.put("totalBetAmount", totalBetAmount);
+        stats.put("totalWinAmount", totalWinAmount);
+        stats.put("netProfit", totalBetAmount - totalWinAmount); // Lợi nhuận của hệ thống
+        return stats;
+    }
+
+    public long countUsers(User.Role role, User.UserStatus status) {
+        return get(userKey(role, status));
+    }
+
+    public long countUsersByRole(User.Role role) {
+        long total = 0;
+        for (User.UserStatus status : User.UserStatus.values()) {
+            total += get(userKey(role, status));
+        }
+        return total;
+    }
+
+    public long countUsersByStatus(User.UserStatus status) {
+        long total = 0;
+        for (User.Role role : User.Role.values()) {
+            total += get(userKey(role, status));
+        }
+        return total;
+    }
+
+    /**
+     * Số user đăng ký trong 30 ngày gần nhất (tính theo ngày, kể cả hôm nay)
+     */
+    public long countNewUsersLast30Days() {
+        LocalDate today = LocalDate.now();
+        long total = 0;
+        for (int i = 0; i < REGISTRATION_DAYS; i++) {
+            total += get(USERS_REGISTERED + today.minusDays(i));
+        }
+        return total;
+    }
+
+    /**
+     * Tổng điểm của tất cả user tại lần snapshot / đếm lại gần nhất
+     */
+    public long getTotalPoints() {
+        return get(USERS_POINTS);
+    }
+
+    // ================ KHỞI ĐỘNG / SNAPSHOT / ĐẾM LẠI ================
+
+    /**
+     * Khởi động: nạp snapshot nếu lần trước tắt bình thường, ngược lại đếm lại từ DB
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<String, Long> snapshot = new HashMap<>();
+        jdbcTemplate.query("SELECT counter_name, counter_value FROM dashboard_counters", rs -> {
+            snapshot.put(rs.getString("counter_name"), rs.getLong("counter_value"));
+        });
+
+        if (snapshot.getOrDefault(SNAPSHOT_CLEAN, 0L) != 1L) {
+            log.info("📊 No clean dashboard counter snapshot, recounting from database");
+            recount();
+            return;
+        }
+
+        // Snapshot chỉ dùng được 1 lần: crash sau thời điểm này thì lần khởi động sau phải đếm lại
+        jdbcTemplate.update(UPSERT_SNAPSHOT_SQL, SNAPSHOT_CLEAN, 0, Timestamp.valueOf(LocalDateTime.now()));
+        snapshot.remove(SNAPSHOT_CLEAN);
+        recountLock.writeLock().lock();
+        try {
+            // Bộ đếm bắt đầu từ 0: giá trị hiện có là thay đổi đã commit từ lúc nhận request tới giờ
+            counters.forEach((key, value) -> snapshot.merge(key, value.sum(), Long::sum));
+            replace(snapshot);
+        } finally {
+            recountLock.writeLock().unlock();
+        }
+        log.info("📊 Dashboard counters loaded from snapshot ({} counters)", snapshot.size());
+    }
+
+    /**
+     * Ghi snapshot các bộ đếm, đồng thời tính lại tổng điểm user
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.dashboard.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        set(USERS_POINTS, queryTotalPoints());
+        writeSnapshot(false);
+    }
+
+    /**
+     * Tắt ứng dụng: ghi snapshot cuối cùng, đánh dấu tắt bình thường
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void snapshotOnShutdown() {
+        try {
+            writeSnapshot(true);
+            log.info("📊 Dashboard counters snapshot written on shutdown");
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to write dashboard counters snapshot on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Đếm lại toàn bộ từ bảng bets / users, thay bộ đếm trong bộ nhớ
+     * Thay đổi commit trong lúc đếm được cộng thêm; thay đổi commit ngay trước khi đếm có thể bị tính 2 lần,
+     * lần đếm lại sau sẽ sửa (chạy lúc ít giao dịch)
+     * @return số bộ đếm bị lệch
+     */
+    @Scheduled(cron = "${app.dashboard.recount-cron:0 0 4 * * ?}", zone = "Asia/Ho_Chi_Minh")
+    public int recount() {
+        long start = System.currentTimeMillis();
+        recountLock.writeLock().lock();
+        try {
+            deltasDuringRecount = new ConcurrentHashMap<>();
+        } finally {
+            recountLock.writeLock().unlock();
+        }
+
+        Map<String, Long> counted = new HashMap<>();
+        try {
+            countBets(counted);
+            countUsers(counted);
+            counted.put(USERS_POINTS, queryTotalPoints());
+        } catch (RuntimeException e) {
+            recountLock.writeLock().lock();
+            try {
+                deltasDuringRecount = null;
+            } finally {
+                recountLock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int drifted;
+        recountLock.writeLock().lock();
+        try {
+            deltasDuringRecount.forEach((key, delta) -> counted.merge(key, delta.sum(), Long::sum));
+            deltasDuringRecount = null;
+            drifted = countDrift(counted);
+            replace(counted);
+        } finally {
+            recountLock.writeLock().unlock();
+        }
+
+        if (drifted > 0) {
+            log.warn("⚠️ Dashboard counters recounted, {} counters had drifted ({} ms)",
+                    drifted, System.currentTimeMillis() - start);
+        } else {
+            log.info("✅ Dashboard counters recounted in {} ms", System.currentTimeMillis() - start);
+        }
+        writeSnapshot(false);
+        return drifted;
+    }
+
+    private void countBets(Map<String, Long> counted) {
+        long[] totals = new long[3];
+        for (Bet.BetStatus status : Bet.BetStatus.values()) {
+            counted.put(BETS_STATUS + status, 0L);
+        }
+        jdbcTemplate.query(BET_AGGREGATE_SQL, rs -> {
+            long bets = rs.getLong("bets");
+            counted.put(BETS_STATUS + rs.getString("status"), bets);
+            totals[0] += bets;
+            totals[1] += toHundredths(rs.getBigDecimal("bet_amount"));
+            totals[2] += toHundredths(rs.getBigDecimal("win_amount"));
+        });
+        counted.put(BETS_TOTAL, totals[0]);
+        counted.put(BETS_AMOUNT, totals[1]);
+        counted.put(BETS_WIN_AMOUNT, totals[2]);
+    }
+
+    private void countUsers(Map<String, Long> counted) {
+        jdbcTemplate.query(USER_AGGREGATE_SQL, rs -> {
+            counted.put(USERS + rs.getString("role") + '.' + rs.getString("status"), rs.getLong("users"));
+        });
+        LocalDate from = LocalDate.now().minusDays(REGISTRATION_DAYS - 1);
+        jdbcTemplate.query(REGISTRATION_SQL, rs -> {
+            counted.put(USERS_REGISTERED + rs.getDate("day").toLocalDate(), rs.getLong("users"));
+        }, Date.valueOf(from));
+    }
+
+    private long queryTotalPoints() {
+        Long points = jdbcTemplate.queryForObject(POINTS_SQL, Long.class);
+        return points != null ? points : 0L;
+    }
+
+    private int countDrift(Map<String, Long> counted) {
+        int drifted = 0;
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            if (!entry.getKey().startsWith(USERS_REGISTERED) && !entry.getKey().equals(USERS_POINTS)
+                    && entry.getValue().sum() != counted.getOrDefault(entry.getKey(), 0L)) {
+                log.warn("⚠️ Dashboard counter {} drifted: {} → {}", entry.getKey(), entry.getValue().sum(),
+                        counted.getOrDefault(entry.getKey(), 0L));
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private void writeSnapshot(boolean clean) {
+        pruneRegistrations();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(counters.size() + 1);
+        counters.forEach((key, value) -> rows.add(new Object[] { key, value.sum(), timestamp }));
+        rows.add(new Object[] { SNAPSHOT_CLEAN, clean ? 1 : 0, timestamp });
+        jdbcTemplate.batchUpdate(UPSERT_SNAPSHOT_SQL, rows);
+        // Bộ đếm không còn trong bộ nhớ (ngày đăng ký đã quá 30 ngày)
+        jdbcTemplate.update("DELETE FROM dashboard_counters WHERE updated_at < ?", timestamp);
+    }
+
+    private void pruneRegistrations() {
+        String oldest = USERS_REGISTERED + LocalDate.now().minusDays(REGISTRATION_DAYS - 1);
+        // yyyy-MM-dd so sánh chuỗi đúng thứ tự ngày
+        counters.keySet().removeIf(key -> key.startsWith(USERS_REGISTERED) && key.compareTo(oldest) < 0);
+    }
+
+    private void replace(Map<String, Long> values) {
+        counters.keySet().retainAll(values.keySet());
+        values.forEach(this::set);
+    }
+
+    private void set(String key, long value) {
+        LongAdder adder = counters.computeIfAbsent(key, k -> new LongAdder());
+        adder.reset();
+        adder.add(value);
+    }
+
+    private long get(String key) {
+        LongAdder adder = counters.get(key);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    private void add(String key, long delta) {
+        recountLock.readLock().lock();
+        try {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            if (deltasDuringRecount != null) {
+                deltasDuringRecount.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            }
+        } finally {
+            recountLock.readLock().unlock();
+        }
+    }
+
+    private static String userKey(User.Role role, User.UserStatus status) {
+        return USERS + Objects.requireNonNull(role) + '.' + Objects.requireNonNull(status);
+    }
+
+    private static long toHundredths(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0L;
+    }
+}
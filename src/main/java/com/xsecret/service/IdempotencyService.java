@@ -0,0 +1,294 @@
+package com.xsecret.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xsecret.entity.IdempotencyRecord;
+import com.xsecret.exception.OutcomePendingException;
+import com.xsecret.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Xử lý header Idempotency-Key cho các request ghi (đặt cược, nạp, rút)
+ * - Bộ nhớ (fast path): key → kết quả của request đầu tiên, request trùng đang chạy đồng thời chờ kết quả đó
+ * - Bảng idempotency_keys (unique scope + owner + key): giữ chỗ trước khi xử lý, lưu response sau khi xong
+ *   → gửi lại sau khi restart / sang instance khác vẫn trả response cũ, không trừ / cộng điểm lần 2
+ * Chỉ lưu response 2xx: request lỗi không thay đổi số dư (transaction đã rollback) nên được phép gửi lại
+ * Chưa biết kết quả (OutcomePendingException): giữ key tới khi thao tác thật sự commit / lỗi
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String SCOPE_BET_PLACE = "bet.place";
+    public static final String SCOPE_BET_SLIP = "bet.slip";
+    public static final String SCOPE_DEPOSIT = "transaction.deposit";
+    public static final String SCOPE_WITHDRAW = "transaction.withdraw";
+    public static final String SCOPE_USER_WITHDRAW = "transaction.user-withdraw";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final long ttlMinutes;
+    private final long cacheTtlSeconds;
+    private final long waitTimeoutMs;
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${app.idempotency.cache-ttl-seconds:600}") long cacheTtlSeconds,
+                              @Value("${app.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = Math.max(1, ttlMinutes);
+        this.cacheTtlSeconds = Math.max(1, cacheTtlSeconds);
+        this.waitTimeoutMs = Math.max(1, waitTimeoutMs);
+    }
+
+    /**
+     * Chạy action đúng 1 lần cho mỗi (scope, owner, key); không có key → chạy bình thường
+     * @param request  request body, dùng để phát hiện cùng key nhưng khác nội dung
+     * @param bodyType kiểu body để đọc lại response đã lưu trong DB
+     */
+    public <T> ResponseEntity<T> execute(String scope, String owner, String key, Object request,
+                                         TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException(HEADER + " tối đa " + MAX_KEY_LENGTH + " ký tự");
+        }
+
+        String cacheKey = scope + ':' + owner + ':' + key;
+        String requestHash = fingerprint(request);
+        Entry entry = new Entry(requestHash, System.nanoTime() + TimeUnit.SECONDS.toNanos(cacheTtlSeconds));
+        while (true) {
+            Entry existing = cache.putIfAbsent(cacheKey, entry);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired()) {
+                return replay(existing, requestHash);
+            }
+            cache.remove(cacheKey, existing);
+        }
+
+        // Request đầu tiên trong instance này: giữ chỗ trong DB rồi mới xử lý
+        IdempotencyRecord record = null;
+        try {
+            ResponseEntity<T> stored = null;
+            record = claim(scope, owner, key, requestHash);
+            if (record == null) {
+                stored = loadCompleted(scope, owner, key, requestHash, bodyType);
+            }
+            if (stored != null) {
+                log.info("🔁 Replaying stored response for {} key {} ({})", scope, key, owner);
+                entry.result.complete(stored);
+                return stored;
+            }
+
+            ResponseEntity<T> response = action.get();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                complete(record, response);
+            } else {
+                release(record);
+                cache.remove(cacheKey, entry);
+            }
+            entry.result.complete(response);
+            return response;
+        } catch (OutcomePendingException e) {
+            // Chưa biết kết quả (VD lệnh cược còn trong hàng đợi): giữ key IN_PROGRESS, gửi lại bị từ chối
+            // tới khi thao tác có kết quả thật → lưu response / nhả key từ callback của thao tác
+            awaitOutcome(e, record, cacheKey, entry);
+            throw e;
+        } catch (RuntimeException e) {
+            if (record != null) {
+                release(record);
+            }
+            cache.remove(cacheKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Hoàn tất key khi thao tác có kết quả (chạy trên thread hoàn thành outcome, VD thread ghi của pipeline)
+     * Outcome không bao giờ hoàn thành → key giữ IN_PROGRESS tới khi hết hạn, không bao giờ xử lý 2 lần
+     */
+    private void awaitOutcome(OutcomePendingException pending, IdempotencyRecord record,
+                              String cacheKey, Entry entry) {
+        log.warn("⏳ Outcome pending for idempotency key {}, keeping it in progress", record.getId());
+        pending.getOutcome().whenComplete((result, error) -> {
+            if (error == null && result instanceof ResponseEntity<?> response
+                    && response.getStatusCode().is2xxSuccessful()) {
+                complete(record, response);
+                entry.result.complete(response);
+                log.info("✅ Pending outcome completed for idempotency key {}", record.getId());
+                return;
+            }
+            release(record);
+            cache.remove(cacheKey, entry);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            entry.result.completeExceptionally(cause != null ? cause : new RuntimeException("Yêu cầu thất bại, vui lòng thử lại"));
+        });
+    }
+
+    /**
+     * Xóa key hết hạn trong bộ nhớ và trong DB
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        cache.values().removeIf(Entry::isExpired);
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("🧹 Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Request trùng trong cùng instance: chờ request đầu tiên xong rồi trả cùng response
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry existing, String requestHash) {
+        if (!existing.requestHash.equals(requestHash)) {
+            throw new RuntimeException(HEADER + " đã được dùng cho một yêu cầu khác");
+        }
+        try {
+            return (ResponseEntity<T>) existing.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Yêu cầu thất bại, vui lòng thử lại", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Yêu cầu đang được xử lý, vui lòng thử lại sau");
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Yêu cầu đang được xử lý, vui lòng thử lại sau");
+        }
+    }
+
+    /**
+     * INSERT bản ghi IN_PROGRESS; đã có key (unique) → null
+     * Bản ghi cũ đã hết hạn → xóa và giữ chỗ lại
+     */
+    private IdempotencyRecord claim(String scope, String owner, String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .scope(scope)
+                .owner(owner)
+                .idempotencyKey(key)
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(ttlMinutes))
+                .build();
+        try {
+            return idempotencyRecordRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = idempotencyRecordRepository
+                    .findByScopeAndOwnerAndIdempotencyKey(scope, owner, key)
+                    .orElse(null);
+            if (existing == null || !existing.isExpired(now)) {
+                return null;
+            }
+            idempotencyRecordRepository.deleteRecord(existing.getId());
+            record.setId(null);
+            try {
+                return idempotencyRecordRepository.saveAndFlush(record);
+            } catch (DataIntegrityViolationException retry) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Key đã có trong DB (instance khác / trước khi restart): trả response đã lưu
+     */
+    private <T> ResponseEntity<T> loadCompleted(String scope, String owner, String key, String requestHash,
+                                                TypeReference<T> bodyType) {
+        IdempotencyRecord existing = idempotencyRecordRepository
+                .findByScopeAndOwnerAndIdempotencyKey(scope, owner, key)
+                .orElseThrow(() -> new RuntimeException("Yêu cầu đang được xử lý, vui lòng thử lại sau"));
+        if (!existing.getRequestHash().equals(requestHash)) {
+            throw new RuntimeException(HEADER + " đã được dùng cho một yêu cầu khác");
+        }
+        if (existing.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+            throw new RuntimeException("Yêu cầu đang được xử lý, vui lòng thử lại sau");
+        }
+        try {
+            T body = existing.getResponseBody() != null
+                    ? objectMapper.readValue(existing.getResponseBody(), bodyType) : null;
+            return ResponseEntity.status(existing.getHttpStatus()).body(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Không đọc được kết quả đã lưu của yêu cầu", e);
+        }
+    }
+
+    private void complete(IdempotencyRecord record, ResponseEntity<?> response) {
+        try {
+            String body = response.getBody() != null ? objectMapper.writeValueAsString(response.getBody()) : null;
+            idempotencyRecordRepository.markCompleted(record.getId(), response.getStatusCode().value(), body);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Giữ IN_PROGRESS: gửi lại sẽ bị từ chối tới khi hết hạn, không bao giờ xử lý 2 lần
+            log.error("❌ Failed to store idempotent response {}: {}", record.getId(), e.getMessage());
+        }
+    }
+
+    private void release(IdempotencyRecord record) {
+        try {
+            idempotencyRecordRepository.deleteRecord(record.getId());
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to release idempotency key {}: {}", record.getId(), e.getMessage());
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request đầu tiên của 1 key trong instance này, giữ trong bộ nhớ tới hết cache-ttl-seconds
+     */
+    private static final class Entry {
+
+        private final String requestHash;
+        private final long expiresAtNanos;
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        private Entry(String requestHash, long expiresAtNanos) {
+            this.requestHash = requestHash;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired() {
+            return result.isDone() && System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
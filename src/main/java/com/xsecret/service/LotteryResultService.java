@@ -5,6 +5,7 @@ import com.xsecret.dto.request.LotteryResultRequest;
 import com.xsecret.dto.response.LotteryResultResponse;
 import com.xsecret.entity.LotteryResult;
 import com.xsecret.repository.LotteryResultRepository;
+import com.xsecret.service.bet.checker.LotteryResultCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -26,6 +27,7 @@ public class LotteryResultService {
     private final LotteryResultRepository lotteryResultRepository;
     private final ObjectMapper objectMapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final LotteryResultCache lotteryResultCache;
 
     /**
      * Tạo kết quả xổ số mới
@@ -109,6 +111,9 @@ public class LotteryResultService {
         LotteryResult entity = lotteryResultRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy kết quả với ID: " + id));
 
+        // Xóa cache theo key cũ (region/province/drawDate có thể bị đổi)
+        evictCachedResult(entity);
+
         // Cập nhật drawDate nếu có
         if (request.getDrawDate() != null && !request.getDrawDate().trim().isEmpty()) {
             try {
@@ -155,6 +160,7 @@ public class LotteryResultService {
         }
 
         LotteryResult saved = lotteryResultRepository.save(entity);
+        evictCachedResult(saved);
         log.info("Lottery result updated: ID={}, status={}, drawDate={}", 
                 saved.getId(), saved.getStatus(), saved.getDrawDate());
 
@@ -184,6 +190,7 @@ public class LotteryResultService {
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy kết quả với ID: " + id));
 
         lotteryResultRepository.delete(entity);
+        evictCachedResult(entity);
         log.info("Lottery result deleted: ID={}", id);
     }
 
@@ -285,6 +292,7 @@ public class LotteryResultService {
 
         entity.setStatus(LotteryResult.ResultStatus.PUBLISHED);
         LotteryResult saved = lotteryResultRepository.save(entity);
+        evictCachedResult(saved);
 
         log.info("Lottery result published: ID={}, region={}, province={}, drawDate={}", 
                 saved.getId(), saved.getRegion(), saved.getProvince(), saved.getDrawDate());
@@ -311,11 +319,18 @@ public class LotteryResultService {
 
         entity.setStatus(LotteryResult.ResultStatus.DRAFT);
         LotteryResult saved = lotteryResultRepository.save(entity);
+        evictCachedResult(saved);
 
         log.info("Lottery result unpublished: ID={}", saved.getId());
         return LotteryResultResponse.fromEntity(saved);
     }
 
+    /**
+     * Xóa kết quả khỏi cache dùng để check bet (LotteryResultCache)
+     */
+    private void evictCachedResult(LotteryResult entity) {
+        lotteryResultCache.evict(entity.getRegion(), entity.getProvince(), entity.getDrawDate());
+    }
 
     /**
      * Validate JSON results format
@@ -1,6 +1,8 @@
 package com.xsecret.service;
 
 import com.xsecret.dto.request.NotificationRequest;
+import com.xsecret.dto.request.PageCursor;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.dto.response.NotificationResponse;
 import com.xsecret.entity.Notification;
 import com.xsecret.entity.User;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -75,9 +78,9 @@ public class NotificationService {
      * User: Lấy thông báo của mình
      */
     @Transactional(readOnly = true)
-    public Page<NotificationResponse> getUserNotifications(String username, Pageable pageable) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public Page<NotificationResponse> getUserNotifications(Long userId, Pageable pageable) {
+        // userId lấy từ principal đã xác thực → chỉ cần tham chiếu theo id, không query users (các method bên dưới cũng vậy)
+        User user = userRepository.getReferenceById(userId);
 
         Page<Notification> notifications = notificationRepository.findUserNotifications(
                 user,
@@ -88,13 +91,32 @@ public class NotificationService {
         return notifications.map(NotificationResponse::fromEntity);
     }
 
+    /**
+     * User: Lấy thông báo của mình theo cursor (infinite scroll, không COUNT)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationResponse> getUserNotificationsByCursor(Long userId, String cursor, int size) {
+        User user = userRepository.getReferenceById(userId);
+
+        PageCursor position = PageCursor.decode(cursor);
+        List<Notification> notifications = notificationRepository.findUserNotificationsBefore(
+                user,
+                LocalDateTime.now(),
+                position.createdAt(),
+                position.id(),
+                PageCursor.limit(size)
+        );
+
+        return CursorPage.of(notifications, size, Notification::getCreatedAt, Notification::getId,
+                NotificationResponse::fromEntity);
+    }
+
     /**
      * User: Đếm thông báo chưa đọc
      */
     @Transactional(readOnly = true)
-    public long countUnreadNotifications(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public long countUnreadNotifications(Long userId) {
+        User user = userRepository.getReferenceById(userId);
 
         return notificationRepository.countUnreadNotifications(user, LocalDateTime.now());
     }
@@ -103,12 +125,11 @@ public class NotificationService {
      * User: Đánh dấu đã đọc
      */
     @Transactional
-    public NotificationResponse markAsRead(Long notificationId, String username) {
+    public NotificationResponse markAsRead(Long notificationId, Long userId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.getReferenceById(userId);
 
         // Kiểm tra quyền: chỉ được đánh dấu thông báo của mình
         if (notification.getTargetUser() != null && 
@@ -120,7 +141,7 @@ public class NotificationService {
             notification.setIsRead(true);
             notification.setReadAt(LocalDateTime.now());
             notificationRepository.save(notification);
-            log.info("User {} marked notification {} as read", username, notificationId);
+            log.info("User {} marked notification {} as read", userId, notificationId);
         }
 
         return NotificationResponse.fromEntity(notification);
@@ -130,9 +151,8 @@ public class NotificationService {
      * User: Đánh dấu tất cả đã đọc
      */
     @Transactional
-    public void markAllAsRead(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public void markAllAsRead(Long userId) {
+        User user = userRepository.getReferenceById(userId);
 
         Page<Notification> unreadNotifications = notificationRepository.findUserNotificationsWithFilter(
                 user,
@@ -150,7 +170,7 @@ public class NotificationService {
         });
 
         notificationRepository.saveAll(unreadNotifications.getContent());
-        log.info("User {} marked all notifications as read", username);
+        log.info("User {} marked all notifications as read", userId);
     }
 
     /**
@@ -187,12 +207,11 @@ public class NotificationService {
      * User: Lấy chi tiết thông báo
      */
     @Transactional(readOnly = true)
-    public NotificationResponse getNotificationById(Long notificationId, String username) {
+    public NotificationResponse getNotificationById(Long notificationId, Long userId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.getReferenceById(userId);
 
         // Kiểm tra quyền
         if (notification.getTargetUser() != null && 
@@ -1,6 +1,8 @@
 package com.xsecret.service;
 
+import com.xsecret.dto.request.PageCursor;
 import com.xsecret.dto.request.PointAdjustmentRequest;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.dto.response.PointTransactionResponse;
 import com.xsecret.dto.response.UserPointResponse;
 import com.xsecret.entity.*;
@@ -17,6 +19,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @Service
@@ -109,23 +113,20 @@ public class PointService {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        long currentPoints = user.getPoints() != null ? user.getPoints() : 0L;
         long pointsToAdjust = request.getPoints();
         long newPoints;
+        long currentPoints;
         
+        // Cập nhật điểm trực tiếp vào user (UPDATE atomic)
         if ("ADD".equals(request.getType())) {
-            newPoints = currentPoints + pointsToAdjust;
+            newPoints = creditBalance(user, pointsToAdjust);
+            currentPoints = newPoints - pointsToAdjust;
         } else {
-            if (currentPoints < pointsToAdjust) {
-                throw new RuntimeException("Insufficient points. Available: " + currentPoints + ", Required: " + pointsToAdjust);
-            }
-            newPoints = currentPoints - pointsToAdjust;
+            newPoints = tryDeductBalance(user, pointsToAdjust)
+                    .orElseThrow(() -> new RuntimeException("Insufficient points. Available: " + user.getPoints() + ", Required: " + pointsToAdjust));
+            currentPoints = newPoints + pointsToAdjust;
         }
         
-        // Cập nhật điểm trực tiếp vào user
-        user.setPoints(newPoints);
-        userRepository.save(user);
-        
         // Tạo PointTransaction để lưu lịch sử
         PointTransaction.PointTransactionType type = "ADD".equals(request.getType()) ? 
             PointTransaction.PointTransactionType.ADMIN_ADD : 
@@ -157,29 +158,14 @@ public class PointService {
     @Transactional
     protected void addPoints(User user, BigDecimal points, PointTransaction.PointTransactionType type, 
                            String description, String referenceType, Long referenceId, User createdBy) {
-        UserPoint userPoint = userPointRepository.findByUser(user)
-                .orElseGet(() -> {
-                    UserPoint newUserPoint = UserPoint.builder()
-                            .user(user)
-                            .totalPoints(BigDecimal.ZERO)
-                            .lifetimeEarned(BigDecimal.ZERO)
-                            .lifetimeSpent(BigDecimal.ZERO)
-                            .build();
-                    return userPointRepository.save(newUserPoint);
-                });
-
-        // Sử dụng user.points làm chuẩn để tránh không đồng bộ
-        BigDecimal balanceBefore = BigDecimal.valueOf(user.getPoints() != null ? user.getPoints() : 0L);
+        // Cộng điểm atomic vào user.points (chuẩn), số dư trước = số dư mới - phần đã cộng
+        long delta = points.longValue();
+        long newBalance = creditBalance(user, delta);
+        BigDecimal balanceBefore = BigDecimal.valueOf(newBalance - delta);
         BigDecimal balanceAfter = balanceBefore.add(points);
 
-        // Update user points first (chuẩn)
-        user.setPoints(balanceAfter.longValue());
-        userRepository.save(user);
-
         // Sync userPoint với user.points
-        userPoint.setTotalPoints(balanceAfter);
-        userPoint.setLifetimeEarned(userPoint.getLifetimeEarned().add(points));
-        userPointRepository.save(userPoint);
+        syncUserPoint(user, balanceAfter, points, BigDecimal.ZERO);
 
         // Create transaction record
         PointTransaction transaction = PointTransaction.builder()
@@ -202,26 +188,15 @@ public class PointService {
     @Transactional
     protected void subtractPoints(User user, BigDecimal points, PointTransaction.PointTransactionType type, 
                                 String description, String referenceType, Long referenceId, User createdBy) {
-        UserPoint userPoint = userPointRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("User points not found"));
-
-        // Sử dụng user.points làm chuẩn để tránh không đồng bộ
-        BigDecimal balanceBefore = BigDecimal.valueOf(user.getPoints() != null ? user.getPoints() : 0L);
-        
-        if (balanceBefore.compareTo(points) < 0) {
-            throw new RuntimeException("Insufficient points");
-        }
-
+        // Trừ điểm có điều kiện (atomic): không đủ điểm thì không trừ gì
+        long delta = points.setScale(0, java.math.RoundingMode.CEILING).longValue();
+        long newBalance = tryDeductBalance(user, delta)
+                .orElseThrow(() -> new RuntimeException("Insufficient points"));
+        BigDecimal balanceBefore = BigDecimal.valueOf(newBalance + delta);
         BigDecimal balanceAfter = balanceBefore.subtract(points);
 
-        // Update user points first (chuẩn)
-        user.setPoints(balanceAfter.longValue());
-        userRepository.save(user);
-
         // Sync userPoint với user.points
-        userPoint.setTotalPoints(balanceAfter);
-        userPoint.setLifetimeSpent(userPoint.getLifetimeSpent().add(points));
-        userPointRepository.save(userPoint);
+        syncUserPoint(user, balanceAfter, BigDecimal.ZERO, points);
 
         // Create transaction record
         PointTransaction transaction = PointTransaction.builder()
@@ -241,6 +216,50 @@ public class PointService {
         log.info("Subtracted {} points from user: {}, new balance: {}", points, user.getUsername(), balanceAfter);
     }
 
+    /**
+     * Trừ điểm atomic: UPDATE users SET points = points - ? WHERE id = ? AND points >= ?
+     * Không cần đọc số dư trước, 2 lệnh trừ đồng thời không thể cùng vượt qua kiểm tra số dư
+     * user.points trong bộ nhớ được đồng bộ với số dư trong DB (kể cả khi không đủ điểm)
+     * @return số dư sau khi trừ, empty nếu không đủ điểm
+     */
+    @Transactional
+    public OptionalLong tryDeductBalance(User user, long points) {
+        boolean deducted = userRepository.deductPointsIfSufficient(user.getId(), points) == 1;
+        long balance = userRepository.findPointsById(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setPoints(balance);
+        return deducted ? OptionalLong.of(balance) : OptionalLong.empty();
+    }
+
+    /**
+     * Cộng điểm atomic: UPDATE users SET points = points + ? WHERE id = ?
+     * @return số dư sau khi cộng
+     */
+    @Transactional
+    public long creditBalance(User user, long points) {
+        if (userRepository.addPoints(user.getId(), points) == 0) {
+            throw new RuntimeException("User not found");
+        }
+        long balance = userRepository.findPointsById(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setPoints(balance);
+        return balance;
+    }
+
+    /**
+     * Đồng bộ user_points với số dư mới bằng 1 câu UPDATE, tạo bản ghi nếu user chưa có
+     */
+    private void syncUserPoint(User user, BigDecimal totalPoints, BigDecimal earned, BigDecimal spent) {
+        if (userPointRepository.applyBalanceChange(user.getId(), totalPoints, earned, spent) == 0) {
+            userPointRepository.save(UserPoint.builder()
+                    .user(user)
+                    .totalPoints(totalPoints)
+                    .lifetimeEarned(earned)
+                    .lifetimeSpent(spent)
+                    .build());
+        }
+    }
+
     public UserPointResponse getUserPoints(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -267,6 +286,15 @@ public class PointService {
         return transactions.map(this::mapToResponse);
     }
 
+    public CursorPage<PointTransactionResponse> getUserPointHistoryByCursor(Long userId, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<PointTransaction> transactions = pointTransactionRepository
+                .findUserPointTransactionsBefore(userId, position.createdAt(), position.id(), PageCursor.limit(size));
+        
+        return CursorPage.of(transactions, size, PointTransaction::getCreatedAt, PointTransaction::getId,
+                this::mapToResponse);
+    }
+
     public Page<PointTransactionResponse> getAllPointHistory(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<PointTransaction> transactions = pointTransactionRepository
@@ -1,5 +1,8 @@
 package com.xsecret.service;
 
+import com.xsecret.service.bet.BetMetrics;
+import com.xsecret.service.bet.BetSettlementEngine;
+import com.xsecret.service.bet.ExposureTracker;
 import com.xsecret.service.lottery.LotteryResultAutoImportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,8 +24,11 @@ import java.util.Map;
 public class ScheduledTaskService {
 
     private final BetService betService;
+    private final BetSettlementEngine betSettlementEngine;
     private final LotteryResultAutoImportService lotteryResultAutoImportService;
     private final LotteryResultService lotteryResultService;
+    private final ExposureTracker exposureTracker;
+    private final BetMetrics betMetrics;
     
     // Timezone Vietnam
     private static final ZoneId VN_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
@@ -56,7 +62,7 @@ public class ScheduledTaskService {
             boolean hasProvinceResult = lotteryResultService.hasPublishedResult("mienTrungNam", null, today);
             
             if (hasMienBacResult || hasProvinceResult) {
-                betService.checkBetResults();
+                betSettlementEngine.settlePendingBets();
                 log.info("✅ Scheduled task [19:00]: Backup bet result check completed successfully");
             } else {
                 log.warn("⚠️ Scheduled task [19:00]: No lottery results available, skipping bet check");
@@ -102,7 +108,7 @@ public class ScheduledTaskService {
                     String todayResult = LocalDate.now(VN_ZONE).toString();
                     boolean hasTodayResult = lotteryResultService.hasPublishedResult("mienBac", null, todayResult);
                     if (hasTodayResult) {
-                        betService.checkBetResults();
+                        betSettlementEngine.settlePendingBets();
                         log.info("✅ Bet check completed immediately after Miền Bắc import");
                     } else {
                         log.warn("⚠️ Miền Bắc import thành công nhưng chưa có kết quả PUBLISHED, skip check bet");
@@ -160,7 +166,7 @@ public class ScheduledTaskService {
                     String todayResult = LocalDate.now(VN_ZONE).toString();
                     boolean hasTodayResult = lotteryResultService.hasPublishedResult("mienTrungNam", null, todayResult);
                     if (hasTodayResult) {
-                        betService.checkBetResults();
+                        betSettlementEngine.settlePendingBets();
                         log.info("✅ Bet check completed immediately after provinces import");
                     } else {
                         log.warn("⚠️ Provinces import thành công nhưng chưa có kết quả PUBLISHED, skip check bet");
@@ -205,7 +211,7 @@ public class ScheduledTaskService {
                 
                 // Check bet trước khi cancel (có thể có kết quả mới được import)
                 try {
-                    betService.checkBetResults();
+                    betSettlementEngine.settlePendingBets();
                     log.info("✅ Bet check completed before auto cancel");
                 } catch (Exception e) {
                     log.error("❌ Error checking bets before auto cancel: {}", e.getMessage());
@@ -238,7 +244,29 @@ public class ScheduledTaskService {
     }
 
     /**
-     * Log status mỗi 5 phút để theo dõi
+     * Xóa exposure của các kỳ quay đã qua (00:05) - bet của các kỳ đó đã có kết quả hoặc đã bị hủy lúc 20:00
+     */
+    @Scheduled(cron = "0 5 0 * * ?", zone = "Asia/Ho_Chi_Minh")
+    public void purgePastExposure() {
+        int purged = exposureTracker.purgeBefore(LocalDate.now(VN_ZONE));
+        log.info("🧹 Purged exposure of {} past draws", purged);
+    }
+
+    /**
+     * Cập nhật metrics backlog bet PENDING theo kỳ quay mỗi 30 giây (bet.pending.backlog)
+     */
+    @Scheduled(fixedDelay = 30000, initialDelay = 30000)
+    public void refreshPendingBacklogMetrics() {
+        try {
+            long pending = betMetrics.refreshPendingBacklog();
+            log.debug("📊 Pending bet backlog: {}", pending);
+        } catch (Exception e) {
+            log.error("❌ Error refreshing pending bet backlog metrics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Log status mỗi 5 phút để theo dõi (số liệu chi tiết xem tại /actuator/prometheus)
      */
     @Scheduled(cron = "0 */5 * * * ?")
     public void logSystemStatus() {
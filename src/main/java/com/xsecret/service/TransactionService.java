@@ -1,9 +1,11 @@
 package com.xsecret.service;
 
 import com.xsecret.dto.request.DepositRequestDto;
+import com.xsecret.dto.request.PageCursor;
 import com.xsecret.dto.request.ProcessTransactionRequestDto;
 import com.xsecret.dto.request.WithdrawRequestDto;
 import com.xsecret.dto.request.UserWithdrawRequestDto;
+import com.xsecret.dto.response.CursorPage;
 import com.xsecret.dto.response.TransactionResponseDto;
 import com.xsecret.entity.PaymentMethod;
 import com.xsecret.entity.Transaction;
@@ -13,6 +15,7 @@ import com.xsecret.repository.PaymentMethodRepository;
 import com.xsecret.repository.TransactionRepository;
 import com.xsecret.repository.UserRepository;
 import com.xsecret.repository.UserPaymentMethodRepository;
+import com.xsecret.service.search.AdminSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -40,6 +43,7 @@ public class TransactionService {
     private final UserPaymentMethodRepository userPaymentMethodRepository;
     private final FileStorageService fileStorageService;
     private final PointService pointService;
+    private final AdminSearchIndex adminSearchIndex;
     
     /**
      * Tạo yêu cầu nạp tiền
@@ -199,18 +203,11 @@ public class TransactionService {
         // Trừ điểm ngay lập tức khi tạo withdraw request (để tránh abuse)
         if (request.getPoints() != null) {
             try {
-                // Trừ điểm trực tiếp từ user
-                long currentPoints = user.getPoints() != null ? user.getPoints() : 0L;
+                // Trừ điểm trực tiếp từ user (UPDATE có điều kiện points >= cần trừ)
                 long pointsToDeduct = request.getPoints() != null ? request.getPoints() : pointsRequired.longValue();
-                
-                if (currentPoints < pointsToDeduct) {
-                    transactionRepository.delete(savedTransaction);
-                    throw new RuntimeException("Insufficient points. Available: " + currentPoints + ", Required: " + pointsToDeduct);
-                }
-                
-                long newPoints = currentPoints - pointsToDeduct;
-                user.setPoints(newPoints);
-                userRepository.save(user);
+                long newPoints = pointService.tryDeductBalance(user, pointsToDeduct)
+                        .orElseThrow(() -> new RuntimeException("Insufficient points. Available: " + user.getPoints() + ", Required: " + pointsToDeduct));
+                long currentPoints = newPoints + pointsToDeduct;
                 
                 log.info("Deducted {} points from user {} for withdraw request {}. Points: {} -> {}", 
                         request.getPoints(), username, transactionCode, currentPoints, newPoints);
@@ -309,6 +306,13 @@ public class TransactionService {
             throw new RuntimeException("Transaction has already been processed");
         }
         
+        // Giữ transaction bằng UPDATE có điều kiện trước khi cộng/hoàn điểm → 2 admin xử lý cùng lúc không cộng điểm 2 lần
+        Transaction.TransactionStatus newStatus = request.getAction() == ProcessTransactionRequestDto.Action.APPROVE
+                ? Transaction.TransactionStatus.APPROVED : Transaction.TransactionStatus.REJECTED;
+        if (transactionRepository.markProcessedIfPending(transaction.getId(), newStatus) == 0) {
+            throw new RuntimeException("Transaction has already been processed");
+        }
+        
         transaction.setProcessedBy(admin);
         transaction.setProcessedAt(LocalDateTime.now());
         transaction.setAdminNote(request.getAdminNote());
@@ -327,11 +331,9 @@ public class TransactionService {
                 BigDecimal pointsToAdd = amountToAdd.divide(BigDecimal.valueOf(1000), 0, java.math.RoundingMode.DOWN);
                 
                 if (pointsToAdd.compareTo(BigDecimal.ZERO) > 0) {
-                    // Cộng điểm trực tiếp vào user
-                    long currentPoints = user.getPoints() != null ? user.getPoints() : 0L;
-                    long newPoints = currentPoints + pointsToAdd.longValue();
-                    user.setPoints(newPoints);
-                    userRepository.save(user);
+                    // Cộng điểm trực tiếp vào user (UPDATE atomic)
+                    long newPoints = pointService.creditBalance(user, pointsToAdd.longValue());
+                    long currentPoints = newPoints - pointsToAdd.longValue();
                     
                     log.info("Added {} VND as {} points to user {}. Points: {} -> {}. Transaction: {}", 
                             amountToAdd, pointsToAdd, user.getUsername(), currentPoints, newPoints, transaction.getTransactionCode());
@@ -361,10 +363,8 @@ public class TransactionService {
                             
                             // Hoàn lại điểm trực tiếp vào user
                             User user = transaction.getUser();
-                            long currentPoints = user.getPoints() != null ? user.getPoints() : 0L;
-                            long newPoints = currentPoints + pointsToRefund;
-                            user.setPoints(newPoints);
-                            userRepository.save(user);
+                            long newPoints = pointService.creditBalance(user, pointsToRefund);
+                            long currentPoints = newPoints - pointsToRefund;
                             
                             log.info("Refunded {} points to user {} for rejected withdraw transaction {}. Points: {} -> {}", 
                                     pointsToRefund, user.getUsername(), transaction.getTransactionCode(), currentPoints, newPoints);
@@ -397,6 +397,20 @@ public class TransactionService {
         return transactions.map(this::enrichTransactionWithPaymentMethod);
     }
     
+    /**
+     * Lấy lịch sử giao dịch của user theo cursor (infinite scroll, không COUNT)
+     */
+    public CursorPage<TransactionResponseDto> getUserTransactionsByCursor(String username, String cursor, int size) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        PageCursor position = PageCursor.decode(cursor);
+        List<Transaction> transactions = transactionRepository.findUserTransactionsBefore(
+                user.getId(), position.createdAt(), position.id(), PageCursor.limit(size));
+        return CursorPage.of(transactions, size, Transaction::getCreatedAt, Transaction::getId,
+                this::enrichTransactionWithPaymentMethod);
+    }
+    
     /**
      * Lấy giao dịch theo type của user
      */
@@ -433,6 +447,50 @@ public class TransactionService {
                 type, status, startDate, endDate, pageable);
         return transactions.map(this::enrichTransactionWithPaymentMethod);
     }
+
+    /**
+     * Admin: Tìm giao dịch theo mã (chứa searchTerm) + filter, qua AdminSearchIndex
+     * (chỉ mục chưa sẵn sàng → query LIKE)
+     */
+    public Page<TransactionResponseDto> searchTransactions(
+            String searchTerm,
+            Transaction.TransactionType type,
+            Transaction.TransactionStatus status,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Pageable pageable) {
+        
+        if (!adminSearchIndex.isReady()) {
+            return transactionRepository.findBySearchTermWithFilters(
+                    searchTerm, type, status, startDate, endDate, pageable)
+                    .map(this::enrichTransactionWithPaymentMethod);
+        }
+        List<Long> ids = adminSearchIndex.searchTransactions(searchTerm);
+        if (ids.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Page<Transaction> transactions = transactionRepository.findByIdInWithFilters(
+                ids, type, status, startDate, endDate, pageable);
+        return transactions.map(this::enrichTransactionWithPaymentMethod);
+    }
+    
+    /**
+     * Admin: Lấy giao dịch theo filter theo cursor (infinite scroll, không COUNT)
+     */
+    public CursorPage<TransactionResponseDto> getTransactionsWithFiltersByCursor(
+            Transaction.TransactionType type,
+            Transaction.TransactionStatus status,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size) {
+        
+        PageCursor position = PageCursor.decode(cursor);
+        List<Transaction> transactions = transactionRepository.findTransactionsWithFiltersBefore(
+                type, status, startDate, endDate, position.createdAt(), position.id(), PageCursor.limit(size));
+        return CursorPage.of(transactions, size, Transaction::getCreatedAt, Transaction::getId,
+                this::enrichTransactionWithPaymentMethod);
+    }
     
     /**
      * Helper method để enrich payment method data cho withdraw transactions
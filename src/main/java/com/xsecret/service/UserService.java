@@ -8,6 +8,8 @@ import com.xsecret.entity.User;
 import com.xsecret.exception.UserAlreadyExistsException;
 import com.xsecret.mapper.UserMapper;
 import com.xsecret.repository.UserRepository;
+import com.xsecret.security.PrincipalCache;
+import com.xsecret.service.search.AdminSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -32,6 +34,9 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final DashboardCounters dashboardCounters;
+    private final AdminSearchIndex adminSearchIndex;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -58,31 +63,24 @@ public class UserService {
     @Transactional
     public User updateUserStatus(Long userId, User.UserStatus status) {
         User user = getUserById(userId);
+        dashboardCounters.userChanged(user.getRole(), user.getStatus(), user.getRole(), status);
         user.setStatus(status);
+        principalCache.evictAfterCommit(userId);
         return userRepository.save(user);
     }
 
     public Map<String, Object> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        long totalUsers = userRepository.countUsers();
-        long totalAdmins = userRepository.countAdmins();
-        long activeUsers = userRepository.findByRoleAndStatus(User.Role.USER, User.UserStatus.ACTIVE).size();
-        
-        stats.put("totalUsers", totalUsers);
-        stats.put("totalAdmins", totalAdmins);
-        stats.put("activeUsers", activeUsers);
-        stats.put("totalPoints", calculateTotalPoints());
+        // Đọc từ bộ đếm trong bộ nhớ (DashboardCounters), không đếm / load bảng users
+        stats.put("totalUsers", dashboardCounters.countUsersByRole(User.Role.USER));
+        stats.put("totalAdmins", dashboardCounters.countUsersByRole(User.Role.ADMIN));
+        stats.put("activeUsers", dashboardCounters.countUsers(User.Role.USER, User.UserStatus.ACTIVE));
+        stats.put("totalPoints", dashboardCounters.getTotalPoints());
         
         return stats;
     }
 
-    private Long calculateTotalPoints() {
-        return userRepository.findAll().stream()
-                .mapToLong(user -> user.getPoints() != null ? user.getPoints() : 0L)
-                .sum();
-    }
-
     // ================ ADVANCED USER MANAGEMENT ================
 
     /**
@@ -112,7 +110,9 @@ public class UserService {
                 .status(User.UserStatus.ACTIVE)
                 .build();
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        dashboardCounters.userCreated(savedUser.getRole(), savedUser.getStatus());
+        return savedUser;
     }
 
     /**
@@ -137,12 +137,16 @@ public class UserService {
         if (request.getPhoneNumber() != null) {
             user.setPhoneNumber(request.getPhoneNumber());
         }
+        User.Role oldRole = user.getRole();
+        User.UserStatus oldStatus = user.getStatus();
         if (request.getRole() != null) {
             user.setRole(request.getRole());
         }
         if (request.getStatus() != null) {
             user.setStatus(request.getStatus());
         }
+        dashboardCounters.userChanged(oldRole, oldStatus, user.getRole(), user.getStatus());
+        principalCache.evictAfterCommit(userId);
 
         return userRepository.save(user);
     }
@@ -154,7 +158,9 @@ public class UserService {
     public void deleteUser(Long userId) {
         log.info("Deleting user: {}", userId);
         User user = getUserById(userId);
+        dashboardCounters.userChanged(user.getRole(), user.getStatus(), user.getRole(), User.UserStatus.BANNED);
         user.setStatus(User.UserStatus.BANNED);
+        principalCache.evictAfterCommit(userId);
         userRepository.save(user);
     }
 
@@ -177,12 +183,18 @@ public class UserService {
 
         // Nếu có search term, filter theo custom query
         if (filters.getSearchTerm() != null && !filters.getSearchTerm().trim().isEmpty()) {
-            return userRepository.findBySearchTermWithFilters(
-                filters.getSearchTerm(),
-                filters.getRole() != null ? User.Role.valueOf(filters.getRole()) : null,
-                filters.getStatus() != null ? User.UserStatus.valueOf(filters.getStatus()) : null,
-                pageable
-            );
+            User.Role role = filters.getRole() != null ? User.Role.valueOf(filters.getRole()) : null;
+            User.UserStatus status = filters.getStatus() != null ? User.UserStatus.valueOf(filters.getStatus()) : null;
+
+            // Chỉ mục sẵn sàng → lấy id từ bộ nhớ rồi query theo khóa chính
+            if (adminSearchIndex.isReady()) {
+                List<Long> ids = adminSearchIndex.searchUsers(filters.getSearchTerm());
+                if (ids.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+                return userRepository.findByIdInWithFilters(ids, role, status, pageable);
+            }
+            return userRepository.findBySearchTermWithFilters(filters.getSearchTerm(), role, status, pageable);
         }
 
         // Filter theo role và status
@@ -210,6 +222,7 @@ public class UserService {
         log.info("Resetting password for user: {}", userId);
         User user = getUserById(userId);
         user.setPassword(passwordEncoder.encode(newPassword));
+        principalCache.evictAfterCommit(userId);
         userRepository.save(user);
     }
 
@@ -222,21 +235,19 @@ public class UserService {
         // Thống kê theo trạng thái
         Map<String, Long> statusStats = new HashMap<>();
         for (User.UserStatus status : User.UserStatus.values()) {
-            statusStats.put(status.name(), userRepository.countByStatus(status));
+            statusStats.put(status.name(), dashboardCounters.countUsersByStatus(status));
         }
         stats.put("usersByStatus", statusStats);
 
         // Thống kê theo vai trò
         Map<String, Long> roleStats = new HashMap<>();
         for (User.Role role : User.Role.values()) {
-            roleStats.put(role.name(), userRepository.countByRole(role));
+            roleStats.put(role.name(), dashboardCounters.countUsersByRole(role));
         }
         stats.put("usersByRole", roleStats);
 
-        // Người dùng mới trong 30 ngày
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        long newUsersLast30Days = userRepository.countByCreatedAtAfter(thirtyDaysAgo);
-        stats.put("newUsersLast30Days", newUsersLast30Days);
+        // Người dùng mới trong 30 ngày (theo ngày đăng ký)
+        stats.put("newUsersLast30Days", dashboardCounters.countNewUsersLast30Days());
 
         // Top users theo points
         List<User> topUsersByPoints = userRepository.findTop10ByOrderByPointsDesc();
@@ -275,6 +286,7 @@ public class UserService {
         user.setWithdrawalLockReason(reason);
         user.setWithdrawalLockedAt(LocalDateTime.now());
         user.setWithdrawalLockedBy(adminId);
+        principalCache.evictAfterCommit(userId);
         
         return userRepository.save(user);
     }
@@ -291,6 +303,7 @@ public class UserService {
         user.setWithdrawalLockReason(null);
         user.setWithdrawalLockedAt(null);
         user.setWithdrawalLockedBy(null);
+        principalCache.evictAfterCommit(userId);
         
         return userRepository.save(user);
     }
@@ -0,0 +1,157 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.repository.BetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics (Micrometer) cho đặt cược và settlement, xem tại /actuator/prometheus
+ * - bet.placement: thời gian đặt cược theo loại cược + outcome (accepted / rejected)
+ * - bet.placement.rejected: số lệnh bị từ chối theo loại cược + bước bị từ chối (reason)
+ * - bet.settlement: thời gian check 1 bet theo loại cược + outcome (won / lost / skipped / error / already_checked)
+ * - bet.pending.backlog: số bet PENDING theo kỳ quay (region, province, result_date)
+ * - bet.placement.batch / bet.placement.queue: kích thước lô và số lệnh đang chờ của BetPlacementPipeline
+ * betType luôn là mã chuẩn của BetType ("unknown" nếu không hỗ trợ) để số series không tăng theo input
+ */
+@Component
+public class BetMetrics {
+
+    // Bước của placeBet dùng làm reason khi bị từ chối
+    public static final String STAGE_TIME_LIMIT = "time_limit";
+    public static final String STAGE_VALIDATION = "validation";
+    public static final String STAGE_BALANCE = "insufficient_points";
+    public static final String STAGE_EXPOSURE = "exposure_cap";
+    public static final String STAGE_PERSIST = "persist";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    private final BetRepository betRepository;
+    private final MultiGauge pendingBacklog;
+
+    public BetMetrics(MeterRegistry registry, BetRepository betRepository) {
+        this.registry = registry;
+        this.betRepository = betRepository;
+        this.pendingBacklog = MultiGauge.builder("bet.pending.backlog")
+                .description("Số bet PENDING theo kỳ quay")
+                .register(registry);
+    }
+
+    /**
+     * Bắt đầu đo 1 lần đặt cược
+     */
+    public Placement startPlacement(String betTypeCode) {
+        return new Placement(normalize(betTypeCode));
+    }
+
+    /**
+     * Ghi nhận kết quả check 1 bet
+     */
+    public void recordSettlement(String betTypeCode, String outcome, long nanos) {
+        Timer.builder("bet.settlement")
+                .description("Thời gian check kết quả 1 bet")
+                .tags("betType", normalize(betTypeCode), "outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ghi nhận 1 lô ghi của BetPlacementPipeline
+     */
+    public void recordPlacementBatch(int size, long nanos) {
+        DistributionSummary.builder("bet.placement.batch")
+                .description("Số lệnh cược mỗi lô group commit")
+                .register(registry)
+                .record(size);
+        Timer.builder("bet.placement.batch.write")
+                .description("Thời gian ghi + commit 1 lô lệnh cược")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gauge số lệnh cược đang chờ trong hàng đợi của BetPlacementPipeline
+     */
+    public void bindPlacementQueue(Collection<?> queue) {
+        Gauge.builder("bet.placement.queue", queue, Collection::size)
+                .description("Số lệnh cược đang chờ ghi")
+                .register(registry);
+    }
+
+    /**
+     * Đếm lại backlog bet PENDING theo kỳ quay (1 query GROUP BY)
+     * Kỳ quay không còn bet PENDING bị xóa khỏi gauge
+     * @return tổng số bet PENDING
+     */
+    public long refreshPendingBacklog() {
+        List<Object[]> rows = betRepository.countPendingBetsByDraw();
+        List<MultiGauge.Row<?>> gaugeRows = new ArrayList<>(rows.size());
+        long total = 0;
+        for (Object[] row : rows) {
+            long count = ((Number) row[3]).longValue();
+            total += count;
+            gaugeRows.add(MultiGauge.Row.of(Tags.of(
+                    "region", String.valueOf(row[0]),
+                    "province", row[1] != null ? row[1].toString() : "",
+                    "result_date", String.valueOf(row[2])), count));
+        }
+        pendingBacklog.register(gaugeRows, true);
+        return total;
+    }
+
+    private static String normalize(String betTypeCode) {
+        BetType type = BetType.fromCode(betTypeCode);
+        return type != null ? type.getCode() : UNKNOWN;
+    }
+
+    /**
+     * Đo 1 lần đặt cược: gọi stage() trước mỗi bước, accepted() hoặc rejected() khi kết thúc
+     */
+    public final class Placement {
+
+        private final String betType;
+        private final Timer.Sample sample;
+        private String stage = STAGE_TIME_LIMIT;
+
+        private Placement(String betType) {
+            this.betType = betType;
+            this.sample = Timer.start(registry);
+        }
+
+        public void stage(String stage) {
+            this.stage = stage;
+        }
+
+        public void accepted() {
+            sample.stop(timer("accepted"));
+        }
+
+        public void rejected() {
+            sample.stop(timer("rejected"));
+            Counter.builder("bet.placement.rejected")
+                    .description("Số lệnh đặt cược bị từ chối")
+                    .tags("betType", betType, "reason", stage)
+                    .register(registry)
+                    .increment();
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder("bet.placement")
+                    .description("Thời gian đặt cược")
+                    .tags("betType", betType, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
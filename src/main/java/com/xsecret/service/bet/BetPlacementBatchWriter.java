@@ -0,0 +1,138 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.dto.response.BetResponse;
+import com.xsecret.entity.Bet;
+import com.xsecret.entity.User;
+import com.xsecret.repository.BetRepository;
+import com.xsecret.repository.UserRepository;
+import com.xsecret.service.BetService;
+import com.xsecret.service.DashboardCounters;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ghi 1 lô lệnh cược của BetPlacementPipeline trong 1 transaction duy nhất (group commit)
+ * - Mỗi bet: trừ điểm có điều kiện → persist (nhận ID từ block bet_id_seq, chưa INSERT) → giữ exposure
+ * - Không đủ điểm → bet không được persist; vượt hạn mức → remove bet + hoàn điểm, không ảnh hưởng bet khác
+ * - Commit 1 lần: Hibernate gộp INSERT các bet còn lại theo JDBC batch (hibernate.jdbc.batch_size)
+ * Lỗi DB trong lúc ghi → cả lô rollback (điểm, bet, exposure đều hoàn lại)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BetPlacementBatchWriter {
+
+    private final BetRepository betRepository;
+    private final UserRepository userRepository;
+    private final ExposureTracker exposureTracker;
+    private final UserBetStatsRollup userBetStatsRollup;
+    private final DashboardCounters dashboardCounters;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Ghi 1 lô theo đúng thứ tự nhận (các bet của cùng 1 user trừ điểm theo thứ tự đặt)
+     * @return kết quả từng lệnh, cùng thứ tự với batch
+     */
+    @Transactional
+    public List<Outcome> writeBatch(List<QueuedBet> batch) {
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(batch.stream().map(QueuedBet::userId).distinct().toList())
+                .forEach(user -> users.put(user.getId(), user));
+
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        List<Bet> accepted = new ArrayList<>(batch.size());
+        for (QueuedBet queued : batch) {
+            User user = users.get(queued.userId());
+            if (user == null) {
+                outcomes.add(Outcome.rejected(queued, new RuntimeException("User không tồn tại")));
+                continue;
+            }
+
+            // Trừ điểm có điều kiện (points >= cần trừ) trước khi persist, không đủ → bỏ bet (chưa ghi gì)
+            Bet bet = queued.bet();
+            queued.placement().stage(BetMetrics.STAGE_BALANCE);
+            long points = BetService.pointsToDeduct(bet);
+            if (userRepository.deductPointsIfSufficient(user.getId(), points) == 0) {
+                Long available = userRepository.findPointsById(user.getId()).orElse(0L);
+                outcomes.add(Outcome.rejected(queued, BetService.insufficientPoints(points, available)));
+                continue;
+            }
+
+            bet.setUser(user);
+            betRepository.save(bet);
+
+            // Cộng exposure + kiểm tra hạn mức trả thưởng theo số (cần id của bet)
+            // Vượt hạn mức → remove (hủy INSERT đang chờ flush) và hoàn lại điểm vừa trừ
+            queued.placement().stage(BetMetrics.STAGE_EXPOSURE);
+            try {
+                exposureTracker.reserve(bet);
+            } catch (RuntimeException e) {
+                entityManager.remove(bet);
+                userRepository.addPoints(user.getId(), points);
+                outcomes.add(Outcome.rejected(queued, e));
+                continue;
+            }
+
+            queued.placement().stage(BetMetrics.STAGE_PERSIST);
+            accepted.add(bet);
+            outcomes.add(null);
+        }
+
+        // Thống kê cược theo user: 1 câu upsert / user của lô
+        Map<Long, UserBetStatsRollup.Totals> placedByUser = new HashMap<>();
+        for (Bet bet : accepted) {
+            placedByUser.computeIfAbsent(bet.getUser().getId(), id -> new UserBetStatsRollup.Totals())
+                    .add(bet.getTotalAmount());
+        }
+        userBetStatsRollup.recordPlaced(placedByUser);
+        dashboardCounters.betsPlaced(accepted.size(),
+                accepted.stream().map(Bet::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+
+        // INSERT toàn bộ bet hợp lệ (JDBC batch) trước khi dựng response
+        entityManager.flush();
+
+        int acceptedIndex = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == null) {
+                outcomes.set(i, Outcome.accepted(batch.get(i), BetResponse.fromEntity(accepted.get(acceptedIndex++))));
+            }
+        }
+
+        log.debug("💾 Placement batch: {} bets written, {} rejected", accepted.size(), batch.size() - accepted.size());
+        return outcomes;
+    }
+
+    /**
+     * 1 lệnh cược đang chờ ghi: bet đã kiểm tra + tính tiền (BetService.prepareBet), chưa gắn user
+     */
+    public record QueuedBet(Long userId, Bet bet, BetMetrics.Placement placement,
+                            CompletableFuture<BetResponse> result) {
+    }
+
+    /**
+     * Kết quả 1 lệnh: response khi được ghi, error khi bị từ chối
+     */
+    public record Outcome(QueuedBet queued, BetResponse response, RuntimeException error) {
+
+        static Outcome accepted(QueuedBet queued, BetResponse response) {
+            return new Outcome(queued, response, null);
+        }
+
+        static Outcome rejected(QueuedBet queued, RuntimeException error) {
+            return new Outcome(queued, null, error);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.dto.request.BetRequest;
+import com.xsecret.dto.response.BetResponse;
+import com.xsecret.entity.Bet;
+import com.xsecret.exception.OutcomePendingException;
+import com.xsecret.service.BetService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Đặt cược theo lô (group commit), bật bằng app.bet.pipeline.enabled=true
+ * - Thread gọi: kiểm tra + tính tiền (BetService.prepareBet, không truy cập DB) rồi đưa vào hàng đợi giới hạn
+ * - 1 thread ghi: gom tối đa batch-size lệnh hoặc chờ tối đa max-linger-ms kể từ lệnh đầu tiên,
+ *   ghi cả lô trong 1 transaction (BetPlacementBatchWriter: trừ điểm atomic, giữ exposure, INSERT batch)
+ * - Thread gọi nhận BetResponse khi lô của mình đã commit (hoặc lỗi của riêng lệnh đó)
+ * Hàng đợi đầy → từ chối ngay, không chặn request. Khi tắt ứng dụng: ghi hết các lệnh còn trong hàng đợi
+ */
+@Component
+@Slf4j
+public class BetPlacementPipeline {
+
+    private final BetService betService;
+    private final BetPlacementBatchWriter batchWriter;
+    private final BetMetrics betMetrics;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxLingerNanos;
+    private final long timeoutMs;
+    private final BlockingQueue<BetPlacementBatchWriter.QueuedBet> queue;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public BetPlacementPipeline(BetService betService,
+                                BetPlacementBatchWriter batchWriter,
+                                BetMetrics betMetrics,
+                                @Value("${app.bet.pipeline.enabled:false}") boolean enabled,
+                                @Value("${app.bet.pipeline.batch-size:50}") int batchSize,
+                                @Value("${app.bet.pipeline.max-linger-ms:5}") long maxLingerMs,
+                                @Value("${app.bet.pipeline.queue-capacity:5000}") int queueCapacity,
+                                @Value("${app.bet.pipeline.timeout-ms:10000}") long timeoutMs) {
+        this.betService = betService;
+        this.batchWriter = batchWriter;
+        this.betMetrics = betMetrics;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxLingerMs));
+        this.timeoutMs = Math.max(1, timeoutMs);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        betMetrics.bindPlacementQueue(queue);
+        running = true;
+        writerThread = new Thread(this::runWriter, "bet-placement-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("🚀 Bet placement pipeline started (batch size: {}, max linger: {} ms, queue capacity: {})",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(maxLingerNanos), queue.remainingCapacity());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(timeoutMs);
+        log.info("🛑 Bet placement pipeline stopped ({} bets left in queue)", queue.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Đặt cược qua pipeline, chờ tới khi lô chứa lệnh này commit
+     */
+    public BetResponse placeBet(BetRequest request, Long userId) {
+        BetMetrics.Placement placement = betMetrics.startPlacement(request.getBetType());
+        try {
+            Bet bet = betService.prepareBet(request, placement);
+
+            placement.stage(BetMetrics.STAGE_PERSIST);
+            BetPlacementBatchWriter.QueuedBet queued =
+                    new BetPlacementBatchWriter.QueuedBet(userId, bet, placement, new CompletableFuture<>());
+            if (!running || !queue.offer(queued)) {
+                throw new RuntimeException("Hệ thống đang xử lý nhiều lệnh cược, vui lòng thử lại sau");
+            }
+
+            BetResponse response = await(queued);
+            placement.accepted();
+            log.info("Bet placed successfully with ID: {} (pipeline)", response.getId());
+            return response;
+        } catch (RuntimeException e) {
+            placement.rejected();
+            throw e;
+        }
+    }
+
+    private BetResponse await(BetPlacementBatchWriter.QueuedBet queued) {
+        try {
+            return queued.result().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Đặt cược thất bại, vui lòng thử lại", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutcomePendingException("Lệnh cược đang được xử lý, vui lòng kiểm tra lại lịch sử cược",
+                    queued.result());
+        } catch (TimeoutException e) {
+            // Lệnh vẫn có thể được ghi sau đó → không báo thất bại chắc chắn, kết quả thật đến qua queued.result()
+            throw new OutcomePendingException("Lệnh cược đang được xử lý, vui lòng kiểm tra lại lịch sử cược",
+                    queued.result());
+        }
+    }
+
+    private void runWriter() {
+        List<BetPlacementBatchWriter.QueuedBet> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                BetPlacementBatchWriter.QueuedBet first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - batch.size());
+
+                // Chờ thêm lệnh tới khi đủ lô hoặc hết max-linger tính từ lệnh đầu tiên
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    BetPlacementBatchWriter.QueuedBet next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<BetPlacementBatchWriter.QueuedBet> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            for (BetPlacementBatchWriter.Outcome outcome : batchWriter.writeBatch(batch)) {
+                if (outcome.error() != null) {
+                    outcome.queued().result().completeExceptionally(outcome.error());
+                } else {
+                    outcome.queued().result().complete(outcome.response());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Bet placement batch of {} failed: {}", batch.size(), e.getMessage(), e);
+            RuntimeException failure = new RuntimeException("Đặt cược thất bại, vui lòng thử lại");
+            for (BetPlacementBatchWriter.QueuedBet queued : batch) {
+                queued.placement().stage(BetMetrics.STAGE_PERSIST);
+                queued.result().completeExceptionally(failure);
+            }
+        } finally {
+            betMetrics.recordPlacementBatch(batch.size(), System.nanoTime() - start);
+        }
+    }
+}
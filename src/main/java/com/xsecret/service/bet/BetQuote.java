@@ -0,0 +1,42 @@
+package com.xsecret.service.bet;
+
+import java.math.BigDecimal;
+
+/**
+ * Tiền của 1 lệnh cược, tính thuần trong bộ nhớ (không truy cập DB)
+ *
+ * Tiền đặt cược = số điểm × đơn giá × số lượng số × multiplier
+ *   VD: 10 điểm × 27 × 3 số = 810 (thường)
+ *   VD de-giai-7: 10 điểm × 1,000 × 1 số × 4 = 40,000
+ *   VD 3s-giai-6: 10 điểm × 1,000 × 1 số × 3 = 30,000
+ *   VD dau-duoi: 10 điểm × 1,000 × 1 số × 5 = 50,000
+ *   VD 3s-dau-duoi: 10 điểm × 1,000 × 1 số × 4 = 40,000
+ *   VD dau-duoi-mien-trung-nam: 10 điểm × 1,000 × 1 số × 2 = 20,000
+ *
+ * Tiền thắng nếu tất cả trúng = số điểm × tỷ lệ × số lượng số (KHÔNG × multiplier)
+ *   VD: 10 điểm × 99 × 3 số = 2,970 (thường)
+ *   VD de-giai-7: 10 điểm × 23 × 1 số = 230 (KHÔNG × 4)
+ *   VD 3s-giai-6: 10 điểm × 600 × 1 số = 6,000 (KHÔNG × 3)
+ *   VD dau-duoi: 10 điểm × 12 × 1 số = 120 (KHÔNG × 5)
+ *   VD 3s-dau-duoi: 10 điểm × 150 × 1 số = 1,500 (KHÔNG × 4)
+ *   VD dau-duoi-mien-trung-nam: 10 điểm × 50 × 1 số = 500 (KHÔNG × 2)
+ */
+public record BetQuote(BigDecimal totalAmount, BigDecimal potentialWin, BigDecimal potentialProfit) {
+
+    public static BetQuote of(BetType betType, BigDecimal betPoints, BigDecimal pricePerPoint,
+                              BigDecimal odds, int selectedCount) {
+        BigDecimal count = BigDecimal.valueOf(selectedCount);
+        BigDecimal totalAmount = betPoints.multiply(pricePerPoint)
+                .multiply(count)
+                .multiply(BigDecimal.valueOf(betType.getMultiplier()));
+        BigDecimal potentialWin = betPoints.multiply(odds).multiply(count);
+        return new BetQuote(totalAmount, potentialWin, potentialWin.subtract(totalAmount)); // Lãi = thắng - cược
+    }
+
+    /**
+     * Số điểm cần trừ khỏi tài khoản (user.points lưu dạng long)
+     */
+    public long pointsToDeduct() {
+        return totalAmount.longValue();
+    }
+}
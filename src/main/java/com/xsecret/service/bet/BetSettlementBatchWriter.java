@@ -0,0 +1,210 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.entity.Bet;
+import com.xsecret.entity.PointTransaction;
+import com.xsecret.entity.converter.SelectionCodec;
+import com.xsecret.service.DashboardCounters;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ghi kết quả settlement theo chunk bằng JDBC batch (batch mode của BetSettlementEngine)
+ * - Khóa các bet của chunk còn PENDING (SELECT ... FOR UPDATE), bet đã được check ở nơi khác bị bỏ qua
+ *   → chạy lại cùng 1 chunk không bao giờ cộng điểm 2 lần
+ * - Cập nhật status/isWin/winAmount/winningNumbers bằng 1 JDBC batch
+ * - Cộng điểm mỗi user ĐÚNG 1 lần với tổng tiền thắng của user trong chunk (1 câu UPDATE duy nhất)
+ * - Lịch sử PointTransaction vẫn ghi từng bet thắng (giống PointService.addPoints)
+ * Tất cả nằm trong 1 transaction: lỗi ở bất kỳ bước nào thì cả chunk rollback, bet vẫn PENDING
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BetSettlementBatchWriter {
+
+    private static final String UPDATE_BET_SQL =
+            "UPDATE bets SET status = ?, is_win = ?, win_amount = ?, winning_numbers_packed = ?, " +
+            "result_checked_at = ?, updated_at = ? WHERE id = ? AND status = 'PENDING'";
+
+    private static final String INSERT_POINT_TRANSACTION_SQL =
+            "INSERT INTO point_transactions (user_id, transaction_code, type, points, balance_before, balance_after, " +
+            "description, reference_type, reference_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_USER_POINT_SQL =
+            "INSERT INTO user_points (user_id, total_points, lifetime_earned, lifetime_spent, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 0, ?, ?) ON DUPLICATE KEY UPDATE total_points = VALUES(total_points), " +
+            "lifetime_earned = lifetime_earned + VALUES(lifetime_earned), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserBetStatsRollup userBetStatsRollup;
+    private final DashboardCounters dashboardCounters;
+
+    /**
+     * Ghi 1 chunk kết quả đã tính trong bộ nhớ
+     * Các bet của cùng 1 user phải nằm theo thứ tự đặt cược (lịch sử điểm ghi theo thứ tự đó)
+     */
+    @Transactional
+    public ChunkResult writeChunk(List<SettledBet> chunk) {
+        if (chunk.isEmpty()) {
+            return new ChunkResult(Collections.emptySet(), 0);
+        }
+
+        // 1. Chỉ giữ lại các bet vẫn còn PENDING (đã khóa tới hết transaction)
+        List<Long> betIds = chunk.stream().map(SettledBet::getBetId).toList();
+        Set<Long> pendingIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM bets WHERE status = 'PENDING' AND id IN (" + placeholders(betIds.size()) + ") FOR UPDATE",
+                Long.class, betIds.toArray()));
+
+        List<SettledBet> applied = chunk.stream()
+                .filter(settled -> pendingIds.contains(settled.getBetId()))
+                .toList();
+        if (applied.size() < chunk.size()) {
+            log.info("⏭️ {} bets in chunk already checked by another run, skipping them", chunk.size() - applied.size());
+        }
+        if (applied.isEmpty()) {
+            return new ChunkResult(Collections.emptySet(), 0);
+        }
+
+        // 2. Cập nhật kết quả bet bằng JDBC batch
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_BET_SQL, applied, applied.size(), (ps, settled) -> {
+            ps.setString(1, settled.isWin() ? Bet.BetStatus.WON.name() : Bet.BetStatus.LOST.name());
+            ps.setBoolean(2, settled.isWin());
+            ps.setBigDecimal(3, settled.isWin() ? settled.getWinAmount() : BigDecimal.ZERO);
+            ps.setBytes(4, SelectionCodec.encode(settled.getWinningNumbers()));
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+            ps.setLong(7, settled.getBetId());
+        });
+
+        // 3. Gom tiền thắng theo user, giữ thứ tự đặt cược
+        Map<Long, List<SettledBet>> winsByUser = new LinkedHashMap<>();
+        Map<Long, UserBetStatsRollup.Totals> wonByUser = new HashMap<>();
+        for (SettledBet settled : applied) {
+            if (settled.isWin()) {
+                wonByUser.computeIfAbsent(settled.getUserId(), id -> new UserBetStatsRollup.Totals())
+                        .add(settled.getWinAmount());
+            }
+            if (settled.isWin() && settled.getWinAmount().signum() > 0) {
+                winsByUser.computeIfAbsent(settled.getUserId(), id -> new ArrayList<>()).add(settled);
+            }
+        }
+        if (!winsByUser.isEmpty()) {
+            creditUsers(winsByUser, now);
+        }
+        userBetStatsRollup.recordWon(wonByUser);
+        int won = wonByUser.values().stream().mapToInt(UserBetStatsRollup.Totals::getCount).sum();
+        dashboardCounters.betsSettled(won, applied.size() - won, wonByUser.values().stream()
+                .map(UserBetStatsRollup.Totals::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+
+        Set<Long> appliedIds = new HashSet<>();
+        applied.forEach(settled -> appliedIds.add(settled.getBetId()));
+        log.info("💾 Settled chunk: {} bets written, {} users credited", applied.size(), winsByUser.size());
+        return new ChunkResult(appliedIds, winsByUser.size());
+    }
+
+    /**
+     * Cộng điểm cho tất cả user thắng trong chunk
+     */
+    private void creditUsers(Map<Long, List<SettledBet>> winsByUser, Timestamp now) {
+        List<Long> userIds = new ArrayList<>(winsByUser.keySet());
+
+        // Khóa user, lấy số dư hiện tại
+        Map<Long, Long> balances = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, points FROM users WHERE id IN (" + placeholders(userIds.size()) + ") FOR UPDATE",
+                rs -> {
+                    balances.put(rs.getLong("id"), rs.getLong("points"));
+                },
+                userIds.toArray());
+
+        // Tính lịch sử điểm từng bet giống PointService.addPoints (user.points lưu dạng long)
+        List<Object[]> ledgerRows = new ArrayList<>();
+        List<Object[]> userPointRows = new ArrayList<>();
+        Map<Long, Long> credits = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<SettledBet>> entry : winsByUser.entrySet()) {
+            Long userId = entry.getKey();
+            Long startBalance = balances.get(userId);
+            if (startBalance == null) {
+                throw new RuntimeException("User không tồn tại: " + userId);
+            }
+
+            long balance = startBalance;
+            BigDecimal earned = BigDecimal.ZERO;
+            BigDecimal balanceAfter = BigDecimal.valueOf(balance);
+            for (SettledBet settled : entry.getValue()) {
+                BigDecimal balanceBefore = BigDecimal.valueOf(balance);
+                balanceAfter = balanceBefore.add(settled.getWinAmount());
+                balance = balanceAfter.longValue();
+                earned = earned.add(settled.getWinAmount());
+
+                ledgerRows.add(new Object[] {
+                        userId,
+                        transactionCode(settled.getBetId()),
+                        PointTransaction.PointTransactionType.BET_WIN.name(),
+                        settled.getWinAmount(),
+                        balanceBefore,
+                        balanceAfter,
+                        "Thắng cược (chỉ lãi): " + settled.getWinAmount() + " điểm",
+                        "BET",
+                        settled.getBetId(),
+                        now
+                });
+            }
+            credits.put(userId, balance - startBalance);
+            userPointRows.add(new Object[] { userId, balanceAfter, earned, now, now });
+        }
+
+        // 1 câu UPDATE cộng điểm cho tất cả user: points = points + CASE id WHEN ? THEN ? ... END
+        StringBuilder sql = new StringBuilder("UPDATE users SET points = points + CASE id");
+        List<Object> args = new ArrayList<>(credits.size() * 3);
+        for (Map.Entry<Long, Long> credit : credits.entrySet()) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(credit.getKey());
+            args.add(credit.getValue());
+        }
+        sql.append(" ELSE 0 END WHERE id IN (").append(placeholders(credits.size())).append(")");
+        args.addAll(credits.keySet());
+
+        int updatedUsers = jdbcTemplate.update(sql.toString(), args.toArray());
+        if (updatedUsers != credits.size()) {
+            throw new RuntimeException("Cộng điểm thất bại: cập nhật " + updatedUsers + "/" + credits.size() + " user");
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_POINT_TRANSACTION_SQL, ledgerRows);
+        jdbcTemplate.batchUpdate(UPSERT_USER_POINT_SQL, userPointRows);
+    }
+
+    /**
+     * Mã giao dịch thắng cược cố định theo bet (≤ 20 ký tự, unique)
+     * → nếu 1 bet bị ghi 2 lần thì unique constraint chặn lại, chunk rollback
+     */
+    private String transactionCode(Long betId) {
+        return "PTW" + betId;
+    }
+
+    private String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Kết quả ghi 1 chunk
+     * appliedBetIds: các bet thực sự được ghi (còn PENDING lúc ghi)
+     */
+    public record ChunkResult(Set<Long> appliedBetIds, int creditedUsers) {
+    }
+}
@@ -0,0 +1,338 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.entity.Bet;
+import com.xsecret.service.BetService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Engine check kết quả bet song song (settlement)
+ * - Đọc bet PENDING theo từng trang (PendingBetReader), mỗi trang:
+ *   chia bet theo user vào N lane (N = số worker của betSettlementExecutor)
+ *   → mọi bet của 1 user luôn nằm cùng 1 lane, xử lý tuần tự theo thứ tự đặt cược
+ *   → không bao giờ có 2 thread cùng cập nhật điểm của 1 user
+ * - Các lane chạy song song trên pool giới hạn theo số CPU
+ * - Thống kê throughput và số lỗi theo từng partition (region, province)
+ * - Mặc định mỗi bet được check trong transaction riêng (BetService.checkBetResult - REQUIRES_NEW)
+ * - Batch mode (app.settlement.batch-enabled=true): tính kết quả trong bộ nhớ,
+ *   ghi theo chunk app.settlement.batch-size bet qua BetSettlementBatchWriter
+ */
+@Component
+@Slf4j
+public class BetSettlementEngine {
+
+    private static final String NO_RESULT_MESSAGE = "Chưa có kết quả xổ số";
+
+    // Outcome của metrics bet.settlement
+    private static final String OUTCOME_WON = "won";
+    private static final String OUTCOME_LOST = "lost";
+    private static final String OUTCOME_SKIPPED = "skipped";
+    private static final String OUTCOME_ERROR = "error";
+    private static final String OUTCOME_ALREADY_CHECKED = "already_checked";
+
+    private final PendingBetReader pendingBetReader;
+    private final BetService betService;
+    private final ThreadPoolTaskExecutor settlementExecutor;
+    private final BetSettlementBatchWriter batchWriter;
+    private final ExposureTracker exposureTracker;
+    private final BetMetrics betMetrics;
+    private final boolean batchEnabled;
+    private final int batchSize;
+
+    // Chỉ 1 lần settlement chạy tại 1 thời điểm (cron, event listener, admin có thể gọi cùng lúc)
+    private final ReentrantLock settlementLock = new ReentrantLock();
+
+    public BetSettlementEngine(PendingBetReader pendingBetReader,
+                               BetService betService,
+                               @Qualifier("betSettlementExecutor") ThreadPoolTaskExecutor settlementExecutor,
+                               BetSettlementBatchWriter batchWriter,
+                               ExposureTracker exposureTracker,
+                               BetMetrics betMetrics,
+                               @Value("${app.settlement.batch-enabled:false}") boolean batchEnabled,
+                               @Value("${app.settlement.batch-size:500}") int batchSize) {
+        this.pendingBetReader = pendingBetReader;
+        this.betService = betService;
+        this.settlementExecutor = settlementExecutor;
+        this.batchWriter = batchWriter;
+        this.exposureTracker = exposureTracker;
+        this.betMetrics = betMetrics;
+        this.batchEnabled = batchEnabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Check kết quả tất cả bet PENDING của hôm nay
+     * Nếu chưa có kết quả thì bet được bỏ qua (skipped), không tính là lỗi
+     */
+    public SettlementReport settlePendingBets() {
+        String currentDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        log.info("🔍 AUTO CHECK STARTING - Current date: {}", currentDate);
+        return settle(currentDate);
+    }
+
+    /**
+     * Check kết quả bet PENDING cho ngày cụ thể (dùng khi admin publish kết quả)
+     */
+    public SettlementReport settlePendingBetsForDate(String targetDate) {
+        log.info("🎯 CHECK STARTING - Target date: {}", targetDate);
+        return settle(targetDate);
+    }
+
+    private SettlementReport settle(String targetDate) {
+        settlementLock.lock();
+        try {
+            return doSettle(targetDate);
+        } finally {
+            settlementLock.unlock();
+        }
+    }
+
+    private SettlementReport doSettle(String targetDate) {
+        long startNanos = System.nanoTime();
+        int workers = settlementExecutor.getMaxPoolSize();
+        Map<PartitionKey, PartitionStats> partitionStats = new ConcurrentHashMap<>();
+
+        log.info("📊 Checking PENDING bets for date: {}, workers: {}, page size: {}, batch mode: {}",
+                targetDate, workers, pendingBetReader.getPageSize(),
+                batchEnabled ? "ON (chunk " + batchSize + ")" : "OFF");
+
+        // Đọc từng trang theo id, xử lý xong trang này mới đọc trang sau (bộ nhớ cố định)
+        long totalBets = pendingBetReader.forEachPage(targetDate, page -> settlePage(page, workers, partitionStats));
+
+        if (totalBets == 0) {
+            log.info("✅ No pending bets to check for date: {}", targetDate);
+            return buildReport(targetDate, workers, partitionStats, startNanos);
+        }
+
+        SettlementReport report = buildReport(targetDate, workers, partitionStats, startNanos);
+        logReport(report);
+        return report;
+    }
+
+    /**
+     * Xử lý song song 1 trang bet
+     */
+    private void settlePage(List<Bet> page, int workers, Map<PartitionKey, PartitionStats> partitionStats) {
+        // Chia bet theo user vào các lane, giữ nguyên thứ tự (trang đã ORDER BY id)
+        List<List<Bet>> lanes = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (Bet bet : page) {
+            int lane = Math.floorMod(Long.hashCode(bet.getUser().getId()), workers);
+            lanes.get(lane).add(bet);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<Bet> lane : lanes) {
+            if (!lane.isEmpty()) {
+                Runnable task = batchEnabled
+                        ? () -> settleLaneBatched(lane, partitionStats)
+                        : () -> settleLane(lane, partitionStats);
+                futures.add(CompletableFuture.runAsync(task, settlementExecutor));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Xử lý tuần tự các bet trong 1 lane
+     */
+    private void settleLane(List<Bet> lane, Map<PartitionKey, PartitionStats> partitionStats) {
+        for (Bet bet : lane) {
+            PartitionStats stats = statsFor(partitionStats, bet.getRegion(), bet.getProvince());
+            stats.total.increment();
+            long start = System.nanoTime();
+            String outcome;
+            try {
+                Bet.BetStatus status = betService.checkBetResult(bet);
+                stats.success.increment();
+                if (status == null) {
+                    outcome = OUTCOME_ALREADY_CHECKED;
+                } else {
+                    outcome = status == Bet.BetStatus.WON ? OUTCOME_WON : OUTCOME_LOST;
+                }
+            } catch (Exception e) {
+                outcome = recordFailure(stats, bet, e);
+            }
+            long elapsed = System.nanoTime() - start;
+            stats.busyNanos.add(elapsed);
+            betMetrics.recordSettlement(bet.getBetType(), outcome, elapsed);
+        }
+    }
+
+    /**
+     * Batch mode: tính kết quả trong bộ nhớ, ghi DB theo chunk
+     * Lane chỉ chứa bet của 1 nhóm user cố định nên các chunk song song không khóa trùng user
+     */
+    private void settleLaneBatched(List<Bet> lane, Map<PartitionKey, PartitionStats> partitionStats) {
+        List<SettledBet> chunk = new ArrayList<>(Math.min(batchSize, lane.size()));
+        Map<Long, ChunkEntry> chunkBets = new HashMap<>();
+        for (Bet bet : lane) {
+            PartitionStats stats = statsFor(partitionStats, bet.getRegion(), bet.getProvince());
+            stats.total.increment();
+            long start = System.nanoTime();
+            try {
+                chunk.add(betService.evaluateBetResult(bet));
+                chunkBets.put(bet.getId(), new ChunkEntry(bet, System.nanoTime() - start));
+            } catch (Exception e) {
+                String outcome = recordFailure(stats, bet, e);
+                betMetrics.recordSettlement(bet.getBetType(), outcome, System.nanoTime() - start);
+            } finally {
+                stats.busyNanos.add(System.nanoTime() - start);
+            }
+
+            if (chunk.size() >= batchSize) {
+                flushChunk(chunk, chunkBets, partitionStats);
+                chunk.clear();
+                chunkBets.clear();
+            }
+        }
+        flushChunk(chunk, chunkBets, partitionStats);
+    }
+
+    private void flushChunk(List<SettledBet> chunk, Map<Long, ChunkEntry> chunkBets,
+                            Map<PartitionKey, PartitionStats> partitionStats) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        BetSettlementBatchWriter.ChunkResult result = null;
+        try {
+            result = batchWriter.writeChunk(chunk);
+        } catch (Exception e) {
+            log.error("❌ Error writing settlement chunk of {} bets (first bet ID {}), bets remain PENDING: {}",
+                    chunk.size(), chunk.get(0).getBetId(), e.getMessage(), e);
+        }
+
+        // Chia đều thời gian ghi chunk cho các bet trong chunk
+        long nanosPerBet = (System.nanoTime() - start) / chunk.size();
+        for (SettledBet settled : chunk) {
+            PartitionStats stats = statsFor(partitionStats, settled.getRegion(), settled.getProvince());
+            stats.busyNanos.add(nanosPerBet);
+            ChunkEntry entry = chunkBets.get(settled.getBetId());
+            String outcome;
+            if (result == null) {
+                stats.errors.increment();
+                outcome = OUTCOME_ERROR;
+            } else if (result.appliedBetIds().contains(settled.getBetId())) {
+                stats.success.increment();
+                outcome = settled.isWin() ? OUTCOME_WON : OUTCOME_LOST;
+                // Chunk đã commit: bet không còn PENDING → trừ exposure
+                exposureTracker.release(entry.bet());
+            } else {
+                // Bet đã được check ở lần chạy khác, không ghi lại
+                stats.skipped.increment();
+                outcome = OUTCOME_ALREADY_CHECKED;
+            }
+            betMetrics.recordSettlement(entry.bet().getBetType(), outcome, entry.evaluateNanos() + nanosPerBet);
+        }
+    }
+
+    private PartitionStats statsFor(Map<PartitionKey, PartitionStats> partitionStats, String region, String province) {
+        return partitionStats.computeIfAbsent(new PartitionKey(region, province), key -> new PartitionStats());
+    }
+
+    /**
+     * @return outcome cho metrics: skipped (chưa có kết quả) hoặc error
+     */
+    private String recordFailure(PartitionStats stats, Bet bet, Exception e) {
+        // Nếu lỗi do chưa có kết quả xổ số thì skip (không đếm là lỗi)
+        if (e instanceof RuntimeException && e.getMessage() != null && e.getMessage().contains(NO_RESULT_MESSAGE)) {
+            stats.skipped.increment();
+            log.warn("⏭️ Skipped bet ID {} - Chưa có kết quả xổ số: {}", bet.getId(), e.getMessage());
+            return OUTCOME_SKIPPED;
+        } else if (e instanceof RuntimeException) {
+            stats.errors.increment();
+            log.error("❌ Error checking result for bet ID {}: {}", bet.getId(), e.getMessage(), e);
+        } else {
+            stats.errors.increment();
+            log.error("❌ Unexpected error checking bet ID {}: {}", bet.getId(), e.getMessage(), e);
+        }
+        return OUTCOME_ERROR;
+    }
+
+    private SettlementReport buildReport(String targetDate, int workers,
+                                         Map<PartitionKey, PartitionStats> partitionStats, long startNanos) {
+        List<SettlementReport.PartitionReport> partitions = new ArrayList<>();
+        long total = 0;
+        long success = 0;
+        long skipped = 0;
+        long errors = 0;
+
+        for (Map.Entry<PartitionKey, PartitionStats> entry : partitionStats.entrySet()) {
+            PartitionStats stats = entry.getValue();
+            long busyNanos = stats.busyNanos.sum();
+            long processed = stats.total.sum();
+            partitions.add(SettlementReport.PartitionReport.builder()
+                    .region(entry.getKey().region())
+                    .province(entry.getKey().province())
+                    .totalBets(processed)
+                    .successCount(stats.success.sum())
+                    .skippedCount(stats.skipped.sum())
+                    .errorCount(stats.errors.sum())
+                    .busyMs(busyNanos / 1_000_000)
+                    .betsPerSecond(busyNanos > 0 ? processed * 1_000_000_000.0 / busyNanos : 0)
+                    .build());
+            total += processed;
+            success += stats.success.sum();
+            skipped += stats.skipped.sum();
+            errors += stats.errors.sum();
+        }
+        partitions.sort(Comparator.comparing(SettlementReport.PartitionReport::getRegion)
+                .thenComparing(p -> p.getProvince() != null ? p.getProvince() : ""));
+
+        return SettlementReport.builder()
+                .targetDate(targetDate)
+                .workers(workers)
+                .totalBets(total)
+                .successCount(success)
+                .skippedCount(skipped)
+                .errorCount(errors)
+                .elapsedMs((System.nanoTime() - startNanos) / 1_000_000)
+                .partitions(partitions)
+                .build();
+    }
+
+    private void logReport(SettlementReport report) {
+        for (SettlementReport.PartitionReport partition : report.getPartitions()) {
+            log.info("📦 Partition region={}, province={}: ✅ {} successful, ⏭️ {} skipped, ❌ {} errors, {} bets in {} ms ({} bets/s)",
+                    partition.getRegion(), partition.getProvince(), partition.getSuccessCount(),
+                    partition.getSkippedCount(), partition.getErrorCount(), partition.getTotalBets(),
+                    partition.getBusyMs(), String.format("%.1f", partition.getBetsPerSecond()));
+        }
+        log.info("📈 Bet check for date {} COMPLETED in {} ms on {} workers: ✅ {} successful, ⏭️ {} skipped (no result), ❌ {} errors out of {} total",
+                report.getTargetDate(), report.getElapsedMs(), report.getWorkers(), report.getSuccessCount(),
+                report.getSkippedCount(), report.getErrorCount(), report.getTotalBets());
+    }
+
+    private record PartitionKey(String region, String province) {
+    }
+
+    // Bet đã tính kết quả, chờ ghi chunk (batch mode)
+    private record ChunkEntry(Bet bet, long evaluateNanos) {
+    }
+
+    private static final class PartitionStats {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder success = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+    }
+}
@@ -0,0 +1,120 @@
+package com.xsecret.service.bet;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Danh sách loại cược được hỗ trợ, mỗi loại 1 descriptor:
+ * - aliases: các mã betType frontend có thể gửi (mã đầu tiên là mã chuẩn)
+ * - regions: miền được phép đặt
+ * - multiplier: số lượng số của giải được so (tiền cược × multiplier)
+ * - digits / groupSize: mỗi selection gồm groupSize số, mỗi số digits chữ số
+ *   (loto2s: 1 số 2 chữ số; xiên 3: cụm "12,23,34"; trượt 8: cụm 8 số)
+ * Checker tương ứng được gắn trong BetTypeRegistry
+ */
+public enum BetType {
+
+    LOTO_2S(List.of("loto2s", "loto-2-so"), Regions.BOTH, 1, 2, 1),
+    LOTO_3S(List.of("loto3s", "loto-3s"), Regions.BOTH, 1, 3, 1),
+    LOTO_4S(List.of("loto4s", "loto-4s"), Regions.BOTH, 1, 4, 1),
+    LOTO_XIEN_2(List.of("loto-xien-2"), Regions.BOTH, 1, 2, 2),
+    LOTO_XIEN_3(List.of("loto-xien-3"), Regions.BOTH, 1, 2, 3),
+    LOTO_XIEN_4(List.of("loto-xien-4"), Regions.BOTH, 1, 2, 4),
+    DAC_BIET_3S(List.of("3s-dac-biet"), Regions.BOTH, 1, 3, 1),
+    DAC_BIET_4S(List.of("4s-dac-biet"), Regions.BOTH, 1, 4, 1),
+    GIAI_NHAT(List.of("giai-nhat"), Regions.MIEN_BAC_ONLY, 1, 2, 1),
+    GIAI_NHAT_3S(List.of("3s-giai-nhat"), Regions.MIEN_BAC_ONLY, 1, 3, 1),
+    GIAI_6_3S(List.of("3s-giai-6"), Regions.MIEN_BAC_ONLY, 3, 3, 1),           // Giải 6 có 3 số
+    DE_GIAI_7(List.of("de-giai-7"), Regions.MIEN_BAC_ONLY, 4, 2, 1),           // Giải 7 có 4 số
+    DAU_DUOI(List.of("dau-duoi"), Regions.MIEN_BAC_ONLY, 5, 2, 1),             // ĐB (1) + Giải 7 (4)
+    DAU_DUOI_3S(List.of("3s-dau-duoi"), Regions.MIEN_BAC_ONLY, 4, 3, 1),       // ĐB (1) + Giải 6 (3)
+    DAC_BIET(List.of("dac-biet"), Regions.BOTH, 1, 2, 1),
+    DAU_DAC_BIET(List.of("dau-dac-biet"), Regions.BOTH, 1, 2, 1),
+    DE_GIAI_8(List.of("de-giai-8"), Regions.MIEN_TRUNG_NAM_ONLY, 1, 2, 1),
+    DAU_DUOI_MIEN_TRUNG_NAM(List.of("dau-duoi-mien-trung-nam"), Regions.MIEN_TRUNG_NAM_ONLY, 2, 2, 1),       // ĐB (1) + Giải 8 (1)
+    DAU_DUOI_3S_MIEN_TRUNG_NAM(List.of("3s-dau-duoi-mien-trung-nam"), Regions.MIEN_TRUNG_NAM_ONLY, 2, 3, 1), // ĐB (1) + Giải 7 (1)
+    GIAI_7_3S(List.of("3s-giai-7"), Regions.MIEN_TRUNG_NAM_ONLY, 1, 3, 1),
+    LOTO_TRUOT_4(List.of("loto-truot-4"), Regions.BOTH, 1, 2, 4),
+    LOTO_TRUOT_8(List.of("loto-truot-8"), Regions.BOTH, 1, 2, 8),
+    LOTO_TRUOT_10(List.of("loto-truot-10"), Regions.BOTH, 1, 2, 10);
+
+    public static final String MIEN_BAC = "mienBac";
+    public static final String MIEN_TRUNG_NAM = "mienTrungNam";
+
+    // alias → loại cược, tra 1 lần cho mỗi bet
+    private static final Map<String, BetType> BY_ALIAS;
+
+    static {
+        Map<String, BetType> byAlias = new HashMap<>();
+        for (BetType type : values()) {
+            for (String alias : type.aliases) {
+                if (byAlias.put(alias, type) != null) {
+                    throw new IllegalStateException("Duplicate bet type alias: " + alias);
+                }
+            }
+        }
+        BY_ALIAS = Collections.unmodifiableMap(byAlias);
+    }
+
+    private final List<String> aliases;
+    private final Set<String> regions;
+    private final int multiplier;
+    private final int digits;
+    private final int groupSize;
+
+    BetType(List<String> aliases, Set<String> regions, int multiplier, int digits, int groupSize) {
+        this.aliases = aliases;
+        this.regions = regions;
+        this.multiplier = multiplier;
+        this.digits = digits;
+        this.groupSize = groupSize;
+    }
+
+    /**
+     * Tìm loại cược theo mã betType, null nếu không hỗ trợ
+     */
+    public static BetType fromCode(String code) {
+        return code != null ? BY_ALIAS.get(code) : null;
+    }
+
+    /**
+     * Mã chuẩn của loại cược
+     */
+    public String getCode() {
+        return aliases.get(0);
+    }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    public Set<String> getRegions() {
+        return regions;
+    }
+
+    public boolean isAllowedIn(String region) {
+        return regions.contains(region);
+    }
+
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    public int getDigits() {
+        return digits;
+    }
+
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    // Tách riêng class vì field static của enum chỉ được khởi tạo SAU các hằng enum
+    private static final class Regions {
+        private static final Set<String> BOTH = Set.of(MIEN_BAC, MIEN_TRUNG_NAM);
+        private static final Set<String> MIEN_BAC_ONLY = Set.of(MIEN_BAC);
+        private static final Set<String> MIEN_TRUNG_NAM_ONLY = Set.of(MIEN_TRUNG_NAM);
+    }
+}
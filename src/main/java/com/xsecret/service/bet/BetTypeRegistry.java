@@ -0,0 +1,133 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.entity.Bet;
+import com.xsecret.service.bet.checker.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Registry loại cược: resolve betType 1 lần bằng hash lookup, dispatch tới checker tương ứng
+ * Dùng chung cho đặt cược (miền, multiplier, định dạng số) và check kết quả
+ * Loại cược không có trong BetType bị từ chối, không có kết quả mặc định
+ */
+@Component
+@Slf4j
+public class BetTypeRegistry {
+
+    private final Map<BetType, Predicate<Bet>> checkers = new EnumMap<>(BetType.class);
+
+    public BetTypeRegistry(Loto2sResultChecker loto2sChecker,
+                           Loto3sResultChecker loto3sChecker,
+                           Loto4sResultChecker loto4sChecker,
+                           XienResultChecker xienChecker,
+                           SpecialResultChecker specialChecker,
+                           TruotResultChecker truotChecker) {
+        for (BetType type : BetType.values()) {
+            // switch đầy đủ: thêm BetType mới mà thiếu checker sẽ lỗi compile
+            Predicate<Bet> checker = switch (type) {
+                case LOTO_2S -> loto2sChecker::checkResult;
+                case LOTO_3S -> loto3sChecker::checkResult;
+                case LOTO_4S -> loto4sChecker::checkResult;
+                case LOTO_XIEN_2 -> xienChecker::checkXien2Result;
+                case LOTO_XIEN_3 -> xienChecker::checkXien3Result;
+                case LOTO_XIEN_4 -> xienChecker::checkXien4Result;
+                case DAC_BIET_3S -> specialChecker::check3sDacBietResult;
+                case DAC_BIET_4S -> specialChecker::check4sDacBietResult;
+                case GIAI_NHAT -> specialChecker::checkGiaiNhatResult;
+                case GIAI_NHAT_3S -> specialChecker::check3sGiaiNhatResult;
+                case GIAI_6_3S -> specialChecker::check3sGiai6Result;
+                case DE_GIAI_7 -> specialChecker::checkDeGiai7Result;
+                case DAU_DUOI -> specialChecker::checkDauDuoiResult;
+                case DAU_DUOI_3S -> specialChecker::check3sDauDuoiResult;
+                case DAC_BIET -> specialChecker::checkDacBietResult;
+                case DAU_DAC_BIET -> specialChecker::checkDauDacBietResult;
+                case DE_GIAI_8 -> specialChecker::checkDeGiai8Result;
+                case DAU_DUOI_MIEN_TRUNG_NAM -> specialChecker::checkDauDuoiMienTrungNamResult;
+                case DAU_DUOI_3S_MIEN_TRUNG_NAM -> specialChecker::check3sDauDuoiMienTrungNamResult;
+                case GIAI_7_3S -> specialChecker::check3sGiai7Result;
+                case LOTO_TRUOT_4 -> truotChecker::checkTruot4Result;
+                case LOTO_TRUOT_8 -> truotChecker::checkTruot8Result;
+                case LOTO_TRUOT_10 -> truotChecker::checkTruot10Result;
+            };
+            checkers.put(type, checker);
+        }
+        log.info("Bet type registry initialized with {} bet types", checkers.size());
+    }
+
+    /**
+     * Resolve mã betType, throw nếu không hỗ trợ
+     */
+    public BetType resolve(String betType) {
+        BetType type = BetType.fromCode(betType);
+        if (type == null) {
+            throw new RuntimeException("Loại cược '" + betType + "' chưa được hỗ trợ. Hiện tại hỗ trợ: " + describeSupportedTypes());
+        }
+        return type;
+    }
+
+    public boolean isSupported(String betType) {
+        return BetType.fromCode(betType) != null;
+    }
+
+    /**
+     * Check kết quả bet bằng checker của loại cược
+     * Checker set bet.winningNumbers nếu thắng
+     */
+    public boolean checkResult(Bet bet) {
+        return checkers.get(resolve(bet.getBetType())).test(bet);
+    }
+
+    /**
+     * Kiểm tra loại cược được đặt ở miền này và selection đúng định dạng
+     */
+    public void validateSelection(BetType type, String region, List<String> selections) {
+        if (!type.isAllowedIn(region)) {
+            throw new RuntimeException("Loại cược '" + type.getCode() + "' không hỗ trợ cho miền " + region);
+        }
+        if (selections == null || selections.isEmpty()) {
+            throw new RuntimeException("Vui lòng chọn ít nhất 1 số");
+        }
+        for (String selection : selections) {
+            String[] numbers = selection != null ? selection.split(",") : new String[0];
+            if (numbers.length != type.getGroupSize()) {
+                throw new RuntimeException("Lựa chọn '" + selection + "' không hợp lệ: loại cược '" + type.getCode()
+                        + "' cần " + type.getGroupSize() + " số mỗi lựa chọn");
+            }
+            for (String number : numbers) {
+                if (!isDigits(number.trim(), type.getDigits())) {
+                    throw new RuntimeException("Số '" + number.trim() + "' không hợp lệ: loại cược '" + type.getCode()
+                            + "' cần số có " + type.getDigits() + " chữ số");
+                }
+            }
+        }
+    }
+
+    private boolean isDigits(String number, int digits) {
+        if (number.length() != digits) {
+            return false;
+        }
+        for (int i = 0; i < digits; i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String describeSupportedTypes() {
+        return Arrays.stream(BetType.values())
+                .map(type -> String.join("/", type.getAliases())
+                        + (type.getRegions().size() == 1
+                                ? (type.isAllowedIn(BetType.MIEN_BAC) ? " (chỉ Miền Bắc)" : " (chỉ Miền Trung Nam)")
+                                : " (cả 2 miền)"))
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,250 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.dto.response.NumberExposureResponse;
+import com.xsecret.entity.Bet;
+import com.xsecret.repository.BetRepository;
+import com.xsecret.service.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Theo dõi tổng tiền phải trả (exposure) theo từng số của từng kỳ quay, hoàn toàn trong bộ nhớ
+ * - Key: kỳ quay (region, province, resultDate) → (loại cược chuẩn BetType, số/bộ số) → LongAdder
+ * - Exposure của 1 số = betAmount × odds (tiền trả nếu số đó về 1 lần)
+ * - Cộng khi đặt cược, trừ khi hủy / admin xóa / có kết quả (sau khi transaction commit)
+ * - Hạn mức trả thưởng mỗi số (app.exposure.max-payout-per-number, 0 = tắt) kiểm tra lúc đặt cược,
+ *   không tốn thêm query nào
+ * - Khởi động: dựng lại từ các bet PENDING trong DB (keyset theo id)
+ *
+ * Kiểm tra hạn mức theo kiểu cộng trước rồi so sánh: 2 lệnh cược cùng lúc chạm hạn mức có thể cùng
+ * bị từ chối, nhưng tổng đã chấp nhận không bao giờ vượt hạn mức.
+ */
+@Component
+@Slf4j
+public class ExposureTracker {
+
+    private final BetRepository betRepository;
+    private final long maxPayoutPerNumber;
+    private final int rebuildPageSize;
+
+    private final Map<DrawKey, Map<NumberKey, LongAdder>> draws = new ConcurrentHashMap<>();
+
+    // Trạng thái dựng lại lúc khởi động: thay đổi trực tiếp của bet mà scan chưa tới được ghi vào touchedBetIds
+    // và scan sẽ bỏ qua các bet đó (tránh cộng 2 lần / trừ bet chưa từng được cộng)
+    private final Object rebuildLock = new Object();
+    private volatile boolean rebuilding = true;
+    private long scannedUpToId = 0L;
+    private Set<Long> touchedBetIds = ConcurrentHashMap.newKeySet();
+
+    public ExposureTracker(BetRepository betRepository,
+                           @Value("${app.exposure.max-payout-per-number:0}") long maxPayoutPerNumber,
+                           @Value("${app.exposure.rebuild-page-size:2000}") int rebuildPageSize) {
+        this.betRepository = betRepository;
+        this.maxPayoutPerNumber = maxPayoutPerNumber;
+        this.rebuildPageSize = Math.max(1, rebuildPageSize);
+    }
+
+    /**
+     * Ghi nhận bet vừa đặt (đã save, có id) và kiểm tra hạn mức trả thưởng
+     * Vượt hạn mức → throw, không cộng gì; transaction rollback → tự trừ lại
+     */
+    public void reserve(Bet bet) {
+        Exposure exposure = exposureOf(bet);
+        if (exposure == null) {
+            return;
+        }
+        Long betId = bet.getId();
+        apply(betId, exposure, 1, true);
+        AfterCommit.onRollback(() -> apply(betId, exposure, -1, false));
+    }
+
+    /**
+     * Cộng exposure của bet (không kiểm tra hạn mức) - VD admin sửa số đã chọn
+     * Giá trị lấy tại thời điểm gọi, áp dụng sau khi transaction commit
+     */
+    public void add(Bet bet) {
+        Exposure exposure = exposureOf(bet);
+        if (exposure != null) {
+            Long betId = bet.getId();
+            AfterCommit.run(() -> apply(betId, exposure, 1, false));
+        }
+    }
+
+    /**
+     * Trừ exposure của bet khi bet không còn PENDING (hủy, xóa, đã có kết quả)
+     * Giá trị lấy tại thời điểm gọi, áp dụng sau khi transaction commit
+     */
+    public void release(Bet bet) {
+        Exposure exposure = exposureOf(bet);
+        if (exposure != null) {
+            Long betId = bet.getId();
+            AfterCommit.run(() -> apply(betId, exposure, -1, false));
+        }
+    }
+
+    /**
+     * Top N số có exposure cao nhất của 1 kỳ quay
+     */
+    public List<NumberExposureResponse> getTopExposed(String region, String province, String resultDate, int limit) {
+        Map<NumberKey, LongAdder> numbers = draws.get(new DrawKey(region, normalize(province), resultDate));
+        if (numbers == null) {
+            return List.of();
+        }
+
+        List<NumberExposureResponse> result = new ArrayList<>(numbers.size());
+        numbers.forEach((key, adder) -> {
+            long exposure = adder.sum();
+            if (exposure > 0) {
+                result.add(NumberExposureResponse.builder()
+                        .betType(key.betType().getCode())
+                        .number(key.number())
+                        .exposure(exposure)
+                        .maxPayout(maxPayoutPerNumber)
+                        .remaining(maxPayoutPerNumber > 0 ? Math.max(0, maxPayoutPerNumber - exposure) : null)
+                        .build());
+            }
+        });
+        result.sort(Comparator.comparingLong(NumberExposureResponse::getExposure).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Xóa các kỳ quay có resultDate trước ngày chỉ định (đã có kết quả, exposure không còn ý nghĩa)
+     * @return số kỳ quay đã xóa
+     */
+    public int purgeBefore(LocalDate date) {
+        String cutoff = date.toString();
+        int before = draws.size();
+        draws.keySet().removeIf(draw -> draw.resultDate() == null || draw.resultDate().compareTo(cutoff) < 0);
+        return before - draws.size();
+    }
+
+    /**
+     * Dựng lại exposure từ các bet PENDING trong DB khi ứng dụng khởi động xong
+     * (sau Flyway migration, VD V2_1__BackfillBetSelections)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        long counted = 0;
+        PageRequest page = PageRequest.ofSize(rebuildPageSize);
+
+        try {
+            while (true) {
+                List<Bet> bets = betRepository.findAllPendingBetsAfterId(lastId, page);
+                if (bets.isEmpty()) {
+                    break;
+                }
+                lastId = bets.get(bets.size() - 1).getId();
+
+                synchronized (rebuildLock) {
+                    for (Bet bet : bets) {
+                        Exposure exposure = exposureOf(bet);
+                        if (exposure != null && !touchedBetIds.contains(bet.getId())) {
+                            addTo(exposure, 1, false);
+                            counted++;
+                        }
+                    }
+                    scannedUpToId = lastId;
+                }
+
+                if (bets.size() < rebuildPageSize) {
+                    break;
+                }
+            }
+        } finally {
+            synchronized (rebuildLock) {
+                rebuilding = false;
+                touchedBetIds = null;
+            }
+        }
+
+        log.info("📊 Exposure rebuilt from {} pending bets across {} draws in {} ms (max payout per number: {})",
+                counted, draws.size(), System.currentTimeMillis() - start,
+                maxPayoutPerNumber > 0 ? maxPayoutPerNumber : "unlimited");
+    }
+
+    public long getMaxPayoutPerNumber() {
+        return maxPayoutPerNumber;
+    }
+
+    private void apply(Long betId, Exposure exposure, int sign, boolean enforceCap) {
+        if (rebuilding) {
+            synchronized (rebuildLock) {
+                if (rebuilding) {
+                    if (betId != null && betId > scannedUpToId) {
+                        boolean firstTouch = touchedBetIds.add(betId);
+                        if (sign < 0 && firstTouch) {
+                            // Bet có từ trước khi khởi động, scan chưa cộng → không trừ, scan cũng sẽ bỏ qua
+                            return;
+                        }
+                    }
+                    addTo(exposure, sign, enforceCap);
+                    return;
+                }
+            }
+        }
+        addTo(exposure, sign, enforceCap);
+    }
+
+    private void addTo(Exposure exposure, int sign, boolean enforceCap) {
+        Map<NumberKey, LongAdder> numbers = draws.computeIfAbsent(exposure.draw(), key -> new ConcurrentHashMap<>());
+        long delta = sign * exposure.payoutPerNumber();
+        List<String> selections = exposure.numbers();
+
+        for (int i = 0; i < selections.size(); i++) {
+            LongAdder adder = numbers.computeIfAbsent(new NumberKey(exposure.betType(), selections.get(i)),
+                    key -> new LongAdder());
+            adder.add(delta);
+
+            if (enforceCap && maxPayoutPerNumber > 0 && adder.sum() > maxPayoutPerNumber) {
+                // Hoàn lại các số đã cộng của bet này
+                for (int j = 0; j <= i; j++) {
+                    numbers.get(new NumberKey(exposure.betType(), selections.get(j))).add(-delta);
+                }
+                throw new RuntimeException("Số " + selections.get(i) + " đã đạt hạn mức trả thưởng của kỳ quay này. " +
+                        "Vui lòng chọn số khác hoặc giảm số điểm cược");
+            }
+        }
+    }
+
+    private Exposure exposureOf(Bet bet) {
+        BetType betType = BetType.fromCode(bet.getBetType());
+        List<String> selections = bet.getSelectedNumbers();
+        if (betType == null || selections == null || selections.isEmpty()
+                || bet.getBetAmount() == null || bet.getOdds() == null) {
+            return null;
+        }
+        long payout = bet.getBetAmount().multiply(bet.getOdds()).setScale(0, RoundingMode.CEILING).longValue();
+        return new Exposure(new DrawKey(bet.getRegion(), normalize(bet.getProvince()), bet.getResultDate()),
+                betType, List.copyOf(selections), payout);
+    }
+
+    private static String normalize(String province) {
+        return province != null ? province : "";
+    }
+
+    private record DrawKey(String region, String province, String resultDate) {
+    }
+
+    private record NumberKey(BetType betType, String number) {
+    }
+
+    private record Exposure(DrawKey draw, BetType betType, List<String> numbers, long payoutPerNumber) {
+    }
+}
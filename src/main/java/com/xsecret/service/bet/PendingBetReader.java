@@ -0,0 +1,87 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.entity.Bet;
+import com.xsecret.repository.BetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Đọc bet PENDING của 1 ngày kết quả theo từng trang cố định (keyset theo id)
+ * - Mỗi trang: WHERE id > lastId ORDER BY id LIMIT pageSize → không OFFSET, không load cả ngày
+ * - Thứ tự id = thứ tự đặt cược, nên bet của 1 user vẫn được xử lý đúng thứ tự
+ * - Nếu caller đang trong transaction: flush + clear persistence context sau mỗi trang
+ *   → bộ nhớ không tăng theo số bet trong ngày
+ * Caller không được giữ lại entity của trang trước (đã bị detach)
+ */
+@Component
+@Slf4j
+public class PendingBetReader {
+
+    private final BetRepository betRepository;
+    private final int pageSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PendingBetReader(BetRepository betRepository,
+                            @Value("${app.settlement.page-size:1000}") int pageSize) {
+        this.betRepository = betRepository;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Duyệt lần lượt từng trang bet PENDING của resultDate
+     * @return tổng số bet đã đọc
+     */
+    public long forEachPage(String resultDate, Consumer<List<Bet>> pageConsumer) {
+        long total = 0;
+        long lastId = 0L;
+        PageRequest page = PageRequest.ofSize(pageSize);
+
+        while (true) {
+            List<Bet> bets = betRepository.findPendingBetsAfterId(resultDate, lastId, page);
+            if (bets.isEmpty()) {
+                break;
+            }
+
+            lastId = bets.get(bets.size() - 1).getId();
+            total += bets.size();
+            log.debug("📄 Pending bet page for {}: {} bets, last id {}", resultDate, bets.size(), lastId);
+
+            pageConsumer.accept(bets);
+            releasePage();
+
+            if (bets.size() < pageSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Duyệt lần lượt từng bet PENDING của resultDate
+     * @return tổng số bet đã đọc
+     */
+    public long forEach(String resultDate, Consumer<Bet> betConsumer) {
+        return forEachPage(resultDate, bets -> bets.forEach(betConsumer));
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    private void releasePage() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.xsecret.service.bet;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Kết quả check 1 bet đã tính trong bộ nhớ, chưa ghi DB
+ * (BetService.evaluateBetResult → BetSettlementBatchWriter.writeChunk)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettledBet {
+
+    private Long betId;
+    private Long userId;
+    private String region;
+    private String province;
+    private boolean win;
+    private BigDecimal winAmount;      // Chỉ tiền lãi, 0 nếu thua
+    private List<String> winningNumbers; // Do checker set, null nếu thua
+}
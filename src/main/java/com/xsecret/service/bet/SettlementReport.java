@@ -0,0 +1,45 @@
+package com.xsecret.service.bet;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Kết quả 1 lần chạy settlement (check bet) của BetSettlementEngine
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementReport {
+
+    private String targetDate;
+    private int workers;
+    private long totalBets;
+    private long successCount;
+    private long skippedCount; // Chưa có kết quả xổ số
+    private long errorCount;
+    private long elapsedMs;
+    private List<PartitionReport> partitions;
+
+    /**
+     * Thống kê theo từng partition (region, province)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PartitionReport {
+        private String region;
+        private String province;
+        private long totalBets;
+        private long successCount;
+        private long skippedCount;
+        private long errorCount;
+        private long busyMs;          // Tổng thời gian xử lý các bet của partition
+        private double betsPerSecond; // Throughput tính theo busyMs
+    }
+}
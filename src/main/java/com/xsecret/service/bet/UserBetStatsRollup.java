@@ -0,0 +1,207 @@
+package com.xsecret.service.bet;
+
+import com.xsecret.dto.response.BetStatisticsResponse;
+import com.xsecret.entity.UserBetStats;
+import com.xsecret.repository.UserBetStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thống kê cược theo user (bảng user_bet_stats), cộng dồn thay vì quét toàn bộ lịch sử bet
+ * - Đặt cược: +số bet, +tiền cược; Settlement: +số bet thắng, +tiền thắng; Admin xóa bet PENDING: trừ lại
+ *   Gọi trong transaction của thao tác đó (JdbcTemplate dùng chung connection) → rollback thì thống kê cũng rollback
+ * - Hủy cược không đổi thống kê (bet hủy vẫn được đếm, giống các query cũ)
+ * - rebuild(): tính lại từ bảng bets (backfill lần đầu / sửa user bị lệch)
+ * - verify(): so sánh với bảng bets, sửa các user bị lệch (chạy hằng đêm)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserBetStatsRollup {
+
+    private static final String UPSERT_PLACED_SQL =
+            "INSERT INTO user_bet_stats (user_id, total_bets, won_bets, total_bet_amount, total_win_amount, updated_at) " +
+            "VALUES (?, ?, 0, ?, 0, ?) ON DUPLICATE KEY UPDATE total_bets = total_bets + VALUES(total_bets), " +
+            "total_bet_amount = total_bet_amount + VALUES(total_bet_amount), updated_at = VALUES(updated_at)";
+
+    private static final String UPSERT_WON_SQL =
+            "INSERT INTO user_bet_stats (user_id, total_bets, won_bets, total_bet_amount, total_win_amount, updated_at) " +
+            "VALUES (?, 0, ?, 0, ?, ?) ON DUPLICATE KEY UPDATE won_bets = won_bets + VALUES(won_bets), " +
+            "total_win_amount = total_win_amount + VALUES(total_win_amount), updated_at = VALUES(updated_at)";
+
+    private static final String UPDATE_REMOVED_SQL =
+            "UPDATE user_bet_stats SET total_bets = total_bets - 1, total_bet_amount = total_bet_amount - ?, " +
+            "won_bets = won_bets - ?, total_win_amount = total_win_amount - ?, updated_at = ? WHERE user_id = ?";
+
+    // Giá trị đúng tính từ bảng bets (cùng định nghĩa với các query countByUserId / getTotal...ByUserId cũ)
+    private static final String AGGREGATE_SQL =
+            "SELECT user_id, COUNT(*) AS total_bets, " +
+            "COALESCE(SUM(CASE WHEN is_win = TRUE THEN 1 ELSE 0 END), 0) AS won_bets, " +
+            "COALESCE(SUM(total_amount), 0) AS total_bet_amount, " +
+            "COALESCE(SUM(CASE WHEN is_win = TRUE THEN win_amount ELSE 0 END), 0) AS total_win_amount " +
+            "FROM bets";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO user_bet_stats (user_id, total_bets, won_bets, total_bet_amount, total_win_amount, updated_at) " +
+            "SELECT a.user_id, a.total_bets, a.won_bets, a.total_bet_amount, a.total_win_amount, ? FROM (" +
+            AGGREGATE_SQL + " %s GROUP BY user_id) a " +
+            "ON DUPLICATE KEY UPDATE total_bets = VALUES(total_bets), won_bets = VALUES(won_bets), " +
+            "total_bet_amount = VALUES(total_bet_amount), total_win_amount = VALUES(total_win_amount), " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final String MISMATCH_SQL =
+            "SELECT a.user_id FROM (" + AGGREGATE_SQL + " GROUP BY user_id) a " +
+            "LEFT JOIN user_bet_stats s ON s.user_id = a.user_id " +
+            "WHERE s.user_id IS NULL OR s.total_bets <> a.total_bets OR s.won_bets <> a.won_bets " +
+            "OR s.total_bet_amount <> a.total_bet_amount OR s.total_win_amount <> a.total_win_amount " +
+            "UNION SELECT s.user_id FROM user_bet_stats s " +
+            "WHERE s.total_bets <> 0 AND NOT EXISTS (SELECT 1 FROM bets b WHERE b.user_id = s.user_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserBetStatsRepository userBetStatsRepository;
+
+    /**
+     * Ghi nhận bet vừa đặt của 1 user (count bet, tổng tiền cược)
+     */
+    public void recordPlaced(Long userId, int count, BigDecimal totalAmount) {
+        jdbcTemplate.update(UPSERT_PLACED_SQL, userId, count, totalAmount, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Ghi nhận bet đặt theo lô: userId → [số bet, tổng tiền cược]
+     */
+    public void recordPlaced(Map<Long, Totals> placedByUser) {
+        if (placedByUser.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(placedByUser.size());
+        placedByUser.forEach((userId, totals) -> rows.add(new Object[] { userId, totals.count, totals.amount, now }));
+        jdbcTemplate.batchUpdate(UPSERT_PLACED_SQL, rows);
+    }
+
+    /**
+     * Ghi nhận bet thắng (settlement)
+     */
+    public void recordWon(Long userId, int count, BigDecimal winAmount) {
+        jdbcTemplate.update(UPSERT_WON_SQL, userId, count, winAmount, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Ghi nhận bet thắng theo chunk settlement: userId → [số bet thắng, tổng tiền thắng]
+     */
+    public void recordWon(Map<Long, Totals> wonByUser) {
+        if (wonByUser.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(wonByUser.size());
+        wonByUser.forEach((userId, totals) -> rows.add(new Object[] { userId, totals.count, totals.amount, now }));
+        jdbcTemplate.batchUpdate(UPSERT_WON_SQL, rows);
+    }
+
+    /**
+     * Trừ 1 bet khỏi thống kê (admin xóa bet)
+     */
+    public void recordRemoved(Long userId, BigDecimal totalAmount, boolean won, BigDecimal winAmount) {
+        jdbcTemplate.update(UPDATE_REMOVED_SQL, totalAmount, won ? 1 : 0,
+                won && winAmount != null ? winAmount : BigDecimal.ZERO,
+                Timestamp.valueOf(LocalDateTime.now()), userId);
+    }
+
+    /**
+     * Thống kê của user: 1 lần đọc theo khóa chính
+     */
+    @Transactional(readOnly = true)
+    public BetStatisticsResponse getStatistics(Long userId) {
+        UserBetStats stats = userBetStatsRepository.findById(userId).orElse(null);
+        long totalBets = stats != null ? stats.getTotalBets() : 0;
+        long wonBets = stats != null ? stats.getWonBets() : 0;
+        double totalBetAmount = stats != null ? stats.getTotalBetAmount().doubleValue() : 0;
+        double totalWinAmount = stats != null ? stats.getTotalWinAmount().doubleValue() : 0;
+
+        return BetStatisticsResponse.builder()
+                .totalBets(totalBets)
+                .wonBets(wonBets)
+                .lostBets(totalBets - wonBets)
+                .winRate(totalBets > 0 ? (double) wonBets / totalBets * 100 : 0)
+                .totalBetAmount(totalBetAmount)
+                .totalWinAmount(totalWinAmount)
+                .netProfit(totalWinAmount - totalBetAmount)
+                .build();
+    }
+
+    /**
+     * Tính lại thống kê của tất cả user từ bảng bets (backfill)
+     * @return số dòng MySQL báo thay đổi
+     */
+    @Transactional
+    public int rebuildAll() {
+        int changed = jdbcTemplate.update(String.format(REBUILD_SQL, ""), Timestamp.valueOf(LocalDateTime.now()));
+        log.info("📊 Rebuilt user bet stats from bets table ({} rows changed)", changed);
+        return changed;
+    }
+
+    /**
+     * Tính lại thống kê của 1 user từ bảng bets
+     */
+    public void rebuild(Long userId) {
+        int changed = jdbcTemplate.update(String.format(REBUILD_SQL, "WHERE user_id = ?"),
+                Timestamp.valueOf(LocalDateTime.now()), userId);
+        if (changed == 0) {
+            // User không còn bet nào
+            jdbcTemplate.update("UPDATE user_bet_stats SET total_bets = 0, won_bets = 0, total_bet_amount = 0, " +
+                    "total_win_amount = 0, updated_at = ? WHERE user_id = ?", Timestamp.valueOf(LocalDateTime.now()), userId);
+        }
+    }
+
+    /**
+     * Kiểm tra thống kê với bảng bets, sửa các user bị lệch
+     * @return số user bị lệch
+     */
+    @Scheduled(cron = "${app.bet-stats.verify-cron:0 30 3 * * ?}", zone = "Asia/Ho_Chi_Minh")
+    public int verify() {
+        List<Long> mismatched = jdbcTemplate.queryForList(MISMATCH_SQL, Long.class);
+        if (mismatched.isEmpty()) {
+            log.info("✅ User bet stats consistent with bets table");
+            return 0;
+        }
+        log.warn("⚠️ User bet stats mismatched for {} users, rebuilding: {}", mismatched.size(),
+                mismatched.size() > 20 ? mismatched.subList(0, 20) + "..." : mismatched);
+        mismatched.forEach(this::rebuild);
+        return mismatched.size();
+    }
+
+    /**
+     * Số bet + tổng tiền cộng dồn của 1 user trong 1 lô
+     */
+    public static final class Totals {
+
+        private int count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        public void add(BigDecimal value) {
+            count++;
+            amount = amount.add(value != null ? value : BigDecimal.ZERO);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+}
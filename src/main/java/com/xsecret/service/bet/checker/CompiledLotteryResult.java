@@ -0,0 +1,188 @@
+package com.xsecret.service.bet.checker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kết quả xổ số của 1 kỳ quay đã được "biên dịch" sẵn (immutable)
+ * - JSON kết quả chỉ parse đúng 1 lần khi load LotteryResult
+ * - Các giải lưu dưới dạng mảng, không cần đọc lại JSON mỗi lần gọi getter
+ * - Bảng đếm số lần xuất hiện theo 2/3/4 số cuối của TẤT CẢ giải
+ *   → loto/xiên/trượt tra mỗi số đã chọn với chi phí O(1)
+ */
+public final class CompiledLotteryResult implements LotteryResultProvider {
+
+    private final Long resultId;
+    private final String[] allNumbers;
+    private final String dacBietNumber;
+    private final String giaiNhatNumber;
+    private final String[] giai6Numbers;
+    private final String[] giai7Numbers;
+    private final String[] giai8Numbers;
+
+    // Số lần xuất hiện của mỗi giá trị 2/3/4 số cuối trong tất cả giải
+    private final int[] lastTwoHits = new int[100];
+    private final int[] lastThreeHits = new int[1000];
+    private final int[] lastFourHits = new int[10000];
+
+    private CompiledLotteryResult(Long resultId, Map<String, Object> resultsMap) {
+        this.resultId = resultId;
+
+        List<String> numbers = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : resultsMap.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                numbers.add((String) value);
+            } else if (value instanceof List) {
+                for (Object item : (List<?>) value) {
+                    if (item instanceof String) {
+                        numbers.add((String) item);
+                    }
+                }
+            }
+        }
+        this.allNumbers = numbers.toArray(new String[0]);
+
+        Object dacBiet = resultsMap.get("dac-biet");
+        this.dacBietNumber = dacBiet != null ? dacBiet.toString() : null;
+        Object giaiNhat = resultsMap.get("giai-nhat");
+        this.giaiNhatNumber = giaiNhat != null ? giaiNhat.toString() : null;
+        this.giai6Numbers = toTier(resultsMap.get("giai-sau"));
+        this.giai7Numbers = toTier(resultsMap.get("giai-bay"));
+        this.giai8Numbers = toTier(resultsMap.get("giai-tam"));
+
+        for (String number : allNumbers) {
+            countSuffix(number, 2, lastTwoHits);
+            countSuffix(number, 3, lastThreeHits);
+            countSuffix(number, 4, lastFourHits);
+        }
+    }
+
+    /**
+     * Biên dịch kết quả từ map đã parse (key: "dac-biet", "giai-nhat", ..., "giai-tam")
+     */
+    public static CompiledLotteryResult compile(Long resultId, Map<String, Object> resultsMap) {
+        return new CompiledLotteryResult(resultId, resultsMap != null ? resultsMap : Collections.emptyMap());
+    }
+
+    /**
+     * Biên dịch kết quả rỗng (dùng khi JSON kết quả lỗi)
+     */
+    public static CompiledLotteryResult empty(Long resultId) {
+        return new CompiledLotteryResult(resultId, Collections.emptyMap());
+    }
+
+    public Long getResultId() {
+        return resultId;
+    }
+
+    /**
+     * Số lần selectedNumber (2 chữ số) xuất hiện ở 2 số cuối của tất cả giải
+     * Tương đương vòng lặp result.substring(length - 2).equals(selectedNumber)
+     */
+    public int countLastTwo(String selectedNumber) {
+        int index = toIndex(selectedNumber, 2);
+        return index < 0 ? 0 : lastTwoHits[index];
+    }
+
+    /**
+     * Số lần selectedNumber (3 chữ số) xuất hiện ở 3 số cuối của tất cả giải
+     */
+    public int countLastThree(String selectedNumber) {
+        int index = toIndex(selectedNumber, 3);
+        return index < 0 ? 0 : lastThreeHits[index];
+    }
+
+    /**
+     * Số lần selectedNumber (4 chữ số) xuất hiện ở 4 số cuối của tất cả giải
+     */
+    public int countLastFour(String selectedNumber) {
+        int index = toIndex(selectedNumber, 4);
+        return index < 0 ? 0 : lastFourHits[index];
+    }
+
+    @Override
+    public List<String> getLotteryResults() {
+        return Collections.unmodifiableList(Arrays.asList(allNumbers));
+    }
+
+    @Override
+    public String getDacBietNumber() {
+        return dacBietNumber;
+    }
+
+    @Override
+    public String getGiaiNhatNumber() {
+        return giaiNhatNumber;
+    }
+
+    @Override
+    public String getGiai8Number() {
+        return giai8Numbers.length > 0 ? giai8Numbers[0] : null;
+    }
+
+    @Override
+    public String getGiai7Number() {
+        return giai7Numbers.length > 0 ? giai7Numbers[0] : null;
+    }
+
+    @Override
+    public List<String> getGiai7Numbers() {
+        return Collections.unmodifiableList(Arrays.asList(giai7Numbers));
+    }
+
+    @Override
+    public List<String> getGiai6Numbers() {
+        return Collections.unmodifiableList(Arrays.asList(giai6Numbers));
+    }
+
+    @Override
+    public List<String> getGiai8Numbers() {
+        return Collections.unmodifiableList(Arrays.asList(giai8Numbers));
+    }
+
+    private static String[] toTier(Object value) {
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            String[] tier = new String[list.size()];
+            for (int i = 0; i < tier.length; i++) {
+                tier[i] = list.get(i).toString();
+            }
+            return tier;
+        } else if (value instanceof String) {
+            return new String[] { (String) value };
+        }
+        return new String[0];
+    }
+
+    private static void countSuffix(String number, int width, int[] hits) {
+        if (number == null || number.length() < width) {
+            return;
+        }
+        int index = toIndex(number.substring(number.length() - width), width);
+        if (index >= 0) {
+            hits[index]++;
+        }
+    }
+
+    /**
+     * Chuyển chuỗi đúng width chữ số thành index bảng đếm, -1 nếu không hợp lệ
+     */
+    static int toIndex(String digits, int width) {
+        if (digits == null || digits.length() != width) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < width; i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -1,6 +1,5 @@
 package com.xsecret.service.bet.checker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xsecret.entity.Bet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +18,6 @@ import java.util.List;
 public class Loto2sResultChecker {
     
     private final DatabaseLotteryResultProvider databaseProvider;
-    private final ObjectMapper objectMapper;
     
     /**
      * Kiểm tra kết quả loto2s: tìm tất cả số trúng và tính tiền thắng cho từng số
@@ -27,23 +25,18 @@ public class Loto2sResultChecker {
      */
     public boolean checkResult(Bet bet) {
         try {
-            // Parse selected numbers từ JSON
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedNumbers = bet.getSelectedNumbers();
             
             // Lấy kết quả xổ số từ database
-            databaseProvider.setContext(bet);
-            List<String> lotteryResults = databaseProvider.getLotteryResults();
+            CompiledLotteryResult compiledResult = databaseProvider.getResultForBet(bet);
             
-            // Tìm TẤT CẢ số trúng (không break để đếm được nhiều lần)
+            // Tìm TẤT CẢ số trúng (mỗi lần xuất hiện ở 2 số cuối tính 1 lần)
+            // Tra bảng đếm O(1) thay vì substring từng giải
             List<String> winningNumbers = new ArrayList<>();
             for (String selectedNumber : selectedNumbers) {
-                for (String result : lotteryResults) {
-                    if (result.length() >= 2) {
-                        String lastTwoDigits = result.substring(result.length() - 2);
-                        if (selectedNumber.equals(lastTwoDigits)) {
-                            winningNumbers.add(selectedNumber);
-                        }
-                    }
+                int hits = compiledResult.countLastTwo(selectedNumber);
+                for (int i = 0; i < hits; i++) {
+                    winningNumbers.add(selectedNumber);
                 }
             }
             
@@ -51,7 +44,7 @@ public class Loto2sResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             return true;
             
         } catch (RuntimeException e) {
@@ -67,22 +60,4 @@ public class Loto2sResultChecker {
             return false;
         }
     }
-    
-    private List<String> parseSelectedNumbers(String selectedNumbersJson) {
-        try {
-            return objectMapper.readValue(selectedNumbersJson, 
-                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-        } catch (Exception e) {
-            return List.of();
-        }
-    }
-    
-    private String convertToJsonString(List<String> list) {
-        try {
-            return objectMapper.writeValueAsString(list);
-        } catch (Exception e) {
-            return "[]";
-        }
-    }
 }
-
@@ -0,0 +1,126 @@
+package com.xsecret.service.bet.checker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xsecret.entity.LotteryResult;
+import com.xsecret.repository.LotteryResultRepository;
+import com.xsecret.service.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache dùng chung (thread-safe) các kết quả xổ số ĐÃ PUBLISHED, đã biên dịch sẵn
+ * - Key: (region, province, drawDate)
+ * - Load từ DB đúng 1 lần cho mỗi kỳ quay, sau đó mọi bet của kỳ đó dùng chung
+ * - LotteryResultService gọi evict khi publish/unpublish/update/delete kết quả
+ * - Chỉ cache kết quả đã có, KHÔNG cache trường hợp chưa có kết quả
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LotteryResultCache {
+
+    // Settlement chỉ cần các kỳ gần đây, giữ tối đa bấy nhiêu kỳ trong bộ nhớ
+    private static final int MAX_CACHED_DRAWS = 64;
+
+    private final LotteryResultRepository lotteryResultRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<DrawKey, CompiledLotteryResult> cache = new ConcurrentHashMap<>();
+
+    // Tăng mỗi lần evict, tránh ghi đè cache bằng dữ liệu cũ đang load dở
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Lấy kết quả đã published cho kỳ quay, null nếu chưa có kết quả
+     */
+    public CompiledLotteryResult getPublishedResult(String region, String province, LocalDate drawDate) {
+        DrawKey key = new DrawKey(region, province, drawDate);
+        CompiledLotteryResult cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generationBeforeLoad = generation.get();
+        LotteryResult result = lotteryResultRepository.findPublishedResult(region, province, drawDate).orElse(null);
+        if (result == null) {
+            return null;
+        }
+
+        CompiledLotteryResult compiled = compile(result);
+        if (generation.get() == generationBeforeLoad) {
+            CompiledLotteryResult existing = cache.putIfAbsent(key, compiled);
+            if (existing != null) {
+                return existing;
+            }
+            trimIfNeeded();
+            log.info("Cached lottery result: region={}, province={}, drawDate={}, result_id={}",
+                    region, province, drawDate, result.getId());
+        }
+        return compiled;
+    }
+
+    /**
+     * Xóa kết quả của kỳ quay khỏi cache
+     * Nếu đang trong transaction thì xóa thêm 1 lần sau khi commit
+     * để không giữ lại dữ liệu bị load trong lúc transaction chưa commit
+     */
+    public void evict(String region, String province, LocalDate drawDate) {
+        DrawKey key = new DrawKey(region, province, drawDate);
+        evictNow(key);
+
+        AfterCommit.run(() -> evictNow(key));
+    }
+
+    /**
+     * Xóa toàn bộ cache
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+        log.info("Lottery result cache cleared");
+    }
+
+    private void evictNow(DrawKey key) {
+        generation.incrementAndGet();
+        if (cache.remove(key) != null) {
+            log.info("Evicted lottery result from cache: region={}, province={}, drawDate={}",
+                    key.region(), key.province(), key.drawDate());
+        }
+    }
+
+    /**
+     * Bỏ các kỳ quay cũ nhất khi vượt quá giới hạn
+     */
+    private void trimIfNeeded() {
+        int overflow = cache.size() - MAX_CACHED_DRAWS;
+        if (overflow <= 0) {
+            return;
+        }
+        cache.keySet().stream()
+                .sorted(Comparator.comparing(DrawKey::drawDate))
+                .limit(overflow)
+                .toList()
+                .forEach(cache::remove);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledLotteryResult compile(LotteryResult result) {
+        try {
+            Map<String, Object> resultsMap = objectMapper.readValue(result.getResults(), Map.class);
+            return CompiledLotteryResult.compile(result.getId(), resultsMap);
+        } catch (Exception e) {
+            log.error("Lỗi parse JSON kết quả xổ số: {}", e.getMessage());
+            return CompiledLotteryResult.empty(result.getId());
+        }
+    }
+
+    private record DrawKey(String region, String province, LocalDate drawDate) {
+    }
+}
@@ -1,9 +1,10 @@
 package com.xsecret.service.bet.checker;
 
+import com.xsecret.entity.Bet;
 import org.springframework.stereotype.Component;
 
 /**
- * Factory để lấy LotteryResultProvider phù hợp theo region
+ * Factory để lấy LotteryResultProvider phù hợp cho bet
  */
 @Component
 public class LotteryResultProviderFactory {
@@ -15,13 +16,13 @@ public class LotteryResultProviderFactory {
     }
     
     /**
-     * Lấy provider phù hợp theo region
-     * @param region "mienBac" hoặc "mienTrungNam"
-     * @return DatabaseLotteryResultProvider (dùng chung cho cả 2 region)
+     * Lấy provider phù hợp cho bet
+     * @param bet Bet cần check (region, province, resultDate xác định kỳ quay)
+     * @return Kết quả đã biên dịch của kỳ quay (immutable, dùng chung giữa các thread)
      */
-    public LotteryResultProvider getProvider(String region) {
+    public LotteryResultProvider getProvider(Bet bet) {
         // Dùng database provider cho tất cả regions
-        // Provider sẽ tự động lấy kết quả theo region/province từ database
-        return databaseProvider;
+        // Kết quả lấy theo region/province/resultDate của bet từ cache dùng chung
+        return databaseProvider.getResultForBet(bet);
     }
 }
@@ -1,6 +1,5 @@
 package com.xsecret.service.bet.checker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xsecret.entity.Bet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +21,6 @@ import java.util.List;
 public class SpecialResultChecker {
     
     private final DatabaseLotteryResultProvider databaseProvider;
-    private final ObjectMapper objectMapper;
     
     /**
      * 3s đặc biệt: CHỈ check 3 số cuối của giải đặc biệt (không phải tất cả giải)
@@ -30,9 +28,8 @@ public class SpecialResultChecker {
      */
     public boolean check3sDacBietResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             
             if (dacBietNumber == null || dacBietNumber.length() < 3) {
@@ -58,7 +55,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("3s đặc biệt WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -82,9 +79,8 @@ public class SpecialResultChecker {
      */
     public boolean check4sDacBietResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             
             if (dacBietNumber == null || dacBietNumber.length() < 4) {
@@ -110,7 +106,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("4s đặc biệt WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -134,9 +130,8 @@ public class SpecialResultChecker {
      */
     public boolean checkGiaiNhatResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String giaiNhatNumber = resultProvider.getGiaiNhatNumber();
             
             if (giaiNhatNumber == null || giaiNhatNumber.length() < 2) {
@@ -160,7 +155,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("Giai-nhat WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -184,9 +179,8 @@ public class SpecialResultChecker {
      */
     public boolean check3sGiaiNhatResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String giaiNhatNumber = resultProvider.getGiaiNhatNumber();
             
             if (giaiNhatNumber == null || giaiNhatNumber.length() < 3) {
@@ -210,7 +204,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("3s-giai-nhat WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -234,9 +228,8 @@ public class SpecialResultChecker {
      */
     public boolean checkDacBietResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             
             if (dacBietNumber == null || dacBietNumber.length() < 2) {
@@ -266,7 +259,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("✅ [DEBUG] Đặc biệt WIN bet_id={}: {} winning numbers: {}", 
                     bet.getId(), winningNumbers.size(), winningNumbers);
             return true;
@@ -291,9 +284,8 @@ public class SpecialResultChecker {
      */
     public boolean checkDauDacBietResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             
             if (dacBietNumber == null || dacBietNumber.length() < 2) {
@@ -318,7 +310,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("Dau-dac-biet WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -345,11 +337,10 @@ public class SpecialResultChecker {
      */
     public boolean checkDauDuoiResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedNumbers = bet.getSelectedNumbers();
             
             // Lấy 2 số cuối của giải đặc biệt
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             String dacBietLastTwo = null;
             if (dacBietNumber != null && dacBietNumber.length() >= 2) {
@@ -391,7 +382,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("Dau-duoi WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -418,11 +409,10 @@ public class SpecialResultChecker {
      */
     public boolean checkDauDuoiMienTrungNamResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedNumbers = bet.getSelectedNumbers();
             
             // Lấy 2 số cuối của giải đặc biệt
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             String dacBietLastTwo = null;
             if (dacBietNumber != null && dacBietNumber.length() >= 2) {
@@ -464,7 +454,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("dau-duoi-mien-trung-nam WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -491,11 +481,10 @@ public class SpecialResultChecker {
      */
     public boolean check3sDauDuoiResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedNumbers = bet.getSelectedNumbers();
             
             // Lấy 3 số cuối của giải đặc biệt
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             String dacBietLastThree = null;
             if (dacBietNumber != null && dacBietNumber.length() >= 3) {
@@ -537,7 +526,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("3s-dau-duoi WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -563,9 +552,8 @@ public class SpecialResultChecker {
      */
     public boolean check3sGiai6Result(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             List<String> giai6Numbers = resultProvider.getGiai6Numbers();
             
             if (giai6Numbers == null || giai6Numbers.isEmpty()) {
@@ -603,7 +591,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("3s-giai-6 WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -628,9 +616,8 @@ public class SpecialResultChecker {
      */
     public boolean checkDeGiai8Result(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String giai8Number = resultProvider.getGiai8Number();
             
             if (giai8Number == null || giai8Number.length() < 2) {
@@ -657,7 +644,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("De-giai-8 WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -683,9 +670,8 @@ public class SpecialResultChecker {
      */
     public boolean checkDeGiai7Result(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             List<String> giai7Numbers = resultProvider.getGiai7Numbers();
             
             if (giai7Numbers == null || giai7Numbers.isEmpty()) {
@@ -723,7 +709,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("De-giai-7 WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -750,11 +736,10 @@ public class SpecialResultChecker {
      */
     public boolean check3sDauDuoiMienTrungNamResult(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedNumbers = bet.getSelectedNumbers();
             
             // Lấy 3 số cuối của giải đặc biệt
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String dacBietNumber = resultProvider.getDacBietNumber();
             String dacBietLastThree = null;
             if (dacBietNumber != null && dacBietNumber.length() >= 3) {
@@ -796,7 +781,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("3s-dau-duoi-mien-trung-nam WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -821,9 +806,8 @@ public class SpecialResultChecker {
      */
     public boolean check3sGiai7Result(Bet bet) {
         try {
-            List<String> selectedNumbers = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
+            List<String> selectedNumbers = bet.getSelectedNumbers();
+            LotteryResultProvider resultProvider = databaseProvider.getResultForBet(bet);
             String giai7Number = resultProvider.getGiai7Number();
             
             if (giai7Number == null || giai7Number.length() < 3) {
@@ -850,7 +834,7 @@ public class SpecialResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningNumbers));
+            bet.setWinningNumbers(winningNumbers);
             log.info("3s-giai-7 WIN: {} winning numbers: {}", winningNumbers.size(), winningNumbers);
             return true;
             
@@ -867,24 +851,4 @@ public class SpecialResultChecker {
             throw new RuntimeException("Unexpected error checking 3s-giai-7 result: " + e.getMessage(), e);
         }
     }
-    
-    private List<String> parseSelectedNumbers(String selectedNumbersJson) {
-        try {
-            return objectMapper.readValue(selectedNumbersJson, 
-                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-        } catch (Exception e) {
-            log.error("Error parsing selected numbers: {}", e.getMessage());
-            return List.of();
-        }
-    }
-    
-    private String convertToJsonString(List<String> list) {
-        try {
-            return objectMapper.writeValueAsString(list);
-        } catch (Exception e) {
-            log.error("Error converting list to JSON: {}", e.getMessage());
-            return "[]";
-        }
-    }
 }
-
@@ -1,6 +1,5 @@
 package com.xsecret.service.bet.checker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xsecret.entity.Bet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +19,6 @@ import java.util.List;
 public class TruotResultChecker {
     
     private final DatabaseLotteryResultProvider databaseProvider;
-    private final ObjectMapper objectMapper;
     
     /**
      * Kiểm tra kết quả Loto trượt 4
@@ -29,10 +27,8 @@ public class TruotResultChecker {
      */
     public boolean checkTruot4Result(Bet bet) {
         try {
-            List<String> selectedGroups = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
-            List<String> lotteryResults = resultProvider.getLotteryResults();
+            List<String> selectedGroups = bet.getSelectedNumbers();
+            CompiledLotteryResult compiledResult = databaseProvider.getResultForBet(bet);
             
             // Tìm TẤT CẢ cụm THẮNG (cụm mà cả 4 số đều trượt)
             List<String> winningGroups = new ArrayList<>();
@@ -51,15 +47,9 @@ public class TruotResultChecker {
                     String trimmedNumber = number.trim();
                     
                     // Check số này có trúng trong kết quả xổ số không
-                    for (String result : lotteryResults) {
-                        if (result.length() >= 2) {
-                            String lastTwoDigits = result.substring(result.length() - 2);
-                            if (trimmedNumber.equals(lastTwoDigits)) {
-                                hasAnyWin = true;
-                                log.info("Loto truot-4: Số {} trong cụm {} TRÚNG → cụm này THUA", trimmedNumber, group);
-                                break;
-                            }
-                        }
+                    if (compiledResult.countLastTwo(trimmedNumber) > 0) {
+                        hasAnyWin = true;
+                        log.info("Loto truot-4: Số {} trong cụm {} TRÚNG → cụm này THUA", trimmedNumber, group);
                     }
                     
                     if (hasAnyWin) break; // Đã có số trúng → cụm này thua, không cần check tiếp
@@ -80,7 +70,7 @@ public class TruotResultChecker {
             }
             
             // Lưu danh sách cụm thắng
-            bet.setWinningNumbers(convertToJsonString(winningGroups));
+            bet.setWinningNumbers(winningGroups);
             log.info("Loto truot-4 WIN: {} winning groups: {}", winningGroups.size(), winningGroups);
             return true;
             
@@ -152,10 +142,8 @@ public class TruotResultChecker {
      */
     private boolean checkTruotNResult(Bet bet, int expectedCount) {
         try {
-            List<String> selectedGroups = parseSelectedNumbers(bet.getSelectedNumbers());
-            databaseProvider.setContext(bet);
-            LotteryResultProvider resultProvider = databaseProvider;
-            List<String> lotteryResults = resultProvider.getLotteryResults();
+            List<String> selectedGroups = bet.getSelectedNumbers();
+            CompiledLotteryResult compiledResult = databaseProvider.getResultForBet(bet);
             
             List<String> winningGroups = new ArrayList<>();
             
@@ -173,16 +161,10 @@ public class TruotResultChecker {
                 for (String number : numbers) {
                     String trimmedNumber = number.trim();
                     
-                    for (String result : lotteryResults) {
-                        if (result.length() >= 2) {
-                            String lastTwoDigits = result.substring(result.length() - 2);
-                            if (trimmedNumber.equals(lastTwoDigits)) {
-                                hasAnyWin = true;
-                                log.info("Loto truot-{}: Số {} trong cụm {} TRÚNG → cụm này THUA", 
-                                        expectedCount, trimmedNumber, group);
-                                break;
-                            }
-                        }
+                    if (compiledResult.countLastTwo(trimmedNumber) > 0) {
+                        hasAnyWin = true;
+                        log.info("Loto truot-{}: Số {} trong cụm {} TRÚNG → cụm này THUA", 
+                                expectedCount, trimmedNumber, group);
                     }
                     
                     if (hasAnyWin) break;
@@ -203,7 +185,7 @@ public class TruotResultChecker {
                 return false;
             }
             
-            bet.setWinningNumbers(convertToJsonString(winningGroups));
+            bet.setWinningNumbers(winningGroups);
             log.info("Loto truot-{} WIN: {} winning groups: {}", expectedCount, winningGroups.size(), winningGroups);
             return true;
             
@@ -220,24 +202,4 @@ public class TruotResultChecker {
             return false;
         }
     }
-    
-    private List<String> parseSelectedNumbers(String selectedNumbersJson) {
-        try {
-            return objectMapper.readValue(selectedNumbersJson, 
-                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-        } catch (Exception e) {
-            log.error("Error parsing selected numbers: {}", e.getMessage());
-            return List.of();
-        }
-    }
-    
-    private String convertToJsonString(List<String> list) {
-        try {
-            return objectMapper.writeValueAsString(list);
-        } catch (Exception e) {
-            log.error("Error converting list to JSON: {}", e.getMessage());
-            return "[]";
-        }
-    }
 }
-
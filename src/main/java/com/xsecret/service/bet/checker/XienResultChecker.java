@@ -1,6 +1,5 @@
 package com.xsecret.service.bet.checker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xsecret.entity.Bet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +18,6 @@ import java.util.List;
 public class XienResultChecker {
     
     private final DatabaseLotteryResultProvider databaseProvider;
-    private final ObjectMapper objectMapper;
     
     /**
      * Kiểm tra kết quả Loto xiên 2: check cặp số, cả 2 số trong cặp phải trúng
@@ -28,12 +26,10 @@ public class XienResultChecker {
      */
     public boolean checkXien2Result(Bet bet) {
         try {
-            // Parse selected pairs từ JSON
-            List<String> selectedPairs = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedPairs = bet.getSelectedNumbers();
             
             // Lấy kết quả xổ số từ database
-            databaseProvider.setContext(bet);
-            List<String> lotteryResults = databaseProvider.getLotteryResults();
+            CompiledLotteryResult compiledResult = databaseProvider.getResultForBet(bet);
             
             // Tìm TẤT CẢ cặp trúng
             List<String> winningPairs = new ArrayList<>();
@@ -50,20 +46,8 @@ public class XienResultChecker {
                 String secondNumber = numbers[1].trim();
                 
                 // Check cả 2 số trong cặp có trúng không
-                boolean firstWins = false;
-                boolean secondWins = false;
-                
-                for (String result : lotteryResults) {
-                    if (result.length() >= 2) {
-                        String lastTwoDigits = result.substring(result.length() - 2);
-                        if (firstNumber.equals(lastTwoDigits)) {
-                            firstWins = true;
-                        }
-                        if (secondNumber.equals(lastTwoDigits)) {
-                            secondWins = true;
-                        }
-                    }
-                }
+                boolean firstWins = compiledResult.countLastTwo(firstNumber) > 0;
+                boolean secondWins = compiledResult.countLastTwo(secondNumber) > 0;
                 
                 // Cả 2 số trong cặp phải trúng mới thắng cặp
                 if (firstWins && secondWins) {
@@ -80,7 +64,7 @@ public class XienResultChecker {
             }
             
             // Lưu danh sách cặp trúng vào bet
-            bet.setWinningNumbers(convertToJsonString(winningPairs));
+            bet.setWinningNumbers(winningPairs);
             log.info("Loto xiên 2 WIN: {} winning pairs: {}", winningPairs.size(), winningPairs);
             return true;
             
@@ -105,12 +89,10 @@ public class XienResultChecker {
      */
     public boolean checkXien3Result(Bet bet) {
         try {
-            // Parse selected groups từ JSON
-            List<String> selectedGroups = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedGroups = bet.getSelectedNumbers();
             
             // Lấy kết quả xổ số từ database
-            databaseProvider.setContext(bet);
-            List<String> lotteryResults = databaseProvider.getLotteryResults();
+            CompiledLotteryResult compiledResult = databaseProvider.getResultForBet(bet);
             
             // Tìm TẤT CẢ cụm trúng
             List<String> winningGroups = new ArrayList<>();
@@ -128,24 +110,9 @@ public class XienResultChecker {
                 String thirdNumber = numbers[2].trim();
                 
                 // Check cả 3 số trong cụm có trúng không
-                boolean firstWins = false;
-                boolean secondWins = false;
-                boolean thirdWins = false;
-                
-                for (String result : lotteryResults) {
-                    if (result.length() >= 2) {
-                        String lastTwoDigits = result.substring(result.length() - 2);
-                        if (firstNumber.equals(lastTwoDigits)) {
-                            firstWins = true;
-                        }
-                        if (secondNumber.equals(lastTwoDigits)) {
-                            secondWins = true;
-                        }
-                        if (thirdNumber.equals(lastTwoDigits)) {
-                            thirdWins = true;
-                        }
-                    }
-                }
+                boolean firstWins = compiledResult.countLastTwo(firstNumber) > 0;
+                boolean secondWins = compiledResult.countLastTwo(secondNumber) > 0;
+                boolean thirdWins = compiledResult.countLastTwo(thirdNumber) > 0;
                 
                 // Cả 3 số trong cụm phải trúng mới thắng cụm
                 if (firstWins && secondWins && thirdWins) {
@@ -162,7 +129,7 @@ public class XienResultChecker {
             }
             
             // Lưu danh sách cụm trúng vào bet
-            bet.setWinningNumbers(convertToJsonString(winningGroups));
+            bet.setWinningNumbers(winningGroups);
             log.info("Loto xiên 3 WIN: {} winning groups: {}", winningGroups.size(), winningGroups);
             return true;
             
@@ -187,12 +154,10 @@ public class XienResultChecker {
      */
     public boolean checkXien4Result(Bet bet) {
         try {
-            // Parse selected groups từ JSON
-            List<String> selectedGroups = parseSelectedNumbers(bet.getSelectedNumbers());
+            List<String> selectedGroups = bet.getSelectedNumbers();
             
             // Lấy kết quả xổ số từ database
-            databaseProvider.setContext(bet);
-            List<String> lotteryResults = databaseProvider.getLotteryResults();
+            CompiledLotteryResult compiledResult = databaseProvider.getResultForBet(bet);
             
             // Tìm TẤT CẢ cụm trúng
             List<String> winningGroups = new ArrayList<>();
@@ -211,28 +176,10 @@ public class XienResultChecker {
                 String fourthNumber = numbers[3].trim();
                 
                 // Check cả 4 số trong cụm có trúng không
-                boolean firstWins = false;
-                boolean secondWins = false;
-                boolean thirdWins = false;
-                boolean fourthWins = false;
-                
-                for (String result : lotteryResults) {
-                    if (result.length() >= 2) {
-                        String lastTwoDigits = result.substring(result.length() - 2);
-                        if (firstNumber.equals(lastTwoDigits)) {
-                            firstWins = true;
-                        }
-                        if (secondNumber.equals(lastTwoDigits)) {
-                            secondWins = true;
-                        }
-                        if (thirdNumber.equals(lastTwoDigits)) {
-                            thirdWins = true;
-                        }
-                        if (fourthNumber.equals(lastTwoDigits)) {
-                            fourthWins = true;
-                        }
-                    }
-                }
+                boolean firstWins = compiledResult.countLastTwo(firstNumber) > 0;
+                boolean secondWins = compiledResult.countLastTwo(secondNumber) > 0;
+                boolean thirdWins = compiledResult.countLastTwo(thirdNumber) > 0;
+                boolean fourthWins = compiledResult.countLastTwo(fourthNumber) > 0;
                 
                 // Cả 4 số trong cụm phải trúng mới thắng cụm
                 if (firstWins && secondWins && thirdWins && fourthWins) {
@@ -249,7 +196,7 @@ public class XienResultChecker {
             }
             
             // Lưu danh sách cụm trúng vào bet
-            bet.setWinningNumbers(convertToJsonString(winningGroups));
+            bet.setWinningNumbers(winningGroups);
             log.info("Loto xiên 4 WIN: {} winning groups: {}", winningGroups.size(), winningGroups);
             return true;
             
@@ -266,24 +213,4 @@ public class XienResultChecker {
             return false;
         }
     }
-    
-    private List<String> parseSelectedNumbers(String selectedNumbersJson) {
-        try {
-            return objectMapper.readValue(selectedNumbersJson, 
-                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-        } catch (Exception e) {
-            log.error("Error parsing selected numbers: {}", e.getMessage());
-            return List.of();
-        }
-    }
-    
-    private String convertToJsonString(List<String> list) {
-        try {
-            return objectMapper.writeValueAsString(list);
-        } catch (Exception e) {
-            log.error("Error converting list to JSON: {}", e.getMessage());
-            return "[]";
-        }
-    }
 }
-
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xsecret.dto.request.LotteryResultRequest;
 import com.xsecret.dto.vnlottery.VnLotteryIssue;
 import com.xsecret.service.LotteryResultService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +16,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service tự động import kết quả từ VnLottery vào database
@@ -26,6 +29,12 @@ public class LotteryResultAutoImportService {
     private final VnLotteryApiService vnLotteryApiService;
     private final LotteryResultService lotteryResultService;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    // Outcome của metrics lottery.import
+    private static final String IMPORT_SUCCESS = "success";
+    private static final String IMPORT_SKIPPED = "skipped";
+    private static final String IMPORT_FAILED = "failed";
     
     // Timezone Vietnam
     private static final ZoneId VN_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
@@ -38,6 +47,8 @@ public class LotteryResultAutoImportService {
      * Tự động import kết quả Miền Bắc
      */
     public void autoImportMienBac() {
+        long start = System.nanoTime();
+        String outcome = IMPORT_FAILED;
         try {
             log.info("🔄 Starting auto import for Miền Bắc...");
             
@@ -49,10 +60,12 @@ public class LotteryResultAutoImportService {
             
             // 3. Insert vào DB
             insertToDatabase(request, "Miền Bắc");
+            outcome = IMPORT_SUCCESS;
             
         } catch (RuntimeException e) {
             // Nếu là lỗi "chưa có kết quả hôm nay" thì chỉ log warning, không throw exception
             if (e.getMessage() != null && e.getMessage().contains("không phải ngày hôm nay")) {
+                outcome = IMPORT_SKIPPED;
                 log.warn("⚠️ Miền Bắc: {}", e.getMessage());
                 return; // Skip import, không throw exception
             }
@@ -63,6 +76,8 @@ public class LotteryResultAutoImportService {
         } catch (Exception e) {
             log.error("❌ Auto import Miền Bắc failed: {}", e.getMessage());
             throw new RuntimeException("Auto import Miền Bắc failed: " + e.getMessage());
+        } finally {
+            recordImport("mienBac", outcome, start);
         }
     }
     
@@ -70,6 +85,8 @@ public class LotteryResultAutoImportService {
      * Tự động import kết quả 1 tỉnh
      */
     public void autoImportProvince(String province) {
+        long start = System.nanoTime();
+        String outcome = IMPORT_FAILED;
         try {
             log.info("🔄 [DEBUG] Starting auto import for province: {}", province);
             
@@ -88,10 +105,12 @@ public class LotteryResultAutoImportService {
             log.info("💾 [DEBUG] Step 3: Inserting to database for province: {}", province);
             insertToDatabase(request, province);
             log.info("✅ [DEBUG] Step 3 COMPLETE: Saved to database for {}", province);
+            outcome = IMPORT_SUCCESS;
             
         } catch (RuntimeException e) {
             // Nếu là lỗi "chưa có kết quả hôm nay" thì chỉ log warning, không throw exception
             if (e.getMessage() != null && e.getMessage().contains("không phải ngày hôm nay")) {
+                outcome = IMPORT_SKIPPED;
                 log.warn("⚠️ {}: {}", province, e.getMessage());
                 return; // Skip import, không throw exception
             }
@@ -102,9 +121,22 @@ public class LotteryResultAutoImportService {
         } catch (Exception e) {
             log.error("❌ Auto import {} failed: {}", province, e.getMessage());
             throw new RuntimeException("Auto import " + province + " failed: " + e.getMessage());
+        } finally {
+            recordImport(province, outcome, start);
         }
     }
     
+    /**
+     * Metrics lottery.import: thời gian import + outcome (success / skipped / failed) theo tỉnh
+     */
+    private void recordImport(String province, String outcome, long startNanos) {
+        Timer.builder("lottery.import")
+                .description("Thời gian import kết quả từ VnLottery")
+                .tags("province", province, "outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
     /**
      * Tự động import TẤT CẢ tỉnh có lịch quay hôm nay
      * LOGIC MỚI: Lấy đúng tỉnh theo ngày trong tuần (thay vì hardcode 5 tỉnh)
@@ -114,7 +146,7 @@ public class LotteryResultAutoImportService {
         java.time.DayOfWeek dayOfWeek = today.getDayOfWeek();
         
         // Lấy danh sách tỉnh quay hôm nay
-        List<String> provincesThatDrawToday = getProvincesForDay(dayOfWeek);
+        List<String> provincesThatDrawToday = Province.forDay(dayOfWeek).stream().map(Province::getId).toList();
         
         log.info("📅 [DEBUG] Hôm nay ({}) có {} tỉnh quay: {}", 
                 dayOfWeek, provincesThatDrawToday.size(), provincesThatDrawToday);
@@ -163,53 +195,6 @@ public class LotteryResultAutoImportService {
         }
     }
     
-    /**
-     * Lấy danh sách tỉnh quay theo ngày trong tuần
-     * Dựa trên lịch quay thực tế của xổ số Việt Nam
-     * @param dayOfWeek MONDAY, TUESDAY, ..., SUNDAY
-     * @return List of province names (backend format: lowercase, no diacritics)
-     */
-    private List<String> getProvincesForDay(java.time.DayOfWeek dayOfWeek) {
-        Map<java.time.DayOfWeek, List<String>> schedule = new java.util.HashMap<>();
-        
-        // Thứ 2
-        schedule.put(java.time.DayOfWeek.MONDAY, Arrays.asList(
-            "phuyen", "thuathienhue", "camau", "dongthap", "hcm"
-        ));
-        
-        // Thứ 3
-        schedule.put(java.time.DayOfWeek.TUESDAY, Arrays.asList(
-            "daklak", "quangnam", "baclieu", "bentre", "vungtau"
-        ));
-        
-        // Thứ 4
-        schedule.put(java.time.DayOfWeek.WEDNESDAY, Arrays.asList(
-            "danang", "khanhhoa", "cantho", "dongnai", "soctrang"
-        ));
-        
-        // Thứ 5
-        schedule.put(java.time.DayOfWeek.THURSDAY, Arrays.asList(
-            "binhdinh", "quangbinh", "quangtri", "angiang", "binhthuan", "tayninh"
-        ));
-        
-        // Thứ 6
-        schedule.put(java.time.DayOfWeek.FRIDAY, Arrays.asList(
-            "gialai", "ninhthuan", "binhduong", "travinh", "vinhlong"
-        ));
-        
-        // Thứ 7
-        schedule.put(java.time.DayOfWeek.SATURDAY, Arrays.asList(
-            "danang", "daknong", "quangngai", "binhphuoc", "haugiang", "hcm", "longan"
-        ));
-        
-        // Chủ Nhật
-        schedule.put(java.time.DayOfWeek.SUNDAY, Arrays.asList(
-            "khanhhoa", "kontum", "thuathienhue", "dalat", "kiengiang", "tiengiang"
-        ));
-        
-        return schedule.getOrDefault(dayOfWeek, new ArrayList<>());
-    }
-    
     /**
      * Build request cho Miền Bắc
      */
@@ -0,0 +1,276 @@
+package com.xsecret.service.lottery;
+
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.time.DayOfWeek.FRIDAY;
+import static java.time.DayOfWeek.MONDAY;
+import static java.time.DayOfWeek.SATURDAY;
+import static java.time.DayOfWeek.SUNDAY;
+import static java.time.DayOfWeek.THURSDAY;
+import static java.time.DayOfWeek.TUESDAY;
+import static java.time.DayOfWeek.WEDNESDAY;
+
+/**
+ * Danh sách tỉnh Miền Trung / Miền Nam (bất biến), 1 nơi duy nhất cho:
+ * - id chuẩn (backend format: lowercase, không dấu - VD "ninhthuan") + alias, chuẩn hóa tên có dấu
+ * - khu vực (Miền Trung / Miền Nam) → giờ khóa cược, giờ ngừng cho hủy cược
+ * - gameCode của API VnLottery
+ * - lịch quay trong tuần, tính sẵn: ngày quay (mảng 7 phần tử) và số ngày tới kỳ quay tiếp theo
+ *   → "hôm nay có quay không", "kỳ quay tiếp theo", "đang khóa cược không" đều O(1)
+ */
+public enum Province {
+
+    // Miền Trung
+    PHU_YEN("phuyen", "Phú Yên", Area.MIEN_TRUNG, "phye", List.of(), MONDAY),
+    THUA_THIEN_HUE("thuathienhue", "Thừa Thiên Huế", Area.MIEN_TRUNG, "thth", List.of("hue"), MONDAY, SUNDAY),
+    DAK_LAK("daklak", "Đắk Lắk", Area.MIEN_TRUNG, "dakl", List.of("daclac"), TUESDAY),
+    QUANG_NAM("quangnam", "Quảng Nam", Area.MIEN_TRUNG, "quna", List.of(), TUESDAY),
+    DA_NANG("danang", "Đà Nẵng", Area.MIEN_TRUNG, "dana", List.of(), WEDNESDAY, SATURDAY),
+    KHANH_HOA("khanhhoa", "Khánh Hòa", Area.MIEN_TRUNG, "khho", List.of(), WEDNESDAY, SUNDAY),
+    BINH_DINH("binhdinh", "Bình Định", Area.MIEN_TRUNG, "bidi", List.of(), THURSDAY),
+    QUANG_BINH("quangbinh", "Quảng Bình", Area.MIEN_TRUNG, "qubi", List.of(), THURSDAY),
+    QUANG_TRI("quangtri", "Quảng Trị", Area.MIEN_TRUNG, "qutr", List.of(), THURSDAY),
+    GIA_LAI("gialai", "Gia Lai", Area.MIEN_TRUNG, "gila", List.of(), FRIDAY),
+    NINH_THUAN("ninhthuan", "Ninh Thuận", Area.MIEN_TRUNG, "nith", List.of(), FRIDAY),
+    DAK_NONG("daknong", "Đắk Nông", Area.MIEN_TRUNG, "dano", List.of("dacnong"), SATURDAY),
+    QUANG_NGAI("quangngai", "Quảng Ngãi", Area.MIEN_TRUNG, "qung", List.of(), SATURDAY),
+    KON_TUM("kontum", "Kon Tum", Area.MIEN_TRUNG, "kont", List.of(), SUNDAY),
+
+    // Miền Nam
+    CA_MAU("camau", "Cà Mau", Area.MIEN_NAM, "cama", List.of(), MONDAY),
+    DONG_THAP("dongthap", "Đồng Tháp", Area.MIEN_NAM, "doth", List.of(), MONDAY),
+    HCM("hcm", "TP. Hồ Chí Minh", Area.MIEN_NAM, "hcm", List.of("tphcm", "hochiminh", "tphochiminh", "thanhphohochiminh"), MONDAY, SATURDAY),
+    BAC_LIEU("baclieu", "Bạc Liêu", Area.MIEN_NAM, "bacl", List.of(), TUESDAY),
+    BEN_TRE("bentre", "Bến Tre", Area.MIEN_NAM, "bent", List.of(), TUESDAY),
+    VUNG_TAU("vungtau", "Vũng Tàu", Area.MIEN_NAM, "vuta", List.of("bariavungtau"), TUESDAY),
+    CAN_THO("cantho", "Cần Thơ", Area.MIEN_NAM, "cath", List.of(), WEDNESDAY),
+    DONG_NAI("dongnai", "Đồng Nai", Area.MIEN_NAM, "dona", List.of(), WEDNESDAY),
+    SOC_TRANG("soctrang", "Sóc Trăng", Area.MIEN_NAM, "sotr", List.of(), WEDNESDAY),
+    AN_GIANG("angiang", "An Giang", Area.MIEN_NAM, "angi", List.of(), THURSDAY),
+    BINH_THUAN("binhthuan", "Bình Thuận", Area.MIEN_NAM, "bith", List.of(), THURSDAY),
+    TAY_NINH("tayninh", "Tây Ninh", Area.MIEN_NAM, "tayn", List.of(), THURSDAY),
+    BINH_DUONG("binhduong", "Bình Dương", Area.MIEN_NAM, "bidu", List.of(), FRIDAY),
+    TRA_VINH("travinh", "Trà Vinh", Area.MIEN_NAM, "trvi", List.of(), FRIDAY),
+    VINH_LONG("vinhlong", "Vĩnh Long", Area.MIEN_NAM, "vilo", List.of(), FRIDAY),
+    BINH_PHUOC("binhphuoc", "Bình Phước", Area.MIEN_NAM, "biph", List.of(), SATURDAY),
+    HAU_GIANG("haugiang", "Hậu Giang", Area.MIEN_NAM, "haug", List.of(), SATURDAY),
+    LONG_AN("longan", "Long An", Area.MIEN_NAM, "loan", List.of(), SATURDAY),
+    DA_LAT("dalat", "Đà Lạt", Area.MIEN_NAM, "dala", List.of("lamdong"), SUNDAY),
+    KIEN_GIANG("kiengiang", "Kiên Giang", Area.MIEN_NAM, "kigi", List.of(), SUNDAY),
+    TIEN_GIANG("tiengiang", "Tiền Giang", Area.MIEN_NAM, "tigi", List.of(), SUNDAY);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+    private static final String LOTTERY_PREFIX = "xoso";
+
+    // id chuẩn / alias / tên không dấu → tỉnh
+    private static final Map<String, Province> BY_ALIAS;
+    // Thứ trong tuần → các tỉnh quay (theo thứ tự khai báo)
+    private static final Map<DayOfWeek, List<Province>> BY_DAY;
+
+    static {
+        Map<String, Province> byAlias = new HashMap<>();
+        Map<DayOfWeek, List<Province>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            byDay.put(day, new ArrayList<>());
+        }
+        for (Province province : values()) {
+            register(byAlias, province.id, province);
+            register(byAlias, stripDiacritics(province.displayName), province);
+            province.aliases.forEach(alias -> register(byAlias, alias, province));
+            province.drawDays.forEach(day -> byDay.get(day).add(province));
+        }
+        byDay.replaceAll((day, provinces) -> List.copyOf(provinces));
+        BY_ALIAS = Collections.unmodifiableMap(byAlias);
+        BY_DAY = Collections.unmodifiableMap(byDay);
+    }
+
+    private final String id;
+    private final String displayName;
+    private final Area area;
+    private final String gameCode;
+    private final List<String> aliases;
+    private final Set<DayOfWeek> drawDays;
+    // Tính sẵn theo thứ (index = DayOfWeek.ordinal())
+    private final boolean[] drawsOn = new boolean[7];
+    private final int[] daysToNextDraw = new int[7];
+
+    Province(String id, String displayName, Area area, String gameCode, List<String> aliases,
+             DayOfWeek firstDrawDay, DayOfWeek... otherDrawDays) {
+        this.id = id;
+        this.displayName = displayName;
+        this.area = area;
+        this.gameCode = gameCode;
+        this.aliases = aliases;
+        this.drawDays = Collections.unmodifiableSet(EnumSet.of(firstDrawDay, otherDrawDays));
+
+        drawDays.forEach(day -> drawsOn[day.ordinal()] = true);
+        for (int day = 0; day < 7; day++) {
+            int offset = 1;
+            while (!drawsOn[(day + offset) % 7]) {
+                offset++;
+            }
+            daysToNextDraw[day] = offset;
+        }
+    }
+
+    /**
+     * Tìm tỉnh theo id chuẩn / alias / tên có dấu ("Ninh Thuận", "xổ số ninh thuận"...), null nếu không có
+     */
+    public static Province resolve(String province) {
+        if (province == null) {
+            return null;
+        }
+        Province exact = BY_ALIAS.get(province);
+        return exact != null ? exact : BY_ALIAS.get(toKey(province));
+    }
+
+    /**
+     * Chuẩn hóa tên tỉnh về id chuẩn (format của kết quả xổ số)
+     * Tỉnh không có trong danh sách → trả về tên đã bỏ dấu / khoảng trắng / tiền tố "xổ số"
+     */
+    public static String normalize(String province) {
+        if (province == null) {
+            return null;
+        }
+        Province resolved = resolve(province);
+        return resolved != null ? resolved.id : toKey(province);
+    }
+
+    /**
+     * Các tỉnh quay trong 1 thứ
+     */
+    public static List<Province> forDay(DayOfWeek dayOfWeek) {
+        return BY_DAY.get(dayOfWeek);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public Area getArea() {
+        return area;
+    }
+
+    public String getGameCode() {
+        return gameCode;
+    }
+
+    public Set<DayOfWeek> getDrawDays() {
+        return drawDays;
+    }
+
+    public boolean isDrawDay(LocalDate date) {
+        return drawsOn[date.getDayOfWeek().ordinal()];
+    }
+
+    /**
+     * Ngày quay tiếp theo SAU ngày chỉ định (từ ngày mai trở đi, tối đa 7 ngày)
+     */
+    public LocalDate nextDrawDateAfter(LocalDate date) {
+        return date.plusDays(daysToNextDraw[date.getDayOfWeek().ordinal()]);
+    }
+
+    /**
+     * Đang trong giờ khóa cược: chỉ khi hôm nay là ngày quay của tỉnh
+     */
+    public boolean isBettingLocked(LocalDateTime now) {
+        return isDrawDay(now.toLocalDate()) && area.isInLockWindow(now.toLocalTime());
+    }
+
+    /**
+     * Ngày có kết quả cho bet đặt lúc now: hôm nay nếu hôm nay quay và chưa hết giờ khóa, ngược lại kỳ tiếp theo
+     */
+    public LocalDate resultDate(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        if (isDrawDay(today) && now.toLocalTime().isBefore(area.getLockEnd())) {
+            return today;
+        }
+        return nextDrawDateAfter(today);
+    }
+
+    private static void register(Map<String, Province> byAlias, String alias, Province province) {
+        String key = toKey(alias);
+        Province existing = byAlias.put(key, province);
+        if (existing != null && existing != province) {
+            throw new IllegalStateException("Duplicate province alias: " + key);
+        }
+    }
+
+    private static String toKey(String province) {
+        String key = NON_ALPHANUMERIC.matcher(stripDiacritics(province)).replaceAll("");
+        return key.startsWith(LOTTERY_PREFIX) && key.length() > LOTTERY_PREFIX.length()
+                ? key.substring(LOTTERY_PREFIX.length()) : key;
+    }
+
+    private static String stripDiacritics(String text) {
+        String lower = text.toLowerCase().replace('đ', 'd');
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Khu vực quay + giờ khóa cược [lockStart, lockEnd) và giờ ngừng cho hủy cược
+     * Miền Bắc quay hằng ngày (không có tỉnh), kết quả tính cho ngày mai sau resultCutoff
+     */
+    public enum Area {
+        MIEN_BAC("Miền Bắc", LocalTime.of(18, 10), LocalTime.of(18, 45), LocalTime.of(18, 10)),
+        MIEN_TRUNG("Miền Trung", LocalTime.of(17, 0), LocalTime.of(18, 45), LocalTime.of(17, 0)),
+        MIEN_NAM("Miền Nam", LocalTime.of(16, 0), LocalTime.of(18, 45), LocalTime.of(16, 0));
+
+        // Miền Bắc: đặt sau giờ này thì kết quả tính cho ngày mai
+        public static final LocalTime MIEN_BAC_RESULT_CUTOFF = LocalTime.of(18, 30);
+
+        private final String displayName;
+        private final LocalTime lockStart;
+        private final LocalTime lockEnd;
+        private final LocalTime cancelCutoff;
+
+        Area(String displayName, LocalTime lockStart, LocalTime lockEnd, LocalTime cancelCutoff) {
+            this.displayName = displayName;
+            this.lockStart = lockStart;
+            this.lockEnd = lockEnd;
+            this.cancelCutoff = cancelCutoff;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public LocalTime getLockStart() {
+            return lockStart;
+        }
+
+        public LocalTime getLockEnd() {
+            return lockEnd;
+        }
+
+        public LocalTime getCancelCutoff() {
+            return cancelCutoff;
+        }
+
+        public boolean isInLockWindow(LocalTime time) {
+            return !time.isBefore(lockStart) && time.isBefore(lockEnd);
+        }
+
+        public boolean isCancelClosed(LocalTime time) {
+            return !time.isBefore(cancelCutoff);
+        }
+    }
+}
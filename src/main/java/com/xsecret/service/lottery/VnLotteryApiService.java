@@ -25,50 +25,6 @@ public class VnLotteryApiService {
     private static final String MIEN_BAC_API = "https://www.vnlottery.net/api/front/open/lottery/history/list/game?limitNum=1&gameCode=miba";
     private static final String PROVINCE_API_TEMPLATE = "https://www.vnlottery.net/api/front/open/lottery/history/list/game?limitNum=5&gameCode=%s";
     
-    // Game code mapping: province name → 2 chữ đầu tên tỉnh
-    // VD: "Cà Mau" → "cama", "Thừa Thiên Huế" → "thth"
-    private static final Map<String, String> PROVINCE_GAME_CODE_MAP = new HashMap<>();
-    static {
-        // Miền Trung
-        PROVINCE_GAME_CODE_MAP.put("phuyen", "phye");
-        PROVINCE_GAME_CODE_MAP.put("thuathienhue", "thth");
-        PROVINCE_GAME_CODE_MAP.put("daklak", "dakl");
-        PROVINCE_GAME_CODE_MAP.put("quangnam", "quna");
-        PROVINCE_GAME_CODE_MAP.put("danang", "dana");
-        PROVINCE_GAME_CODE_MAP.put("khanhhoa", "khho");
-        PROVINCE_GAME_CODE_MAP.put("binhdinh", "bidi");
-        PROVINCE_GAME_CODE_MAP.put("quangbinh", "qubi");
-        PROVINCE_GAME_CODE_MAP.put("quangtri", "qutr");
-        PROVINCE_GAME_CODE_MAP.put("gialai", "gila");
-        PROVINCE_GAME_CODE_MAP.put("ninhthuan", "nith");
-        PROVINCE_GAME_CODE_MAP.put("daknong", "dano");
-        PROVINCE_GAME_CODE_MAP.put("quangngai", "qung");
-        PROVINCE_GAME_CODE_MAP.put("kontum", "kont");
-        
-        // Miền Nam
-        PROVINCE_GAME_CODE_MAP.put("camau", "cama");
-        PROVINCE_GAME_CODE_MAP.put("dongthap", "doth");
-        PROVINCE_GAME_CODE_MAP.put("hcm", "hcm");
-        PROVINCE_GAME_CODE_MAP.put("baclieu", "bacl");
-        PROVINCE_GAME_CODE_MAP.put("bentre", "bent");
-        PROVINCE_GAME_CODE_MAP.put("vungtau", "vuta");
-        PROVINCE_GAME_CODE_MAP.put("cantho", "cath");
-        PROVINCE_GAME_CODE_MAP.put("dongnai", "dona");                                  
-        PROVINCE_GAME_CODE_MAP.put("soctrang", "sotr");
-        PROVINCE_GAME_CODE_MAP.put("angiang", "angi");
-        PROVINCE_GAME_CODE_MAP.put("binhthuan", "bith");
-        PROVINCE_GAME_CODE_MAP.put("tayninh", "tayn");
-        PROVINCE_GAME_CODE_MAP.put("binhduong", "bidu");
-        PROVINCE_GAME_CODE_MAP.put("travinh", "trvi");
-        PROVINCE_GAME_CODE_MAP.put("vinhlong", "vilo");
-        PROVINCE_GAME_CODE_MAP.put("binhphuoc", "biph");
-        PROVINCE_GAME_CODE_MAP.put("haugiang", "haug");
-        PROVINCE_GAME_CODE_MAP.put("longan", "loan");
-        PROVINCE_GAME_CODE_MAP.put("dalat", "dala");
-        PROVINCE_GAME_CODE_MAP.put("kiengiang", "kigi");
-        PROVINCE_GAME_CODE_MAP.put("tiengiang", "tigi");
-    }
-    
     /**
      * Lấy kết quả mới nhất Miền Bắc
      */
@@ -107,12 +63,12 @@ public class VnLotteryApiService {
      */
     public VnLotteryIssue fetchLatestProvince(String province) {
         try {
-            String gameCode = PROVINCE_GAME_CODE_MAP.get(province);
-            if (gameCode == null) {
-                log.error("❌ PROVINCE NOT FOUND: {} not in PROVINCE_GAME_CODE_MAP. Available: {}", 
-                    province, PROVINCE_GAME_CODE_MAP.keySet());
-                throw new RuntimeException("Invalid province: " + province + ". Please check PROVINCE_GAME_CODE_MAP.");
+            Province resolved = Province.resolve(province);
+            if (resolved == null) {
+                log.error("❌ PROVINCE NOT FOUND: {} not in Province registry", province);
+                throw new RuntimeException("Invalid province: " + province + ". Please check Province registry.");
             }
+            String gameCode = resolved.getGameCode();
             
             String apiUrl = String.format(PROVINCE_API_TEMPLATE, gameCode);
             log.info("🌐 [DEBUG] Calling VnLottery API for province: {} (gameCode: {})", province, gameCode);
@@ -152,7 +108,8 @@ public class VnLotteryApiService {
     public Map<String, VnLotteryIssue> fetchAllProvinces() {
         Map<String, VnLotteryIssue> results = new HashMap<>();
         
-        for (String province : PROVINCE_GAME_CODE_MAP.keySet()) {
+        for (Province registered : Province.values()) {
+            String province = registered.getId();
             try {
                 VnLotteryIssue issue = fetchLatestProvince(province);
                 results.put(province, issue);
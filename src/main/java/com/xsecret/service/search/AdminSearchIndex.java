@@ -0,0 +1,286 @@
+package com.xsecret.service.search;
+
+import com.xsecret.entity.Transaction;
+import com.xsecret.entity.User;
+import com.xsecret.service.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Chỉ mục tìm kiếm cho trang admin (gõ tới đâu tìm tới đó), hoàn toàn trong bộ nhớ
+ * - username; email / số điện thoại / họ tên; mã giao dịch → id (NGramIndex)
+ * - Service lấy tập id rồi query DB theo khóa chính / index, không LIKE '%term%' quét bảng
+ * - Cập nhật khi User / Transaction được lưu (SearchIndexListener, sau khi transaction commit)
+ * - Thay đổi từ instance khác: đồng bộ tăng dần theo updated_at mỗi app.search.resync-interval-ms
+ *   (user / giao dịch bị xóa ở instance khác còn id trong chỉ mục, service query theo id nên không trả về)
+ * - Khởi động: dựng lại từ DB; chưa dựng xong → isReady() = false, service dùng query LIKE cũ
+ * - Dựng lỗi: xóa chỉ mục dở dang, bỏ qua cập nhật trực tiếp, thử dựng lại sau app.search.rebuild-retry-ms
+ */
+@Component
+@Slf4j
+public class AdminSearchIndex {
+
+    // Số id tối đa 1 lần tìm (từ khóa quá ngắn / quá chung → admin gõ thêm để thu hẹp)
+    public static final int MAX_RESULTS = 1000;
+
+    // Đọc lùi lại so với lần đồng bộ trước: bù lệch giờ giữa các instance và transaction commit chậm
+    // (updated_at lấy giờ lúc ghi, không phải lúc commit), đọc trùng chỉ ghi đè cùng giá trị
+    private static final Duration RESYNC_OVERLAP = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NGramIndex usernames = new NGramIndex();
+    private final NGramIndex userDetails = new NGramIndex();
+    private final NGramIndex transactionCodes = new NGramIndex();
+
+    // Đang dựng lại: id đã được cập nhật trực tiếp thì scan bỏ qua (dữ liệu scan có thể cũ hơn)
+    // Không dựng lại và chưa sẵn sàng (dựng lỗi, chờ thử lại): bỏ qua cập nhật trực tiếp, lần dựng sau scan lại hết
+    private final Object rebuildLock = new Object();
+    private volatile boolean rebuilding = true;
+    private volatile boolean ready = false;
+    private Set<Long> touchedUserIds = ConcurrentHashMap.newKeySet();
+    private Set<Long> touchedTransactionIds = ConcurrentHashMap.newKeySet();
+
+    // Thời điểm bắt đầu lần dựng / đồng bộ gần nhất thành công (chỉ dùng khi ready)
+    private volatile LocalDateTime syncedAt;
+
+    public AdminSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * User có username / email / số điện thoại / họ tên chứa term
+     */
+    public List<Long> searchUsers(String term) {
+        List<Long> byUsername = usernames.search(term, MAX_RESULTS);
+        List<Long> byDetails = userDetails.search(term, MAX_RESULTS);
+        if (byDetails.isEmpty()) {
+            return byUsername;
+        }
+        if (byUsername.isEmpty()) {
+            return byDetails;
+        }
+        return Stream.concat(byUsername.stream(), byDetails.stream())
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .limit(MAX_RESULTS)
+                .toList();
+    }
+
+    /**
+     * User có username chứa term
+     */
+    public List<Long> searchUsernames(String term) {
+        return usernames.search(term, MAX_RESULTS);
+    }
+
+    /**
+     * Giao dịch có mã chứa term
+     */
+    public List<Long> searchTransactions(String term) {
+        return transactionCodes.search(term, MAX_RESULTS);
+    }
+
+    // ================ CẬP NHẬT ================
+
+    public void indexUser(User user) {
+        Long id = user.getId();
+        String username = user.getUsername();
+        List<String> details = Arrays.asList(user.getEmail(), user.getPhoneNumber(), user.getFullName());
+        AfterCommit.run(() -> applyUser(id, username, details, true));
+    }
+
+    public void removeUser(Long userId) {
+        AfterCommit.run(() -> {
+            touch(userId, true);
+            usernames.remove(userId);
+            userDetails.remove(userId);
+        });
+    }
+
+    public void indexTransaction(Transaction transaction) {
+        Long id = transaction.getId();
+        String code = transaction.getTransactionCode();
+        AfterCommit.run(() -> applyTransaction(id, code, true));
+    }
+
+    public void removeTransaction(Long transactionId) {
+        AfterCommit.run(() -> {
+            touch(transactionId, false);
+            transactionCodes.remove(transactionId);
+        });
+    }
+
+    // ================ DỰNG LẠI ================
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ DB khi ứng dụng khởi động xong
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            rebuilding = true;
+            if (touchedUserIds == null) {
+                touchedUserIds = ConcurrentHashMap.newKeySet();
+                touchedTransactionIds = ConcurrentHashMap.newKeySet();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime scanStart = LocalDateTime.now();
+        try {
+            jdbcTemplate.query("SELECT id, username, email, phone_number, full_name FROM users", rs -> {
+                applyUser(rs.getLong("id"), rs.getString("username"),
+                        Arrays.asList(rs.getString("email"), rs.getString("phone_number"), rs.getString("full_name")),
+                        false);
+            });
+            jdbcTemplate.query("SELECT id, transaction_code FROM transactions", rs -> {
+                applyTransaction(rs.getLong("id"), rs.getString("transaction_code"), false);
+            });
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                rebuilding = false;
+                touchedUserIds = null;
+                touchedTransactionIds = null;
+                // Chỉ mục dở dang: bỏ hết, lần dựng lại sau scan từ đầu
+                usernames.clear();
+                userDetails.clear();
+                transactionCodes.clear();
+            }
+            log.error("❌ Failed to build admin search index, falling back to LIKE queries until retry: {}",
+                    e.getMessage());
+            return;
+        }
+
+        synchronized (rebuildLock) {
+            syncedAt = scanStart;
+            rebuilding = false;
+            ready = true;
+            touchedUserIds = null;
+            touchedTransactionIds = null;
+        }
+        log.info("🔎 Admin search index built: {} users, {} transactions in {} ms",
+                usernames.size(), transactionCodes.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Thử dựng lại chỉ mục sau khi lần dựng trước bị lỗi
+     */
+    @Scheduled(fixedDelayString = "${app.search.rebuild-retry-ms:60000}",
+            initialDelayString = "${app.search.rebuild-retry-ms:60000}")
+    public void retryRebuild() {
+        if (!ready && !rebuilding) {
+            log.info("🔎 Retrying admin search index build");
+            rebuild();
+        }
+    }
+
+    /**
+     * Đồng bộ tăng dần: user / giao dịch có updated_at từ lần đồng bộ trước (trừ RESYNC_OVERLAP)
+     * Nhận thay đổi do instance khác ghi - listener chỉ thấy thay đổi trên instance này
+     */
+    @Scheduled(fixedDelayString = "${app.search.resync-interval-ms:60000}",
+            initialDelayString = "${app.search.resync-interval-ms:60000}")
+    public void resync() {
+        if (!ready) {
+            return;
+        }
+
+        LocalDateTime since = syncedAt.minus(RESYNC_OVERLAP);
+        LocalDateTime scanStart = LocalDateTime.now();
+        long[] counts = new long[2];
+        try {
+            jdbcTemplate.query("SELECT id, username, email, phone_number, full_name FROM users WHERE updated_at >= ?",
+                    rs -> {
+                        putUser(rs.getLong("id"), rs.getString("username"),
+                                Arrays.asList(rs.getString("email"), rs.getString("phone_number"),
+                                        rs.getString("full_name")));
+                        counts[0]++;
+                    }, since);
+            jdbcTemplate.query("SELECT id, transaction_code FROM transactions WHERE updated_at >= ?", rs -> {
+                transactionCodes.put(rs.getLong("id"), Arrays.asList(rs.getString("transaction_code")));
+                counts[1]++;
+            }, since);
+        } catch (RuntimeException e) {
+            // Giữ nguyên syncedAt: lần sau đọc lại từ cùng mốc
+            log.warn("⚠️ Admin search index resync failed, retrying next interval: {}", e.getMessage());
+            return;
+        }
+
+        syncedAt = scanStart;
+        log.debug("🔎 Admin search index resynced: {} users, {} transactions changed since {}",
+                counts[0], counts[1], since);
+    }
+
+    private void applyUser(Long id, String username, List<String> details, boolean direct) {
+        if (!ready) {
+            synchronized (rebuildLock) {
+                if (rebuilding) {
+                    if (direct) {
+                        touchedUserIds.add(id);
+                    } else if (touchedUserIds.contains(id)) {
+                        return;
+                    }
+                    putUser(id, username, details);
+                    return;
+                }
+                if (!ready) {
+                    return;
+                }
+            }
+        }
+        putUser(id, username, details);
+    }
+
+    private void putUser(Long id, String username, List<String> details) {
+        usernames.put(id, Arrays.asList(username));
+        userDetails.put(id, details);
+    }
+
+    private void applyTransaction(Long id, String code, boolean direct) {
+        if (!ready) {
+            synchronized (rebuildLock) {
+                if (rebuilding) {
+                    if (direct) {
+                        touchedTransactionIds.add(id);
+                    } else if (touchedTransactionIds.contains(id)) {
+                        return;
+                    }
+                    transactionCodes.put(id, Arrays.asList(code));
+                    return;
+                }
+                if (!ready) {
+                    return;
+                }
+            }
+        }
+        transactionCodes.put(id, Arrays.asList(code));
+    }
+
+    private void touch(Long id, boolean user) {
+        if (rebuilding) {
+            synchronized (rebuildLock) {
+                if (rebuilding) {
+                    (user ? touchedUserIds : touchedTransactionIds).add(id);
+                }
+            }
+        }
+    }
+}
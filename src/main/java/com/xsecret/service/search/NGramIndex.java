@@ -0,0 +1,163 @@
+package com.xsecret.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Chỉ mục tìm chuỗi con (LIKE '%term%') trong bộ nhớ theo trigram
+ * - Mỗi id giữ các giá trị đã chuẩn hóa (chữ thường, bỏ dấu: "Nguyễn" ~ "nguyen" như collation của MySQL)
+ * - Trigram → tập id; từ khóa ≥ 3 ký tự: giao các tập (tập nhỏ nhất trước) rồi kiểm tra lại contains
+ * - Từ khóa 1-2 ký tự: duyệt các giá trị trong bộ nhớ (vẫn không chạm DB)
+ * Ghi tuần tự (synchronized), đọc không khóa
+ */
+final class NGramIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final Map<Long, String[]> values = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Ghi (thay thế) các giá trị của 1 id, giá trị null bị bỏ qua
+     */
+    synchronized void put(long id, Collection<String> rawValues) {
+        String[] normalized = rawValues.stream()
+                .filter(Objects::nonNull)
+                .map(NGramIndex::normalize)
+                .filter(value -> !value.isEmpty())
+                .toArray(String[]::new);
+        if (Arrays.equals(values.get(id), normalized)) {
+            return;
+        }
+
+        remove(id);
+        if (normalized.length == 0) {
+            return;
+        }
+        values.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    synchronized void remove(long id) {
+        String[] old = values.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Các id có ít nhất 1 giá trị chứa term, id lớn (mới) nhất trước, tối đa limit id
+     */
+    List<Long> search(String term, int limit) {
+        String query = normalize(term);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Collection<Long> candidates;
+        List<Set<Long>> others = List.of();
+        if (query.length() < GRAM) {
+            candidates = values.keySet();
+        } else {
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : grams(new String[] { query })) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            candidates = lists.get(0);
+            others = lists.subList(1, lists.size());
+        }
+
+        // Giữ limit id lớn nhất (min-heap)
+        PriorityQueue<Long> top = new PriorityQueue<>(limit + 1);
+        for (Long id : candidates) {
+            if (top.size() == limit && id <= top.peek()) {
+                continue;
+            }
+            if (containsAll(others, id) && matches(id, query)) {
+                top.add(id);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<Long> result = new ArrayList<>(top);
+        result.sort(Comparator.reverseOrder());
+        return result;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    synchronized void clear() {
+        values.clear();
+        postings.clear();
+    }
+
+    private static boolean containsAll(List<Set<Long>> lists, Long id) {
+        for (Set<Long> ids : lists) {
+            if (!ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(Long id, String query) {
+        String[] stored = values.get(id);
+        if (stored == null) {
+            return false;
+        }
+        for (String value : stored) {
+            if (value.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> grams(String[] normalizedValues) {
+        Set<String> grams = new HashSet<>();
+        for (String value : normalizedValues) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                grams.add(value.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    static String normalize(String value) {
+        String lower = value.trim().toLowerCase(Locale.ROOT).replace('đ', 'd');
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
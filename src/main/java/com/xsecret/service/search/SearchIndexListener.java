@@ -0,0 +1,52 @@
+package com.xsecret.service.search;
+
+import com.xsecret.entity.Transaction;
+import com.xsecret.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener giữ AdminSearchIndex đồng bộ với bảng users / transactions
+ * - Hibernate lấy bean từ Spring (SpringBeanContainer) nên inject được
+ * - Chỉ mục chỉ thay đổi sau khi transaction commit (rollback → không đổi)
+ * Lưu ý: UPDATE / DELETE bằng JPQL / SQL trực tiếp không đi qua listener
+ */
+@Component
+public class SearchIndexListener {
+
+    private final ObjectProvider<AdminSearchIndex> searchIndex;
+
+    public SearchIndexListener(ObjectProvider<AdminSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        AdminSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            index.indexUser(user);
+        } else if (entity instanceof Transaction transaction) {
+            index.indexTransaction(transaction);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        AdminSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            index.removeUser(user.getId());
+        } else if (entity instanceof Transaction transaction) {
+            index.removeTransaction(transaction.getId());
+        }
+    }
+}
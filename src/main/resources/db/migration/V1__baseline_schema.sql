@@ -0,0 +1,265 @@
+-- Schema gốc: đúng schema Hibernate (ddl-auto=update) đã tạo trên DB đang chạy trước khi chuyển sang Flyway
+-- DB đang chạy: Flyway baseline ở version 1 (spring.flyway.baseline-on-migrate) → không chạy file này
+-- DB mới (rỗng): chạy file này để tạo các bảng gốc
+-- Mọi thay đổi schema sau đó (bảng / cột / index mới) đặt trong V2+, áp dụng cho cả 2 loại DB
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    full_name varchar(255),
+    phone_number varchar(255),
+    role enum ('USER','ADMIN') not null,
+    status enum ('ACTIVE','INACTIVE','SUSPENDED','BANNED') not null,
+    points bigint,
+    kyc_verified bit,
+    withdrawal_locked bit,
+    withdrawal_lock_reason varchar(255),
+    withdrawal_locked_at datetime(6),
+    withdrawal_locked_by bigint,
+    last_login datetime(6),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+) engine=InnoDB;
+
+create table bets (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    region varchar(50) not null,
+    province varchar(50),
+    bet_type varchar(50) not null,
+    selected_numbers text not null,
+    bet_amount decimal(38,2) not null,
+    price_per_point decimal(38,2) not null,
+    total_amount decimal(38,2) not null,
+    odds decimal(38,2) not null,
+    potential_win decimal(38,2) not null,
+    status enum ('PENDING','WON','LOST','CANCELLED') not null,
+    is_win bit,
+    win_amount decimal(38,2),
+    winning_numbers text,
+    result_date varchar(255),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    result_checked_at datetime(6),
+    primary key (id),
+    constraint fk_bets_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table betting_odds (
+    id bigint not null auto_increment,
+    region varchar(50) not null,
+    bet_type varchar(100) not null,
+    bet_name varchar(200) not null,
+    description varchar(500),
+    odds integer not null,
+    price_per_point integer not null,
+    is_active bit not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_betting_odds_region_bet_type unique (region, bet_type)
+) engine=InnoDB;
+
+create table kyc_verifications (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    front_image_url varchar(255) not null,
+    back_image_url varchar(255) not null,
+    id_number varchar(255),
+    full_name varchar(255),
+    status enum ('PENDING','APPROVED','REJECTED') not null,
+    submitted_at datetime(6) not null,
+    verified_at datetime(6),
+    verified_by bigint,
+    rejected_reason varchar(255),
+    admin_notes varchar(255),
+    primary key (id),
+    constraint fk_kyc_verifications_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table lottery_results (
+    id bigint not null auto_increment,
+    region varchar(50) not null,
+    province varchar(50),
+    draw_date date not null,
+    results text not null,
+    status enum ('DRAFT','PUBLISHED') not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_lottery_results_region_province_draw_date unique (region, province, draw_date)
+) engine=InnoDB;
+
+create table notifications (
+    id bigint not null auto_increment,
+    title varchar(255) not null,
+    message text not null,
+    priority enum ('URGENT','WARNING','INFO') not null,
+    type enum ('SYSTEM','MAINTENANCE','PROMOTION','SECURITY','TRANSACTION','ACCOUNT','ANNOUNCEMENT') not null,
+    target_user_id bigint,
+    created_by bigint,
+    is_read bit,
+    read_at datetime(6),
+    created_at datetime(6) not null,
+    expires_at datetime(6),
+    primary key (id),
+    constraint fk_notifications_target_user foreign key (target_user_id) references users (id),
+    constraint fk_notifications_created_by foreign key (created_by) references users (id)
+) engine=InnoDB;
+
+create table payment_methods (
+    id bigint not null auto_increment,
+    type enum ('MOMO','BANK','USDT','ZALO_PAY','VIET_QR') not null,
+    name varchar(100) not null,
+    account_number varchar(50) not null,
+    account_name varchar(100) not null,
+    bank_code varchar(20),
+    min_amount decimal(15,2) not null,
+    max_amount decimal(15,2) not null,
+    fee_percent decimal(5,2),
+    fee_fixed decimal(15,2),
+    processing_time varchar(50),
+    is_active bit not null,
+    display_order integer,
+    description varchar(500),
+    qr_code varchar(1000),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table point_transactions (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    transaction_code varchar(20) not null,
+    type enum ('EARN','SPEND','ADMIN_ADD','ADMIN_SUBTRACT','DEPOSIT_BONUS','WITHDRAW_DEDUCTION','REFUND',
+               'BET_PLACED','BET_WIN','BET_REFUND','BET_CANCELLED') not null,
+    points decimal(10,0) not null,
+    balance_before decimal(10,0) not null,
+    balance_after decimal(10,0) not null,
+    description varchar(500),
+    reference_type varchar(50),
+    reference_id bigint,
+    created_by bigint,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_point_transactions_transaction_code unique (transaction_code),
+    constraint fk_point_transactions_user foreign key (user_id) references users (id),
+    constraint fk_point_transactions_created_by foreign key (created_by) references users (id)
+) engine=InnoDB;
+
+create table promotions (
+    id bigint not null auto_increment,
+    title varchar(255) not null,
+    description text,
+    image_url varchar(500),
+    is_active bit not null,
+    display_order integer,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table refresh_tokens (
+    id bigint not null auto_increment,
+    token varchar(255) not null,
+    user_id bigint not null,
+    expires_at datetime(6) not null,
+    is_revoked bit,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_refresh_tokens_token unique (token),
+    constraint fk_refresh_tokens_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table system_settings (
+    id bigint not null auto_increment,
+    setting_key varchar(255) not null,
+    setting_value text,
+    description varchar(255),
+    category varchar(255),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_system_settings_setting_key unique (setting_key)
+) engine=InnoDB;
+
+create table transactions (
+    id bigint not null auto_increment,
+    transaction_code varchar(20) not null,
+    user_id bigint not null,
+    type enum ('DEPOSIT','WITHDRAW','BONUS','REFUND','ADJUSTMENT') not null,
+    amount decimal(15,2) not null,
+    fee decimal(15,2),
+    net_amount decimal(15,2) not null,
+    status enum ('PENDING','APPROVED','COMPLETED','REJECTED','CANCELLED','FAILED') not null,
+    payment_method_id bigint,
+    method_account varchar(50),
+    description varchar(500),
+    note varchar(1000),
+    admin_note varchar(1000),
+    reference_code varchar(100),
+    bill_image longtext,
+    bill_image_name varchar(255),
+    bill_image_url varchar(500),
+    processed_by bigint,
+    processed_at datetime(6),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_transactions_transaction_code unique (transaction_code),
+    constraint fk_transactions_user foreign key (user_id) references users (id),
+    constraint fk_transactions_payment_method foreign key (payment_method_id) references payment_methods (id),
+    constraint fk_transactions_processed_by foreign key (processed_by) references users (id)
+) engine=InnoDB;
+
+create table user_payment_methods (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    name varchar(255) not null,
+    type enum ('MOMO','BANK','USDT','ZALO_PAY','VIET_QR') not null,
+    account_number varchar(50) not null,
+    account_name varchar(255) not null,
+    bank_code varchar(20),
+    note text,
+    is_default bit not null,
+    is_verified bit not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint fk_user_payment_methods_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table user_points (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    total_points decimal(10,0) not null,
+    lifetime_earned decimal(10,0) not null,
+    lifetime_spent decimal(10,0) not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_user_points_user unique (user_id),
+    constraint fk_user_points_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table user_wallets (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    balance decimal(15,2) not null,
+    total_deposit decimal(15,2) not null,
+    total_withdraw decimal(15,2) not null,
+    total_bonus decimal(15,2) not null,
+    frozen_amount decimal(15,2) not null,
+    last_transaction_at datetime(6),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_user_wallets_user unique (user_id),
+    constraint fk_user_wallets_user foreign key (user_id) references users (id)
+) engine=InnoDB;
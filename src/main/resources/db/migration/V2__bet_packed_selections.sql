@@ -0,0 +1,6 @@
+-- Số đã chọn / số trúng dạng nhị phân (SelectionCodec) thay cho cột JSON TEXT
+-- Cột JSON cũ giữ lại cho dữ liệu chưa chuyển, entity không ghi nữa → selected_numbers phải cho phép NULL
+alter table bets
+    add column selected_numbers_packed blob,
+    add column winning_numbers_packed blob,
+    modify selected_numbers text null;
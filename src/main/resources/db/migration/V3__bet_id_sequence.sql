@@ -0,0 +1,14 @@
+-- Bảng sinh ID cho bet (pooled, allocationSize = Bet.ID_ALLOCATION_SIZE = 50): MySQL không có sequence
+-- Bet trước đây dùng AUTO_INCREMENT → giá trị khởi tạo phải vượt qua MAX(id) của bets:
+-- Hibernate (pooled) đọc giá trị v thì dùng các ID (v - 50, v] → cần v > MAX(id) + 50
+-- Chạy trong Flyway (trước khi JPA / web khởi động) nên không request nào lấy được block ID cũ
+--
+-- TRIỂN KHAI: phải dừng hết instance phiên bản cũ (đặt cược bằng AUTO_INCREMENT) TRƯỚC khi instance mới chạy
+-- migration này, không rolling deploy. Instance cũ còn chạy sẽ cấp ID AUTO_INCREMENT > MAX(id) lúc migrate,
+-- trùng với block ID pooled của instance mới
+create table bet_id_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into bet_id_seq (next_val)
+select coalesce(max(id), 0) + 50 + 1 from bets;
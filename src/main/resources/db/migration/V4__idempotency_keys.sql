@@ -0,0 +1,16 @@
+-- Idempotency-Key của các request đặt cược / nạp / rút (IdempotencyService)
+create table idempotency_keys (
+    id bigint not null auto_increment,
+    scope varchar(50) not null,
+    owner varchar(100) not null,
+    idempotency_key varchar(100) not null,
+    request_hash varchar(64) not null,
+    status enum ('IN_PROGRESS','COMPLETED') not null,
+    http_status integer,
+    response_body text,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    primary key (id),
+    index idx_idempotency_expires_at (expires_at),
+    constraint uk_idempotency_scope_owner_key unique (scope, owner, idempotency_key)
+) engine=InnoDB;
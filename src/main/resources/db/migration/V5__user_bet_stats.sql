@@ -0,0 +1,21 @@
+-- Thống kê cược theo user, cộng dồn khi đặt cược / settlement (UserBetStatsRollup)
+create table user_bet_stats (
+    user_id bigint not null,
+    total_bets bigint not null,
+    won_bets bigint not null,
+    total_bet_amount decimal(19,2) not null,
+    total_win_amount decimal(19,2) not null,
+    updated_at datetime(6) not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+-- Backfill từ lịch sử bets (cùng định nghĩa với UserBetStatsRollup.AGGREGATE_SQL)
+insert into user_bet_stats (user_id, total_bets, won_bets, total_bet_amount, total_win_amount, updated_at)
+select user_id,
+       count(*),
+       coalesce(sum(case when is_win = true then 1 else 0 end), 0),
+       coalesce(sum(total_amount), 0),
+       coalesce(sum(case when is_win = true then win_amount else 0 end), 0),
+       now(6)
+from bets
+group by user_id;
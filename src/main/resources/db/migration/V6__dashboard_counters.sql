@@ -0,0 +1,7 @@
+-- Snapshot bộ đếm dashboard admin (DashboardCounters), trống → đếm lại từ bets / users khi khởi động
+create table dashboard_counters (
+    counter_name varchar(100) not null,
+    counter_value bigint not null,
+    updated_at datetime(6) not null,
+    primary key (counter_name)
+) engine=InnoDB;
@@ -0,0 +1,16 @@
+-- Phân trang keyset (createdAt DESC, id DESC) - xem PageCursor
+-- ALGORITHM=INPLACE, LOCK=NONE: tạo index online, bảng vẫn đọc / ghi được trong lúc tạo
+
+-- Lịch sử cược của user / danh sách bet admin
+create index idx_bets_user_created_id on bets (user_id, created_at, id) algorithm=inplace lock=none;
+create index idx_bets_created_id on bets (created_at, id) algorithm=inplace lock=none;
+
+-- Lịch sử giao dịch của user / danh sách giao dịch admin
+create index idx_transactions_user_created_id on transactions (user_id, created_at, id) algorithm=inplace lock=none;
+create index idx_transactions_created_id on transactions (created_at, id) algorithm=inplace lock=none;
+
+-- Thông báo của user
+create index idx_notifications_target_created_id on notifications (target_user_id, created_at, id) algorithm=inplace lock=none;
+
+-- Lịch sử điểm của user
+create index idx_point_transactions_user_created_id on point_transactions (user_id, created_at, id) algorithm=inplace lock=none;
@@ -0,0 +1,12 @@
+-- Index cho các query nóng (kiểm tra lúc khởi động: SchemaIndexCheck)
+-- ALGORITHM=INPLACE, LOCK=NONE: tạo index online, bảng vẫn đọc / ghi được trong lúc tạo
+
+-- Dò kết quả: bet PENDING của 1 ngày kết quả, keyset theo id (BetRepository.findPendingBetsAfterId)
+-- Prefix (status) dùng cho đếm bet theo trạng thái (countByStatus); lịch sử cược theo user đã có idx_bets_user_created_id (V7)
+create index idx_bets_status_result_date on bets (status, result_date) algorithm=inplace lock=none;
+
+-- Thống kê nạp / rút theo khoảng thời gian (countByTypeAndStatusAndCreatedAtBetween, sumAmountByTypeAndStatusAndCreatedAtBetween)
+create index idx_transactions_type_status_created on transactions (type, status, created_at) algorithm=inplace lock=none;
+
+-- Đếm thông báo chưa đọc của user (countUnreadNotifications)
+create index idx_notifications_target_read_expires on notifications (target_user_id, is_read, expires_at) algorithm=inplace lock=none;
@@ -0,0 +1,4 @@
+-- Index cho đồng bộ tăng dần chỉ mục tìm kiếm admin (AdminSearchIndex.resync: updated_at >= ?)
+-- ALGORITHM=INPLACE, LOCK=NONE: tạo index online, bảng vẫn đọc / ghi được trong lúc tạo
+create index idx_users_updated_at on users (updated_at) algorithm=inplace lock=none;
+create index idx_transactions_updated_at on transactions (updated_at) algorithm=inplace lock=none;